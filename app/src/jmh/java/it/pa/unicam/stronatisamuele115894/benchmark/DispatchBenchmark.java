@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Samuele Stronati, Università di Camerino.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * Contributors:
+ *     Samuele Stronati - initial API and implementation
+ *******************************************************************************/
+
+package it.pa.unicam.stronatisamuele115894.benchmark;
+
+import it.pa.unicam.stronatisamuele115894.controller.CompiledProgram;
+import it.pa.unicam.stronatisamuele115894.controller.HotProgramCache;
+import it.pa.unicam.stronatisamuele115894.controller.MapBasedSession;
+import it.pa.unicam.stronatisamuele115894.controller.ProgramClassCompiler;
+import it.pa.unicam.stronatisamuele115894.controller.ProgramInterpreter;
+import it.pa.unicam.stronatisamuele115894.controller.Session;
+import it.pa.unicam.stronatisamuele115894.controller.SessionInjector;
+import it.pa.unicam.stronatisamuele115894.program.Parser;
+import it.pa.unicam.stronatisamuele115894.program.Program;
+import it.pa.unicam.stronatisamuele115894.program.ProgramCompiler;
+import it.pa.unicam.stronatisamuele115894.program.Statement;
+import org.openjdk.jmh.annotations.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This benchmark compares the execution of the same straight-line program
+ * through the string-based commands of a MapBasedSession, where every command
+ * is looked up in a map and parses its own arguments, through the opcode
+ * dispatch of a ProgramInterpreter, where every command is resolved at load time,
+ * and through the hidden class generated by a ProgramClassCompiler.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class DispatchBenchmark {
+
+    @Param({"1000", "10000"})
+    public int commands;
+
+    private List<List<String>> tokenizedProgram;
+    private Program compiledProgram;
+    private CompiledProgram generatedProgram;
+    private Session session;
+    private ProgramInterpreter interpreter;
+
+    @Setup(Level.Trial)
+    public void compile() {
+        StringBuilder source = new StringBuilder();
+        for (int i = 0; i < commands / 2; i++)
+            source.append("FORWARD 10\nRIGHT 90\n");
+        tokenizedProgram = new ArrayList<>();
+        for (Statement s : new Parser(source).parseProgram())
+            tokenizedProgram.add(s.tokens());
+        compiledProgram = new ProgramCompiler().compile(source);
+        generatedProgram = new ProgramClassCompiler().compile(compiledProgram);
+    }
+
+    @Setup(Level.Invocation)
+    public void createSession() {
+        session = new MapBasedSession(SessionInjector.provideTurtle(), SessionInjector.provideCommands());
+        interpreter = new ProgramInterpreter(session.turtle(), ProgramInterpreter.Granularity.STATEMENT,
+                new HotProgramCache(Integer.MAX_VALUE, 1));
+    }
+
+    @Benchmark
+    public Object mapDispatch() {
+        for (List<String> command : tokenizedProgram)
+            session.getCommand(command.get(0)).apply(session.turtle(), command.subList(1, command.size()));
+        return session.turtle().getPosition();
+    }
+
+    @Benchmark
+    public Object opcodeDispatch() {
+        interpreter.load(compiledProgram);
+        interpreter.run();
+        return session.turtle().getPosition();
+    }
+
+    @Benchmark
+    public Object bytecodeDispatch() {
+        session.turtle().setSilent(true);
+        generatedProgram.run(session.turtle());
+        return session.turtle().getPosition();
+    }
+}
@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Samuele Stronati, Università di Camerino.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * Contributors:
+ *     Samuele Stronati - initial API and implementation
+ *******************************************************************************/
+
+package it.pa.unicam.stronatisamuele115894.benchmark;
+
+import it.pa.unicam.stronatisamuele115894.model.Field;
+import it.pa.unicam.stronatisamuele115894.model.GLine;
+import it.pa.unicam.stronatisamuele115894.model.LineChain;
+import it.pa.unicam.stronatisamuele115894.model.Position;
+import it.pa.unicam.stronatisamuele115894.model.RGBColor;
+import it.pa.unicam.stronatisamuele115894.model.SquareField;
+import org.openjdk.jmh.annotations.*;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This benchmark measures SquareField.draw over a long open path, made up of a
+ * zigzag of sections which never closes. The "createSection" benchmark only builds
+ * the section which is drawn by "drawSection", so that the allocations of draw itself
+ * are the difference between the two. Both benchmarks are run with the GC profiler,
+ * as configured in the build script, so that their normalized allocation rates
+ * (gc.alloc.rate.norm, in bytes per call) are reported besides their average time:
+ * these should only differ by the amortized growth of the list which stores the sections
+ * of the path, since the field inserts no section in its index until it is queried.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DrawBenchmark {
+
+    private static final int WIDTH = 1 << 16;
+
+    private Field field;
+    private RGBColor stroke;
+    private RGBColor fill;
+    private int x;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        field = new SquareField(100, WIDTH, new RGBColor(255, 255, 255), new ArrayList<>(),
+                new LineChain(new ArrayList<>(), new RGBColor(0, 0, 0)));
+        stroke = new RGBColor(255, 0, 0);
+        fill = new RGBColor(0, 0, 255);
+        x = 0;
+    }
+
+    private GLine nextSection() {
+        if (x == WIDTH) {
+            field.clearScreen();
+            x = 0;
+        }
+        int from = x++;
+        return new GLine(new Position(from, (from & 1) * 50), new Position(x, (x & 1) * 50), 1);
+    }
+
+    @Benchmark
+    public GLine createSection() {
+        return nextSection();
+    }
+
+    @Benchmark
+    public boolean drawSection() throws IllegalAccessException {
+        return field.draw(nextSection(), stroke, fill);
+    }
+}
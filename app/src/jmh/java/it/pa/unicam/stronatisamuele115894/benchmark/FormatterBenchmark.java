@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Samuele Stronati, Università di Camerino.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * Contributors:
+ *     Samuele Stronati - initial API and implementation
+ *******************************************************************************/
+
+package it.pa.unicam.stronatisamuele115894.benchmark;
+
+import it.pa.unicam.stronatisamuele115894.io.modelWriter.FieldWriter;
+import it.pa.unicam.stronatisamuele115894.model.Field;
+import it.pa.unicam.stronatisamuele115894.model.GLine;
+import it.pa.unicam.stronatisamuele115894.model.GeoPath;
+import it.pa.unicam.stronatisamuele115894.model.GeoSection;
+import it.pa.unicam.stronatisamuele115894.model.LineChain;
+import it.pa.unicam.stronatisamuele115894.model.Position;
+import it.pa.unicam.stronatisamuele115894.model.RGBColor;
+import it.pa.unicam.stronatisamuele115894.model.SquareField;
+import org.openjdk.jmh.annotations.*;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This benchmark measures how many '.logores' lines per second are written by
+ * FieldWriter, which builds every line through a LineFormatter, compared with
+ * the same lines built through String.format, as the writers used to do. The
+ * lines are written to a Writer which discards them, so that only their
+ * formatting is measured.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class FormatterBenchmark {
+
+    private static final int LINES = 100_000;
+
+    private Field field;
+    private Writer out;
+
+    @Setup(Level.Trial)
+    public void setup() throws IllegalAccessException {
+        field = new SquareField(1000, 1000, new RGBColor(255, 255, 255), new ArrayList<>(),
+                new LineChain(new ArrayList<>(), new RGBColor(0, 0, 0)));
+        RGBColor[] colors = {new RGBColor(255, 0, 0), new RGBColor(0, 128, 0), new RGBColor(47, 47, 47)};
+        for (int i = 0; i < LINES; i++)
+            field.draw(new GLine(new Position(i % 997, i * 7 % 991), new Position((i + 1) % 997, (i + 1) * 7 % 991), 1),
+                    colors[i % colors.length], null);
+        out = Writer.nullWriter();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public void lineFormatter() throws IOException {
+        new FieldWriter().writeTo(field, out);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public void stringFormat() throws IOException {
+        out.append(String.format("SIZE %.1f %.1f %s\n", field.getWidth(), field.getHeight(), colorString(field.getFill())));
+        for (GeoPath path : field.getPaths())
+            for (GeoSection s : path.getPathSections())
+                out.append(String.format("%s%n", String.format("LINE %s %s %s %d",
+                        String.format("%s %s", s.start().x(), s.start().y()),
+                        String.format("%s %s", s.end().x(), s.end().y()),
+                        colorString(s.color().orElse(null)),
+                        s.pensize())));
+    }
+
+    private static String colorString(RGBColor color) {
+        return color == null ? "N N N" : String.format("%d %d %d", color.red(), color.green(), color.blue());
+    }
+}
@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Samuele Stronati, Università di Camerino.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * Contributors:
+ *     Samuele Stronati - initial API and implementation
+ *******************************************************************************/
+package it.pa.unicam.stronatisamuele115894.benchmark;
+
+import it.pa.unicam.stronatisamuele115894.controller.ProgramInterpreter;
+import it.pa.unicam.stronatisamuele115894.controller.SessionInjector;
+import it.pa.unicam.stronatisamuele115894.model.DefaultTurtle;
+import it.pa.unicam.stronatisamuele115894.model.Position;
+import it.pa.unicam.stronatisamuele115894.model.RGBColor;
+import it.pa.unicam.stronatisamuele115894.model.Turtle;
+import it.pa.unicam.stronatisamuele115894.program.Program;
+import it.pa.unicam.stronatisamuele115894.program.ProgramCompiler;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This benchmark compares the computation of a new position of a DefaultTurtle,
+ * which reads the cosine and the sine of its direction from a table, with the
+ * previous body of computeNewPosition, which used Math.toRadians, Math.cos and
+ * Math.sin. The previous body is kept by a subclass of DefaultTurtle, so that both
+ * benchmarks call computeNewPosition in the same way, bounds check included.
+ * It also measures a long FORWARD-heavy program, where a new position is computed
+ * twice for every move.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TrigonometryBenchmark {
+
+    private Turtle turtle;
+    private Turtle mathTurtle;
+    private Program program;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        program = new ProgramCompiler().compile("RIPETI 5000 [FORWARD 20 BACK 20 RIGHT 37]");
+        turtle = SessionInjector.provideTurtle();
+        mathTurtle = new MathTurtle();
+    }
+
+    @Benchmark
+    public void tableLookup(Blackhole blackhole) {
+        for (int d = -359; d < 360; d++) {
+            turtle.setDirection(d);
+            blackhole.consume(turtle.computeNewPosition(10, -10));
+        }
+    }
+
+    @Benchmark
+    public void mathFunctions(Blackhole blackhole) {
+        for (int d = -359; d < 360; d++) {
+            mathTurtle.setDirection(d);
+            blackhole.consume(mathTurtle.computeNewPosition(10, -10));
+        }
+    }
+
+    @Benchmark
+    public Object forwardProgram() {
+        Turtle drawingTurtle = SessionInjector.provideTurtle();
+        ProgramInterpreter interpreter = new ProgramInterpreter(drawingTurtle);
+        interpreter.load(program);
+        interpreter.run();
+        return drawingTurtle.getPosition();
+    }
+
+    /*
+     * Computes a new position as DefaultTurtle did before reading the table.
+     */
+    private static final class MathTurtle extends DefaultTurtle {
+
+        @SuppressWarnings("unchecked")
+        private MathTurtle() {
+            super(SessionInjector.provideField(), new Position(100, 100), new RGBColor(0, 0, 0),
+                    new RGBColor(255, 255, 255), 1);
+        }
+
+        @Override
+        public Position computeNewPosition(int par1, int par2) {
+            double rad = Math.toRadians(getDirection());
+            double x = Math.round(getPosition().x() + par1 * Math.cos(rad));
+            double y = Math.round(getPosition().y() + par2 * Math.sin(rad));
+            Position newPosition;
+            if (!getField().isWithinBounds(newPosition = new Position(x,y)))
+                throw new IllegalArgumentException("This position is out of bounds!");
+            return newPosition;
+        }
+    }
+}
@@ -7,11 +7,16 @@ import it.pa.unicam.stronatisamuele115894.controller.MapBasedSession;
 import it.pa.unicam.stronatisamuele115894.controller.SessionController;
 import it.pa.unicam.stronatisamuele115894.controller.SessionInjector;
 import it.pa.unicam.stronatisamuele115894.controller.StreamBasedSessionController;
+import it.pa.unicam.stronatisamuele115894.view.BatchView;
 import it.pa.unicam.stronatisamuele115894.view.ConsoleView;
+import it.pa.unicam.stronatisamuele115894.view.HttpRenderView;
 import it.pa.unicam.stronatisamuele115894.view.View;
 import javafx.application.Application;
 import java.awt.Toolkit;
 import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.Objects;
 
 public class App {
@@ -20,6 +25,8 @@ public class App {
 
     public enum SESSION_TYPE {
         CONSOLE,
+        BATCH,
+        SERVER,
     }
 
     public App(View view) throws IOException{
@@ -37,17 +44,27 @@ public class App {
             launchGui();
         else {
             try {
-                Objects.requireNonNull(createSessionInterface(args[0]));
+                Objects.requireNonNull(createSessionInterface(args));
             } catch (IllegalArgumentException e) {
-                System.err.println("Cannot create this kind of session!");
+                System.err.println(e.getMessage());
             }
         }
     }
 
-    private static App createSessionInterface(String code) throws IOException{
-        switch (SESSION_TYPE.valueOf(code.toUpperCase())) {
+    private static App createSessionInterface(String[] args) throws IOException{
+        SESSION_TYPE type;
+        try {
+            type = SESSION_TYPE.valueOf(args[0].toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cannot create this kind of session!", e);
+        }
+        switch (type) {
             case CONSOLE:
                 return createDefaultConsoleSession();
+            case BATCH:
+                return createBatchSession(Arrays.copyOfRange(args, 1, args.length));
+            case SERVER:
+                return createServerSession(Arrays.copyOfRange(args, 1, args.length));
         }
         return null;
     }
@@ -58,6 +75,22 @@ public class App {
         return new App(new ConsoleView(controller));
     }
 
+    private static App createBatchSession(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 3)
+            throw new IllegalArgumentException(BatchView.USAGE);
+        int workers = args.length == 3 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        return new App(new BatchView(args[0], Paths.get(args[1]), workers));
+    }
+
+    private static App createServerSession(String[] args) throws IOException {
+        if (args.length > 3)
+            throw new IllegalArgumentException(HttpRenderView.USAGE);
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : HttpRenderView.DEFAULT_PORT;
+        int requests = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        long timeout = args.length > 2 ? Long.parseLong(args[2]) : 10_000;
+        return new App(new HttpRenderView(port, requests, Duration.ofMillis(timeout)));
+    }
+
     private static void launchGui() {
         Application.launch(JavaFXLogo.class);
     }
@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Samuele Stronati, Università di Camerino.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * Contributors:
+ *     Samuele Stronati - initial API and implementation
+ *******************************************************************************/
+
+package it.pa.unicam.stronatisamuele115894.controller;
+
+import it.pa.unicam.stronatisamuele115894.model.Turtle;
+import it.pa.unicam.stronatisamuele115894.program.Opcode;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+/**
+ * This class is an immutable map from the keywords of the Logo commands to the
+ * BiFunction instances executing them. The functions are kept in an array indexed
+ * by the ordinal of the Opcode associated to each keyword, so that a lookup is a
+ * search in the immutable keyword table of Opcode followed by an array access.
+ *
+ * Since no registry can be changed after it has been built, and its key and entry
+ * sets are built together with it, a single registry can be shared by every session,
+ * and looked up by any number of threads without synchronization.
+ */
+
+public final class CommandRegistry extends AbstractMap<String, BiFunction<Turtle, List<?>, String>> {
+
+    private final BiFunction<Turtle, List<?>, String>[] functions;
+    private final Set<String> keywords;
+    private final Set<Entry<String, BiFunction<Turtle, List<?>, String>>> entries;
+
+    /**
+     * Builds a registry with the commands of the given map.
+     * @param commands map from the keywords of the commands to their functions
+     * @throws IllegalArgumentException if some keyword is not associated to an Opcode
+     * @throws NullPointerException if some keyword or function is null
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public CommandRegistry(Map<String, BiFunction<Turtle, List<?>, String>> commands) {
+        this.functions = new BiFunction[Opcode.values().length];
+        for (Entry<String, BiFunction<Turtle, List<?>, String>> command : commands.entrySet()) {
+            Opcode opcode = Opcode.of(command.getKey());
+            if (Objects.isNull(opcode))
+                throw new IllegalArgumentException("Unknown command: " + command.getKey());
+            functions[opcode.ordinal()] = Objects.requireNonNull(command.getValue());
+        }
+        Set<String> keywords = new LinkedHashSet<>();
+        Set<Entry<String, BiFunction<Turtle, List<?>, String>>> entries = new LinkedHashSet<>();
+        for (Opcode opcode : Opcode.values())
+            if (Objects.nonNull(functions[opcode.ordinal()])) {
+                keywords.add(opcode.keyword());
+                entries.add(Map.entry(opcode.keyword(), functions[opcode.ordinal()]));
+            }
+        this.keywords = Collections.unmodifiableSet(keywords);
+        this.entries = Collections.unmodifiableSet(entries);
+    }
+
+    /**
+     * Returns the function executing the command associated to the given opcode.
+     * @param opcode opcode of the command
+     * @return function of the command, or null if the command is not in this registry
+     * @throws NullPointerException if the given opcode is null
+     */
+    public BiFunction<Turtle, List<?>, String> get(Opcode opcode) {
+        return functions[opcode.ordinal()];
+    }
+
+    @Override
+    public BiFunction<Turtle, List<?>, String> get(Object key) {
+        if (!(key instanceof String keyword))
+            return null;
+        Opcode opcode = Opcode.of(keyword);
+        return Objects.isNull(opcode) ? null : functions[opcode.ordinal()];
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return Objects.nonNull(get(key));
+    }
+
+    @Override
+    public int size() {
+        return entries.size();
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return keywords;
+    }
+
+    @Override
+    public Set<Entry<String, BiFunction<Turtle, List<?>, String>>> entrySet() {
+        return entries;
+    }
+}
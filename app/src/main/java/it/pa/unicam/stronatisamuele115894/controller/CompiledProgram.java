@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Samuele Stronati, Università di Camerino.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * Contributors:
+ *     Samuele Stronati - initial API and implementation
+ *******************************************************************************/
+package it.pa.unicam.stronatisamuele115894.controller;
+
+import it.pa.unicam.stronatisamuele115894.model.RGBColor;
+import it.pa.unicam.stronatisamuele115894.model.Turtle;
+import it.pa.unicam.stronatisamuele115894.program.Opcode;
+import it.pa.unicam.stronatisamuele115894.program.Program;
+import java.util.Objects;
+
+/**
+ * This class represents a Program which has been compiled into a hidden class
+ * by a ProgramClassCompiler. A compiled program can be run over any turtle,
+ * from any thread, as many times as needed.
+ */
+
+public final class CompiledProgram {
+
+    /*
+     * Interface implemented by the generated hidden classes, whose run method
+     * is called directly, without going through a method handle.
+     */
+    interface Code {
+
+        int run(Turtle turtle, RGBColor[] constants);
+    }
+
+    private final Program program;
+    private final Code code;
+    private final RGBColor[] constants;
+
+    CompiledProgram(Program program, Code code) {
+        this.program = program;
+        this.code = code;
+        this.constants = new RGBColor[program.constants()];
+        for (int i = 0; i < constants.length; i++)
+            constants[i] = program.constant(i);
+    }
+
+    /**
+     * Returns the program which has been compiled.
+     * @return the source program
+     */
+    public Program getProgram() {
+        return program;
+    }
+
+    /**
+     * Executes the whole program over the given turtle.
+     * @param turtle cursor directed by the program
+     * @return opcode of the last executed primitive command,
+     *         or null if no primitive command has been executed
+     * @throws IllegalArgumentException if a command of the program is not valid
+     * @throws NullPointerException if the given turtle is null
+     */
+    public Opcode run(Turtle turtle) {
+        int last = code.run(Objects.requireNonNull(turtle), constants);
+        return last < 0 ? null : Opcode.of(last);
+    }
+}
@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Samuele Stronati, Università di Camerino.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * Contributors:
+ *     Samuele Stronati - initial API and implementation
+ *******************************************************************************/
+package it.pa.unicam.stronatisamuele115894.controller;
+
+import it.pa.unicam.stronatisamuele115894.program.Program;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * This class counts how many times every Program is run, and compiles a program
+ * into a hidden class through a ProgramClassCompiler once it has been run a given
+ * number of times. Programs are compared by their content, so that the same source
+ * run by different sessions, even over fields of different sizes, shares the same
+ * counter and the same compiled program. Only the most recently run programs are
+ * remembered, and a program which cannot be compiled is always interpreted.
+ */
+
+public class HotProgramCache {
+
+    /**
+     * Default number of runs after which a program is compiled.
+     */
+    public static final int DEFAULT_THRESHOLD = 10;
+
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private static final HotProgramCache DEFAULT = new HotProgramCache(DEFAULT_THRESHOLD, DEFAULT_CAPACITY);
+
+    private final int threshold;
+    private final Map<Program, Entry> entries;
+    private final ProgramClassCompiler compiler;
+
+    private static final class Entry {
+        private int runs;
+        private CompiledProgram compiled;
+    }
+
+    /**
+     * Constructs a cache which compiles a program once it has been run the given number of times,
+     * and which remembers at most the given number of programs.
+     * @param threshold number of runs after which a program is compiled
+     * @param capacity maximum number of remembered programs
+     * @throws IllegalArgumentException if the threshold or the capacity are not positive
+     */
+    public HotProgramCache(int threshold, int capacity) {
+        if (threshold < 1 || capacity < 1)
+            throw new IllegalArgumentException("Threshold and capacity must be positive!");
+        this.threshold = threshold;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Program, Entry> eldest) {
+                return size() > capacity;
+            }
+        };
+        this.compiler = new ProgramClassCompiler();
+    }
+
+    /**
+     * Returns the cache shared by every interpreter which is not given its own cache.
+     * @return the default cache
+     */
+    public static HotProgramCache getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Records a new run of the given program, and returns its compiled version
+     * if the program has been run at least as many times as the threshold. The
+     * program is compiled by the thread which records the run reaching the
+     * threshold, while the other threads keep interpreting it in the meantime.
+     * @param program program which is going to be run
+     * @return the compiled program, or an empty Optional if the program has to be interpreted
+     * @throws NullPointerException if the given program is null
+     */
+    public Optional<CompiledProgram> lookup(Program program) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.computeIfAbsent(Objects.requireNonNull(program), p -> new Entry());
+            if (entry.runs >= threshold || ++entry.runs < threshold)
+                return Optional.ofNullable(entry.compiled);
+        }
+        CompiledProgram compiled = compile(program);
+        synchronized (entries) {
+            entry.compiled = compiled;
+        }
+        return Optional.ofNullable(compiled);
+    }
+
+    /**
+     * Returns the number of runs after which a program is compiled.
+     * @return compilation threshold
+     */
+    public int getThreshold() {
+        return threshold;
+    }
+
+    private CompiledProgram compile(Program program) {
+        try {
+            return compiler.compile(program);
+        } catch (IllegalArgumentException | IllegalStateException | LinkageError e) {
+            return null;
+        }
+    }
+}
@@ -26,9 +26,6 @@
 
 package it.pa.unicam.stronatisamuele115894.controller;
 
-import com.google.inject.Inject;
-import it.pa.unicam.stronatisamuele115894.utils.InjTurtle;
-import it.pa.unicam.stronatisamuele115894.utils.InjCommands;
 import it.pa.unicam.stronatisamuele115894.model.Turtle;
 import java.util.List;
 import java.util.Map;
@@ -42,6 +39,8 @@ import java.util.function.BiFunction;
  * are injected through a separate SessionInjector. Commands are created through a Map
  * data structure which links the string representing the command to the parameters
  * and the action associated to it, where the action is executed by the injected cursor.
+ * The injected map is usually the CommandRegistry shared by every session, which is never
+ * changed, so that sessions running on different threads can look up their commands safely.
  * @param turtle the injected cursor;
  * @param commands the injected string-based commands, created through a Map data structure;
 
@@ -56,8 +55,7 @@ public record MapBasedSession(Turtle turtle, Map<String,BiFunction<Turtle, List<
      * @param commands the injected string-based commands, created through a Map data structure;
      */
 
-    @Inject
-    public MapBasedSession(@InjTurtle Turtle turtle, @InjCommands Map<String, BiFunction<Turtle, List<?>,String>> commands) {
+    public MapBasedSession(Turtle turtle, Map<String, BiFunction<Turtle, List<?>,String>> commands) {
         this.turtle = Objects.requireNonNull(turtle, "A session needs a cursor");
         this.commands = Objects.requireNonNull(commands, "Commands are needed to direct the cursor");
     }
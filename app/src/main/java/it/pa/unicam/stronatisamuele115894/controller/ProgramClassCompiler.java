@@ -0,0 +1,436 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Samuele Stronati, Università di Camerino.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * Contributors:
+ *     Samuele Stronati - initial API and implementation
+ *******************************************************************************/
+package it.pa.unicam.stronatisamuele115894.controller;
+
+import it.pa.unicam.stronatisamuele115894.program.Opcode;
+import it.pa.unicam.stronatisamuele115894.program.Program;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+
+/**
+ * This class translates a compiled Program into the bytecode of a JVM hidden
+ * class, which is then defined through {@link MethodHandles.Lookup#defineHiddenClass}.
+ * The generated class implements CompiledProgram.Code, whose run method calls
+ * a static execute method, which directs the given turtle
+ * by calling the operations of Turtle, Field and TurtleCommands directly, and
+ * which executes every RIPETI statement as a plain counted loop, calling the
+ * checkpoint of the turtle at every repetition. Long programs
+ * are split among several methods, which are called one after the other. Therefore the
+ * JIT compiler can inline the whole drawing of the program, as if it had been
+ * written in Java. Since a generated class is not referenced by any class loader,
+ * it is unloaded as soon as its CompiledProgram is no longer reachable.
+ */
+
+public class ProgramClassCompiler {
+
+    private static final String CLASS_NAME = "it/pa/unicam/stronatisamuele115894/controller/GeneratedProgram";
+    private static final String TURTLE = "it/pa/unicam/stronatisamuele115894/model/Turtle";
+    private static final String FIELD = "it/pa/unicam/stronatisamuele115894/model/Field";
+    private static final String COLORS = "[Lit/pa/unicam/stronatisamuele115894/model/RGBColor;";
+    private static final String COMMANDS = "it/pa/unicam/stronatisamuele115894/controller/TurtleCommands";
+    private static final String RUN_DESCRIPTOR = "(L" + TURTLE + ";" + COLORS + ")I";
+    private static final String CHUNK_DESCRIPTOR = "(L" + TURTLE + ";" + COLORS + "I)I";
+    private static final String CODE = "it/pa/unicam/stronatisamuele115894/controller/CompiledProgram$Code";
+
+    /*
+     * Branches are encoded as signed 16-bit offsets, and loop counters are
+     * addressed through a single byte. Top-level statements are split among
+     * several methods, so that the JIT compiler can handle each one of them.
+     */
+    private static final int MAX_CODE_LENGTH = Short.MAX_VALUE;
+    private static final int CHUNK_LENGTH = 4000;
+    private static final int MAX_LOOP_DEPTH = 250;
+
+    private static final int TURTLE_SLOT = 0;
+    private static final int COLORS_SLOT = 1;
+    private static final int LAST_SLOT = 2;
+    private static final int FIRST_COUNTER_SLOT = 3;
+
+    private final MethodHandles.Lookup lookup;
+
+    /**
+     * Constructs a compiler which defines its hidden classes in the package of this class.
+     */
+    public ProgramClassCompiler() {
+        lookup = MethodHandles.lookup();
+    }
+
+    /**
+     * Compiles the given program into a hidden class.
+     * @param program program to be compiled
+     * @return the compiled program
+     * @throws IllegalArgumentException if the program is too large or too deeply
+     *                                  nested to be compiled
+     * @throws NullPointerException if the given program is null
+     */
+    public CompiledProgram compile(Program program) {
+        byte[] bytes = generate(Objects.requireNonNull(program));
+        try {
+            MethodHandles.Lookup hidden = lookup.defineHiddenClass(bytes, true);
+            MethodHandle constructor = hidden.findConstructor(hidden.lookupClass(), MethodType.methodType(void.class));
+            return new CompiledProgram(program, (CompiledProgram.Code) constructor.invoke());
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Unable to define a compiled program", e);
+        }
+    }
+
+    /**
+     * Returns the bytes of the class file generated for the given program.
+     * @param program program to be compiled
+     * @return bytes of the generated class file
+     * @throws IllegalArgumentException if the program is too large or too deeply
+     *                                  nested to be compiled
+     */
+    byte[] generate(Program program) {
+        ConstantPool pool = new ConstantPool();
+        int thisClass = pool.classInfo(CLASS_NAME);
+        int superClass = pool.classInfo("java/lang/Object");
+        List<MethodWriter> methods = new ArrayList<>();
+        MethodWriter run = new MethodWriter(program, pool, "execute", RUN_DESCRIPTOR);
+        run.pushInt(-1);
+        run.code.u1(0x36).u1(LAST_SLOT);
+        methods.add(run);
+        MethodWriter chunk = null;
+        for (int pc = 0; pc < program.size(); ) {
+            int next = program.opcode(pc) == Opcode.REPEAT.ordinal() ? program.operand(pc, 1) : program.next(pc);
+            if (Objects.isNull(chunk) || chunk.code.size() > CHUNK_LENGTH) {
+                chunk = new MethodWriter(program, pool, "chunk" + methods.size(), CHUNK_DESCRIPTOR);
+                methods.add(chunk);
+                run.code.u1(0x19).u1(TURTLE_SLOT).u1(0x19).u1(COLORS_SLOT).u1(0x15).u1(LAST_SLOT);
+                run.code.u1(0xB8).u2(pool.methodRef(CLASS_NAME, chunk.name, CHUNK_DESCRIPTOR, false));
+                run.code.u1(0x36).u1(LAST_SLOT);
+            }
+            chunk.writeBlock(pc, next, 0);
+            pc = next;
+        }
+        int code = pool.utf8("Code");
+        int stackMapTable = pool.utf8("StackMapTable");
+        int codeInterface = pool.classInfo(CODE);
+        ByteWriter out = new ByteWriter();
+        List<ByteWriter> bodies = new ArrayList<>(methods.size() + 2);
+        for (MethodWriter method : methods)
+            bodies.add(method.writeTo(code, stackMapTable));
+        ByteWriter constructor = new ByteWriter();
+        constructor.u1(0x2A).u1(0xB7).u2(pool.methodRef("java/lang/Object", "<init>", "()V", false)).u1(0xB1);
+        bodies.add(writeMethod(pool, code, "<init>", "()V", 1, 1, constructor));
+        ByteWriter bridge = new ByteWriter();
+        bridge.u1(0x2B).u1(0x2C).u1(0xB8).u2(pool.methodRef(CLASS_NAME, "execute", RUN_DESCRIPTOR, false)).u1(0xAC);
+        bodies.add(writeMethod(pool, code, "run", RUN_DESCRIPTOR, 2, 3, bridge));
+        out.u4(0xCAFEBABE).u2(0).u2(61);
+        pool.writeTo(out);
+        out.u2(0x0030).u2(thisClass).u2(superClass).u2(1).u2(codeInterface).u2(0);
+        out.u2(bodies.size());
+        bodies.forEach(out::bytes);
+        out.u2(0);
+        return out.toByteArray();
+    }
+
+    /*
+     * Writes a public instance method, whose code has no branches.
+     */
+    private static ByteWriter writeMethod(ConstantPool pool, int codeName, String name, String descriptor,
+                                          int maxStack, int maxLocals, ByteWriter body) {
+        ByteWriter method = new ByteWriter();
+        method.u2(0x0001).u2(pool.utf8(name)).u2(pool.utf8(descriptor)).u2(1);
+        method.u2(codeName).u4(12 + body.size()).u2(maxStack).u2(maxLocals).u4(body.size());
+        method.bytes(body);
+        method.u2(0).u2(0);
+        return method;
+    }
+
+    /*
+     * Writes the code of a generated method. Every loop counter is stored in
+     * the local variable of its nesting level, and every local variable is
+     * initialized at the beginning of the method, so that all the frames of
+     * the method share the same local variables.
+     */
+    private static final class MethodWriter {
+
+        private final Program program;
+        private final ConstantPool pool;
+        private final String name;
+        private final String descriptor;
+        private final ByteWriter code = new ByteWriter();
+        private final TreeSet<Integer> labels = new TreeSet<>();
+        private int loopDepth;
+
+        private MethodWriter(Program program, ConstantPool pool, String name, String descriptor) {
+            this.program = program;
+            this.pool = pool;
+            this.name = name;
+            this.descriptor = descriptor;
+        }
+
+        /*
+         * Writes the whole method_info structure, where the code written so far is
+         * preceded by the initialization of the loop counters and followed by the
+         * return of the last executed opcode. Since branches are relative, only the
+         * offsets of the frames have to be moved after the initialization.
+         */
+        private ByteWriter writeTo(int codeName, int stackMapTableName) {
+            ByteWriter body = new ByteWriter();
+            for (int i = 0; i < loopDepth; i++)
+                body.u1(0x03).u1(0x36).u1(FIRST_COUNTER_SLOT + i);
+            int shift = body.size();
+            body.bytes(code);
+            body.u1(0x15).u1(LAST_SLOT).u1(0xAC);
+            if (body.size() > MAX_CODE_LENGTH)
+                throw new IllegalArgumentException("The program is too large to be compiled!");
+            int[] locals = new int[FIRST_COUNTER_SLOT + loopDepth];
+            locals[TURTLE_SLOT] = pool.classInfo(TURTLE);
+            locals[COLORS_SLOT] = pool.classInfo(COLORS);
+            ByteWriter frames = new ByteWriter();
+            frames.u2(labels.size());
+            int previous = -1;
+            for (int label : labels) {
+                int offset = label + shift;
+                frames.u1(255).u2(offset - previous - 1).u2(locals.length);
+                for (int local : locals) {
+                    if (local == 0)
+                        frames.u1(1);
+                    else
+                        frames.u1(7).u2(local);
+                }
+                frames.u2(0);
+                previous = offset;
+            }
+            ByteWriter method = new ByteWriter();
+            method.u2(0x0009).u2(pool.utf8(name)).u2(pool.utf8(descriptor)).u2(1);
+            int attributeLength = 12 + body.size() + (labels.isEmpty() ? 0 : 6 + frames.size());
+            method.u2(codeName).u4(attributeLength).u2(4).u2(locals.length).u4(body.size());
+            method.bytes(body);
+            method.u2(0);
+            if (labels.isEmpty())
+                method.u2(0);
+            else {
+                method.u2(1).u2(stackMapTableName).u4(frames.size());
+                method.bytes(frames);
+            }
+            return method;
+        }
+
+        private void writeBlock(int pc, int end, int depth) {
+            while (pc < end) {
+                Opcode opcode = Opcode.of(program.opcode(pc));
+                if (opcode == Opcode.REPEAT) {
+                    int exit = program.operand(pc, 1);
+                    writeLoop(program.operand(pc, 0), program.next(pc), exit - 1 - Opcode.LOOP.operands(), depth);
+                    pc = exit;
+                } else {
+                    writeCommand(opcode, pc);
+                    pc = program.next(pc);
+                }
+            }
+        }
+
+        private void writeLoop(int times, int body, int end, int depth) {
+            if (depth == MAX_LOOP_DEPTH)
+                throw new IllegalArgumentException("The program is too deeply nested to be compiled!");
+            loopDepth = Math.max(loopDepth, depth + 1);
+            int counter = FIRST_COUNTER_SLOT + depth;
+            pushInt(times);
+            code.u1(0x36).u1(counter);
+            int head = code.size();
+            labels.add(head);
+            code.u1(0x15).u1(counter);
+            int branch = code.size();
+            code.u1(0x9E).u2(0);
+            writeBlock(body, end, depth + 1);
+            code.u1(0x19).u1(TURTLE_SLOT);
+            invokeInterface(TURTLE, "checkpoint", "()V", 1);
+            code.u1(0x84).u1(counter).u1(-1);
+            int back = code.size();
+            code.u1(0xA7).u2(head - back);
+            labels.add(code.size());
+            if (code.size() - branch > MAX_CODE_LENGTH)
+                throw new IllegalArgumentException("The program is too large to be compiled!");
+            code.patch(branch + 1, code.size() - branch);
+        }
+
+        private void writeCommand(Opcode opcode, int pc) {
+            pushInt(opcode.ordinal());
+            code.u1(0x36).u1(LAST_SLOT);
+            code.u1(0x19).u1(TURTLE_SLOT);
+            switch (opcode) {
+                case FORWARD -> invokeCommand("forward", program.operand(pc, 0));
+                case BACK -> invokeCommand("back", program.operand(pc, 0));
+                case RIGHT -> invokeCommand("right", program.operand(pc, 0));
+                case LEFT -> invokeCommand("left", program.operand(pc, 0));
+                case SETPENSIZE -> {
+                    pushInt(program.operand(pc, 0));
+                    invokeInterface(TURTLE, "setPenSize", "(I)Ljava/lang/String;", 2);
+                }
+                case SETPENCOLOR -> {
+                    pushColor(program.operand(pc, 0));
+                    invokeInterface(TURTLE, "setStroke", "(Lit/pa/unicam/stronatisamuele115894/model/RGBColor;)Ljava/lang/String;", 2);
+                }
+                case SETFILLCOLOR -> {
+                    pushColor(program.operand(pc, 0));
+                    invokeInterface(TURTLE, "setFill", "(Lit/pa/unicam/stronatisamuele115894/model/RGBColor;)Ljava/lang/String;", 2);
+                }
+                case SETSCREENCOLOR -> {
+                    invokeInterface(TURTLE, "getField", "()L" + FIELD + ";", 1);
+                    pushColor(program.operand(pc, 0));
+                    invokeInterface(FIELD, "setScreenColor", "(Lit/pa/unicam/stronatisamuele115894/model/RGBColor;)Ljava/lang/String;", 2);
+                }
+                case CLEARSCREEN -> invokeInterface(TURTLE, "clearScreen", "()Ljava/lang/String;", 1);
+                case HOME -> code.u1(0xB8).u2(pool.methodRef(COMMANDS, "home", "(L" + TURTLE + ";)Ljava/lang/String;", false));
+                case PENUP, PENDOWN -> {
+                    pushInt(opcode == Opcode.PENDOWN ? 1 : 0);
+                    invokeInterface(TURTLE, "setPlot", "(Z)Ljava/lang/String;", 2);
+                }
+                default -> throw new IllegalArgumentException(String.format("Unexpected instruction %s!", opcode));
+            }
+            code.u1(0x57);
+        }
+
+        private void invokeCommand(String name, int argument) {
+            pushInt(argument);
+            code.u1(0xB8).u2(pool.methodRef(COMMANDS, name, "(L" + TURTLE + ";I)Ljava/lang/String;", false));
+        }
+
+        private void invokeInterface(String owner, String name, String descriptor, int count) {
+            code.u1(0xB9).u2(pool.methodRef(owner, name, descriptor, true)).u1(count).u1(0);
+        }
+
+        private void pushColor(int index) {
+            code.u1(0x19).u1(COLORS_SLOT);
+            pushInt(index);
+            code.u1(0x32);
+        }
+
+        private void pushInt(int value) {
+            if (value >= -1 && value <= 5)
+                code.u1(0x03 + value);
+            else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE)
+                code.u1(0x10).u1(value);
+            else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE)
+                code.u1(0x11).u2(value);
+            else
+                code.u1(0x13).u2(pool.integer(value));
+        }
+    }
+
+    /*
+     * Constant pool of the generated class, where every entry is stored once.
+     */
+    private static final class ConstantPool {
+
+        private final ByteWriter entries = new ByteWriter();
+        private final Map<List<Object>, Integer> indexes = new HashMap<>();
+        private int count = 1;
+
+        private int entry(List<Object> key, ByteWriter entry) {
+            return indexes.computeIfAbsent(key, k -> {
+                entries.bytes(entry);
+                return count++;
+            });
+        }
+
+        private int utf8(String value) {
+            ByteWriter entry = new ByteWriter().u1(1).u2(value.length());
+            for (char c : value.toCharArray())
+                entry.u1(c);
+            return entry(List.of(1, value), entry);
+        }
+
+        private int integer(int value) {
+            return entry(List.of(3, value), new ByteWriter().u1(3).u4(value));
+        }
+
+        private int classInfo(String name) {
+            int index = utf8(name);
+            return entry(List.of(7, name), new ByteWriter().u1(7).u2(index));
+        }
+
+        private int methodRef(String owner, String name, String descriptor, boolean isInterface) {
+            int ownerIndex = classInfo(owner);
+            int nameIndex = utf8(name);
+            int descriptorIndex = utf8(descriptor);
+            int nameAndType = entry(List.of(12, name, descriptor),
+                    new ByteWriter().u1(12).u2(nameIndex).u2(descriptorIndex));
+            int tag = isInterface ? 11 : 10;
+            return entry(List.of(tag, owner, name, descriptor), new ByteWriter().u1(tag).u2(ownerIndex).u2(nameAndType));
+        }
+
+        private void writeTo(ByteWriter out) {
+            out.u2(count);
+            out.bytes(entries);
+        }
+    }
+
+    /*
+     * Growable big-endian byte buffer.
+     */
+    private static final class ByteWriter {
+
+        private byte[] buffer = new byte[64];
+        private int size;
+
+        private ByteWriter u1(int value) {
+            if (size == buffer.length)
+                buffer = Arrays.copyOf(buffer, size * 2);
+            buffer[size++] = (byte) value;
+            return this;
+        }
+
+        private ByteWriter u2(int value) {
+            return u1(value >>> 8).u1(value);
+        }
+
+        private ByteWriter u4(int value) {
+            return u2(value >>> 16).u2(value);
+        }
+
+        private ByteWriter bytes(ByteWriter other) {
+            for (int i = 0; i < other.size; i++)
+                u1(other.buffer[i]);
+            return this;
+        }
+
+        private void patch(int at, int value) {
+            buffer[at] = (byte) (value >>> 8);
+            buffer[at + 1] = (byte) value;
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+    }
+}
@@ -0,0 +1,304 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Samuele Stronati, Università di Camerino.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * Contributors:
+ *     Samuele Stronati - initial API and implementation
+ *******************************************************************************/
+
+package it.pa.unicam.stronatisamuele115894.controller;
+
+import it.pa.unicam.stronatisamuele115894.model.Turtle;
+import it.pa.unicam.stronatisamuele115894.program.Opcode;
+import it.pa.unicam.stronatisamuele115894.program.Program;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * This class executes a compiled Program over a given Turtle. Instructions
+ * are dispatched through a switch over their opcode, and their operands are
+ * read as pre-decoded integers, so that no string is parsed during the
+ * execution of the program.
+ *
+ * The interpreter keeps a stack of loop counters, one for each RIPETI
+ * instruction being executed, so that the body of a loop is executed
+ * in place, without being copied. Since the whole state of the execution
+ * is made up of the program counter and of this stack, the execution can
+ * be suspended after any instruction and resumed later. Depending on its
+ * Granularity, every step executes either a whole top-level statement or
+ * a single primitive command, even if it is inside a loop.
+ *
+ * The checkpoint of the turtle is called before every instruction, loops included,
+ * so that the turtle can stop a program which never directs it.
+ *
+ * When a whole program is run from its beginning, the interpreter asks its
+ * HotProgramCache for a compiled version of the program, so that a program
+ * which is run many times is executed by a generated hidden class instead.
+ */
+
+public class ProgramInterpreter {
+
+    /**
+     * Defines how much of a program is executed by a single step.
+     */
+    public enum Granularity {
+        /**
+         * Every step executes a top-level statement, including
+         * every repetition of a RIPETI statement.
+         */
+        STATEMENT,
+        /**
+         * Every step executes a single primitive command,
+         * even if it is inside a RIPETI statement.
+         */
+        PRIMITIVE
+    }
+
+    private final Turtle turtle;
+    private final Granularity granularity;
+    private final HotProgramCache cache;
+    private Program program;
+    private int pc;
+    private int[] loopCounters;
+    private int depth;
+    private Opcode lastExecuted;
+
+    /**
+     * Constructs an interpreter which directs the given cursor, whose steps have
+     * the given granularity, and which finds compiled programs in the given cache.
+     * @param turtle cursor directed by the interpreter
+     * @param granularity granularity of a step
+     * @param cache cache of the compiled programs
+     * @throws NullPointerException if the given turtle, granularity or cache is null
+     */
+    public ProgramInterpreter(Turtle turtle, Granularity granularity, HotProgramCache cache) {
+        this.turtle = Objects.requireNonNull(turtle, "An interpreter needs a cursor");
+        this.granularity = Objects.requireNonNull(granularity);
+        this.cache = Objects.requireNonNull(cache);
+        this.loopCounters = new int[8];
+        clear();
+    }
+
+    /**
+     * Constructs an interpreter which directs the given cursor, and
+     * whose steps have the given granularity.
+     * @param turtle cursor directed by the interpreter
+     * @param granularity granularity of a step
+     * @throws NullPointerException if the given turtle or granularity is null
+     */
+    public ProgramInterpreter(Turtle turtle, Granularity granularity) {
+        this(turtle, granularity, HotProgramCache.getDefault());
+    }
+
+    /**
+     * Constructs an interpreter which directs the given cursor, and
+     * whose steps execute a whole top-level statement.
+     * @param turtle cursor directed by the interpreter
+     * @throws NullPointerException if the given turtle is null
+     */
+    public ProgramInterpreter(Turtle turtle) {
+        this(turtle, Granularity.STATEMENT);
+    }
+
+    /**
+     * Loads a new program, which will be executed from its first instruction.
+     * @param program compiled program
+     * @throws NullPointerException if the given program is null
+     */
+    public void load(Program program) {
+        this.program = Objects.requireNonNull(program);
+        this.pc = 0;
+        this.depth = 0;
+        this.lastExecuted = null;
+    }
+
+    /**
+     * Removes the loaded program from this interpreter.
+     */
+    public void clear() {
+        this.program = null;
+        this.pc = 0;
+        this.depth = 0;
+        this.lastExecuted = null;
+    }
+
+    /**
+     * Returns true if the loaded program has some instruction left to execute.
+     * If the granularity of this interpreter is PRIMITIVE, the loop instructions
+     * which precede the next primitive command are executed, so that the program
+     * counter points to the next primitive command which would be executed by a step.
+     * @return true if the loaded program has not been completed, false otherwise
+     * @throws NullPointerException if no program is loaded
+     */
+    public boolean hasNext() {
+        if (granularity == Granularity.PRIMITIVE)
+            skipLoopInstructions();
+        return pc < Objects.requireNonNull(program).size();
+    }
+
+    /**
+     * Executes the next step of the loaded program. If the granularity of this
+     * interpreter is STATEMENT, a RIPETI instruction is executed as a whole,
+     * otherwise the next primitive command is executed.
+     * @return string representing the result of the activity
+     * @throws NullPointerException if no program is loaded
+     * @throws NoSuchElementException if the program has been completed
+     */
+    public String step() {
+        if (!hasNext())
+            throw new NoSuchElementException("The program has been completed!");
+        if (granularity == Granularity.PRIMITIVE)
+            return execute();
+        int start = pc;
+        String result = execute();
+        if (program.opcode(start) != Opcode.REPEAT.ordinal())
+            return result;
+        while (depth > 0)
+            execute();
+        lastExecuted = Opcode.REPEAT;
+        return String.format("Executed sequence of commands!%n");
+    }
+
+    /**
+     * Executes every instruction left in the loaded program. Since the results
+     * of the single instructions are discarded, the cursor is made silent for
+     * the whole execution, so that no result string is built. If the program is
+     * run from its beginning and the cache of this interpreter provides a compiled
+     * version of it, the compiled version is executed instead.
+     * @throws NullPointerException if no program is loaded
+     */
+    public void run() {
+        boolean silent = turtle.isSilent();
+        turtle.setSilent(true);
+        try {
+            if (pc == 0 && runCompiled())
+                return;
+            while (hasNext())
+                execute();
+        } finally {
+            turtle.setSilent(silent);
+        }
+    }
+
+    /**
+     * Returns the granularity of a step of this interpreter.
+     * @return granularity of a step
+     */
+    public Granularity getGranularity() {
+        return granularity;
+    }
+
+    /**
+     * Returns the number of RIPETI instructions being executed.
+     * @return number of nested loops being executed
+     */
+    public int getLoopDepth() {
+        return depth;
+    }
+
+    /**
+     * Returns the loaded program, or null if no program is loaded.
+     * @return the loaded program
+     */
+    public Program getProgram() {
+        return program;
+    }
+
+    /**
+     * Returns the address of the next instruction to be executed.
+     * @return address of the next instruction
+     */
+    public int getProgramCounter() {
+        return pc;
+    }
+
+    /**
+     * Returns the opcode of the last step executed by this interpreter,
+     * or null if no step has been executed yet.
+     * @return opcode of the last executed instruction
+     */
+    public Opcode getLastExecuted() {
+        return lastExecuted;
+    }
+
+    private boolean runCompiled() {
+        Optional<CompiledProgram> compiled = cache.lookup(Objects.requireNonNull(program));
+        if (compiled.isEmpty())
+            return false;
+        Opcode last = compiled.get().run(turtle);
+        pc = program.size();
+        if (Objects.nonNull(last))
+            lastExecuted = last;
+        return true;
+    }
+
+    private String execute() {
+        turtle.checkpoint();
+        int at = pc;
+        Opcode opcode = Opcode.of(program.opcode(at));
+        pc = at + 1 + opcode.operands();
+        if (opcode != Opcode.REPEAT && opcode != Opcode.LOOP)
+            lastExecuted = opcode;
+        return switch (opcode) {
+            case FORWARD -> TurtleCommands.forward(turtle, program.operand(at, 0));
+            case BACK -> TurtleCommands.back(turtle, program.operand(at, 0));
+            case RIGHT -> TurtleCommands.right(turtle, program.operand(at, 0));
+            case LEFT -> TurtleCommands.left(turtle, program.operand(at, 0));
+            case SETPENSIZE -> turtle.setPenSize(program.operand(at, 0));
+            case SETPENCOLOR -> turtle.setStroke(program.constant(program.operand(at, 0)));
+            case SETFILLCOLOR -> turtle.setFill(program.constant(program.operand(at, 0)));
+            case SETSCREENCOLOR -> turtle.getField().setScreenColor(program.constant(program.operand(at, 0)));
+            case CLEARSCREEN -> turtle.clearScreen();
+            case HOME -> TurtleCommands.home(turtle);
+            case PENUP -> turtle.setPlot(false);
+            case PENDOWN -> turtle.setPlot(true);
+            case REPEAT -> enterLoop(at);
+            case LOOP -> exitLoop(at);
+        };
+    }
+
+    private void skipLoopInstructions() {
+        while (pc < program.size()
+                && (program.opcode(pc) == Opcode.REPEAT.ordinal() || program.opcode(pc) == Opcode.LOOP.ordinal()))
+            execute();
+    }
+
+    private String enterLoop(int at) {
+        int times = program.operand(at, 0);
+        if (times <= 0) {
+            pc = program.operand(at, 1);
+            return "";
+        }
+        if (depth == loopCounters.length)
+            loopCounters = Arrays.copyOf(loopCounters, depth * 2);
+        loopCounters[depth++] = times;
+        return "";
+    }
+
+    private String exitLoop(int at) {
+        if (--loopCounters[depth - 1] > 0)
+            pc = program.operand(at, 0);
+        else
+            depth--;
+        return "";
+    }
+}
@@ -25,6 +25,7 @@
 
 package it.pa.unicam.stronatisamuele115894.controller;
 
+import it.pa.unicam.stronatisamuele115894.program.Program;
 import java.util.List;
 import java.util.ListIterator;
 
@@ -35,9 +36,13 @@ public interface SessionController {
 
     String setNewProgram(ListIterator<List<String>> program);
 
+    String setNewProgram(Program program);
+
 
     String runNextCommand();
 
+    String runProgram();
+
     void clearProgram();
 
     String getLastProcessedCommand();
@@ -25,45 +25,64 @@
 
 package it.pa.unicam.stronatisamuele115894.controller;
 
-import com.google.inject.AbstractModule;
-import com.google.inject.Provides;
 import it.pa.unicam.stronatisamuele115894.model.*;
-import it.pa.unicam.stronatisamuele115894.utils.InjTurtle;
-import it.pa.unicam.stronatisamuele115894.utils.InjField;
-import it.pa.unicam.stronatisamuele115894.utils.InjCommands;
+import it.pa.unicam.stronatisamuele115894.program.Parser;
+import it.pa.unicam.stronatisamuele115894.program.Repeat;
+import it.pa.unicam.stronatisamuele115894.program.Statement;
 import java.util.*;
 import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
  * This class injects the necessary parameters to a Session instance.
+ * The dependencies are wired at compile time, through static factory methods,
+ * so that no dependency injection framework has to be loaded, and no reflection
+ * is done, when a session is started.
  */
-public class SessionInjector extends AbstractModule {
+public final class SessionInjector {
 
+    /*
+     * The RIPETI command resolves the commands of its block through this registry,
+     * which is built once and shared by every session.
+     */
+    private static final CommandRegistry COMMANDS = createCommands();
+
+    private SessionInjector() {
+    }
 
     /**
      * Injects a Map with the commands available for the user of the session.
+     * The map is an immutable CommandRegistry, shared by every session.
      * @return Map with the commands available for the user of the session.
      */
-    @Provides
-    @InjCommands
     public static Map<String, BiFunction<Turtle, List<?>,String>> provideCommands() {
+        return COMMANDS;
+    }
+
+    private static CommandRegistry createCommands() {
         Map<String, BiFunction<Turtle, List<?>,String>> commandmap = new HashMap<>();
         addIntegerSingleArgumentFunctions(commandmap);
         addIntegerListArgumentFunctions(commandmap);
         addNoArgumentFunctions(commandmap);
         addRepeatCommand(commandmap);
-        return commandmap;
+        return new CommandRegistry(commandmap);
     }
 
     /**
      * Injects the default cursor parameters of this session.
      * @return default cursor parameters of this session.
      */
-    @Provides
-    @InjTurtle
     public static Turtle provideTurtle() {
-        Field field = SessionInjector.provideField();
+        return provideTurtle(SessionInjector.provideField());
+    }
+
+    /**
+     * Provides a cursor with the default parameters, which draws on the given canvas.
+     * @param field canvas used to draw during the session.
+     * @return cursor placed at the center of the given canvas.
+     */
+    public static Turtle provideTurtle(Field field) {
         return new DefaultTurtle(Objects.requireNonNull(field),
                 new Position(field.getWidth()/2, field.getHeight()/2),
                 new RGBColor(0, 0, 0),
@@ -75,12 +94,21 @@ public class SessionInjector extends AbstractModule {
      * Injects the default canvas used to draw during this session.
      * @return default canvas used to draw during this session.
      */
-    @Provides
-    @InjField
     public static Field provideField() {
+        return provideField(200f, 200f);
+    }
+
+    /**
+     * Provides a canvas of the given size, with the default colors.
+     * @param width width of the canvas.
+     * @param height height of the canvas.
+     * @return canvas used to draw during a session.
+     * @throws IllegalArgumentException if the width or the height is negative
+     */
+    public static Field provideField(double width, double height) {
         return new SquareField(
-                200f,
-                200f,
+                height,
+                width,
                 new RGBColor(255,255,255),
                 new ArrayList<>(),
                 new LineChain(new ArrayList<>(), new RGBColor(0,0,0)));
@@ -91,7 +119,7 @@ public class SessionInjector extends AbstractModule {
      * Adds the RIPETI command to the session
      */
     private static void addRepeatCommand(Map<String,BiFunction<Turtle, List<?>,String>> commands) {
-        commands.put("RIPETI" , (t,obj) -> createRepeatCommand(t,obj,commands));
+        commands.put("RIPETI" , (t,obj) -> createRepeatCommand(t,obj,COMMANDS));
     }
 
     /**
@@ -107,10 +135,10 @@ public class SessionInjector extends AbstractModule {
      * Adds some defined commands taking an Integer argument.
      */
     private static void addIntegerSingleArgumentFunctions(Map<String,BiFunction<Turtle, List<?>,String>> commands) {
-        commands.put("FORWARD", (t,obj) -> forward(t, convertToInt(obj,1,0)));
-        commands.put("BACK", (t,obj) -> back(t, convertToInt(obj,1,0)));
-        commands.put("RIGHT",(t,obj) -> right(t,convertToInt(obj,1,0)));
-        commands.put("LEFT",(t,obj) -> left(t,convertToInt(obj,1,0)));
+        commands.put("FORWARD", (t,obj) -> TurtleCommands.forward(t, convertToInt(obj,1,0)));
+        commands.put("BACK", (t,obj) -> TurtleCommands.back(t, convertToInt(obj,1,0)));
+        commands.put("RIGHT",(t,obj) -> TurtleCommands.right(t,convertToInt(obj,1,0)));
+        commands.put("LEFT",(t,obj) -> TurtleCommands.left(t,convertToInt(obj,1,0)));
         commands.put("SETPENSIZE",(t,obj) -> t.setPenSize(convertToInt(obj,1,0)));
     }
 
@@ -119,7 +147,7 @@ public class SessionInjector extends AbstractModule {
      */
     private static void addNoArgumentFunctions(Map<String,BiFunction<Turtle, List<?>,String>> commands) {
         commands.put("CLEARSCREEN", (t,obj) -> t.clearScreen());
-        commands.put("HOME", (t,obj) -> home(t));
+        commands.put("HOME", (t,obj) -> TurtleCommands.home(t));
         commands.put("PENUP", (t,obj) -> t.setPlot(false));
         commands.put("PENDOWN", (t,obj) -> t.setPlot(true));
     }
@@ -169,87 +197,54 @@ public class SessionInjector extends AbstractModule {
         return convertToInt(list,n).get(index);
     }
 
-    /**
-     * Creates a "FORWARD" command for the cursor.
-     */
-    private static String forward(Turtle t, int n) {
-        return t.move(n,-n, new GLine(t.getPosition(), t.computeNewPosition(n,-n),t.getPenSize()));
-    }
-
-    /**
-     * Creates a "BACK" command for the cursor.
-     */
-    private static String back(Turtle t, int n) {
-        return t.move(-n,n, new GLine(t.getPosition(), t.computeNewPosition(-n,n),t.getPenSize()));
-    }
-
-    /**
-     * Creates a "RIGHT" command for the cursor.
-     */
-    private static String right(Turtle t, int degrees) {
-        return t.setDirection(t.getDirection()-degrees);
-    }
-
-    /**
-     * Creates a "LEFT" command for the cursor.
-     */
-    private static String left(Turtle t, int degrees) {
-        return t.setDirection(t.getDirection()+degrees);
-    }
-
-    /**
-     * Creates a "HOME" command for the cursor.
-     */
-    private static String home(Turtle t) {
-        if (t.getPlot())
-            t.setPlot(false);
-        Position homePosition = new Position(t.getField().getWidth() / 2, t.getField().getHeight() / 2);
-        String result = t.move( homePosition, new GLine(t.getPosition(), homePosition,t.getPenSize()));
-        t.setPlot(true);
-        return result;
-    }
-
     /**
      * Creates a "RIPETI" command for the cursor. The RIPETI command must have this syntax.
      *
-     * This method runs a list of BiFunction instances representing the commands.The list is
-     * created by spitting into autonomous lists (through the private method convertCommandsToStringList)
-     * the string between brackets representing the commands to be repeated. Every list is made from
-     * the command string and its arguments. Every list is then added to a higher-order list. The process
-     * is repeated a number of times equal to the first integer argument of the RIPETI command.
+     * This method parses the block between brackets representing the commands to be repeated,
+     * and runs it a number of times equal to the first integer argument of the RIPETI command.
+     * Every command of the block is resolved to its BiFunction instance only once, before the
+     * first repetition, and the block is executed in place at every repetition. This way, the
+     * memory used by this command depends on the size of the block only, and no map lookup is
+     * done while the block is repeated.
      */
     private static String createRepeatCommand(Turtle t, List<?> obj, Map<String,BiFunction<Turtle, List<?>,String>> commands) {
         if (obj.size() != 2)
             throw new IllegalArgumentException("'RIPETI' command must have two arguments!");
         int n = Integer.parseInt((String) obj.get(0));
-        String args = ((String) obj.get(1)).replaceAll("\\p{P}", "");
-        List<String> parsedArguments = Arrays.stream(args.split("\\s+(?![^\\[]*\\])")).toList();
-        List<List<String>> listOfRepeatedCommands = convertCommandsToStringList(parsedArguments, commands, n);
-        for (List<String> command : listOfRepeatedCommands) {
-            commands.get(command.get(0)).apply(t, command.subList(1, command.size()));
-        }
+        Function<Turtle,String> block = resolveRepeat(n, new Parser((String) obj.get(1)).parseBlock(), commands);
+        block.apply(t);
         return String.format("Executed sequence of commands!%n");
     }
 
     /**
-     * Converts a string of given commands to a list of the commands themselves and their own arguments.
-     * 'n' instances of this list are then added to an higher-order list returned by this
-     * method. The 'n' instances are necessary in order to implement a proper "RIPETI" command.
-     * During the conversion, it checks whether the command is available in this session,
+     * Resolves a block of statements to be run 'n' times. Nested RIPETI statements are
+     * resolved as nested loops, without any of their copies being created.
      */
-    private static List<List<String>> convertCommandsToStringList(List<String> obj, Map<String,BiFunction<Turtle, List<?>,String>> commands, int n) {
-        List<List<String>> commandSequence = new ArrayList<>();
-        try {
+    private static Function<Turtle,String> resolveRepeat(int n, List<Statement> block, Map<String,BiFunction<Turtle, List<?>,String>> commands) {
+        List<Function<Turtle,String>> resolvedBlock = new ArrayList<>(block.size());
+        for (Statement s : block)
+            resolvedBlock.add((s instanceof Repeat nested)
+                    ? resolveRepeat(nested.times(), nested.body(), commands)
+                    : resolveCommand(s.tokens(), commands));
+        return t -> {
             for (int i = 0; i < n; i++) {
-                for (String s : obj) {
-                    if (commands.containsKey(s))
-                        commandSequence.add(new ArrayList<>());
-                    commandSequence.get(commandSequence.size() - 1).add(s);
-                }
+                t.checkpoint();
+                for (Function<Turtle,String> command : resolvedBlock)
+                    command.apply(t);
             }
-        } catch (IndexOutOfBoundsException e) {
+            return String.format("Executed sequence of commands!%n");
+        };
+    }
+
+    /**
+     * Resolves a command to the BiFunction instance associated to it, together with its own arguments.
+     * During the resolution, it checks whether the command is available in this session,
+     */
+    private static Function<Turtle,String> resolveCommand(List<String> command, Map<String,BiFunction<Turtle, List<?>,String>> commands) {
+        BiFunction<Turtle, List<?>,String> function = commands.get(command.get(0));
+        if (Objects.isNull(function))
             throw new IllegalArgumentException("Syntax error in 'RIPETI' command!");
-        }
-        return commandSequence;
+        List<String> arguments = command.subList(1, command.size());
+        return t -> function.apply(t, arguments);
     }
 }
@@ -0,0 +1,205 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Samuele Stronati, Università di Camerino.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * Contributors:
+ *     Samuele Stronati - initial API and implementation
+ *******************************************************************************/
+
+package it.pa.unicam.stronatisamuele115894.controller;
+
+import it.pa.unicam.stronatisamuele115894.model.ColumnarField;
+import it.pa.unicam.stronatisamuele115894.model.Field;
+import it.pa.unicam.stronatisamuele115894.model.LineChain;
+import it.pa.unicam.stronatisamuele115894.model.RGBColor;
+import it.pa.unicam.stronatisamuele115894.model.Turtle;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * This class keeps a pool of sessions which can be reused to run many programs,
+ * one after the other, without building a new cursor, field and command map for
+ * every program. The sessions are handed out by the acquire method, and given back
+ * to the pool when they are closed.
+ *
+ * A session is brought back to its initial state when it is closed: its program is
+ * removed and its cursor is reset. The field of a pooled session is a ColumnarField,
+ * whose records and index are cleared by resetting their counters, so that the time
+ * needed to reset a session does not depend on the size of the last drawing, and the
+ * arrays grown while drawing are kept for the next program.
+ *
+ * At most a given number of idle sessions is kept, so that a pool shared by some
+ * workers keeps about one session per worker. Idle sessions are kept from the most
+ * to the least recently used one: a session is taken from the most recently used
+ * sessions whose field has the requested size, and when the pool is full the least
+ * recently used session is dropped, so that sessions of an unusual size don't take
+ * the place of those which are requested most often for long.
+ *
+ * @param <T> type of the cursors of the pooled sessions
+ */
+
+public final class SessionPool<T extends Turtle> {
+
+    private final int maxIdle;
+    private final Function<Field, T> turtles;
+    private final Deque<PooledSession<T>> idle;
+
+    /**
+     * Constructs an empty pool, which keeps at most the given number of idle
+     * sessions, whose cursors are built by the given function.
+     * @param maxIdle maximum number of idle sessions kept by this pool
+     * @param turtles function building the cursor of a session, which draws on the given field
+     * @throws NullPointerException if the given function is null
+     * @throws IllegalArgumentException if the maximum number of idle sessions is negative
+     */
+    public SessionPool(int maxIdle, Function<Field, T> turtles) {
+        if (maxIdle < 0)
+            throw new IllegalArgumentException("The number of idle sessions can't be negative!");
+        this.maxIdle = maxIdle;
+        this.turtles = Objects.requireNonNull(turtles);
+        this.idle = new ArrayDeque<>();
+    }
+
+    /**
+     * Returns a session whose field has the given size, taking it from the idle
+     * sessions of this pool if there is one, and building a new one otherwise.
+     * The session is given back to this pool when it is closed.
+     * @param width width of the field of the session
+     * @param height height of the field of the session
+     * @return session in its initial state
+     * @throws IllegalArgumentException if the width or the height is negative
+     */
+    public PooledSession<T> acquire(double width, double height) {
+        PooledSession<T> session = null;
+        Size size = new Size(width, height);
+        synchronized (this) {
+            for (Iterator<PooledSession<T>> sessions = idle.iterator(); sessions.hasNext(); ) {
+                PooledSession<T> candidate = sessions.next();
+                if (candidate.size.equals(size)) {
+                    sessions.remove();
+                    session = candidate;
+                    break;
+                }
+            }
+        }
+        if (Objects.isNull(session))
+            session = create(width, height);
+        session.leased = true;
+        return session;
+    }
+
+    /**
+     * Returns the number of idle sessions kept by this pool.
+     * @return number of idle sessions
+     */
+    public synchronized int idle() {
+        return idle.size();
+    }
+
+    private PooledSession<T> create(double width, double height) {
+        Field field = new ColumnarField(height, width, new RGBColor(255, 255, 255),
+                new LineChain(new ArrayList<>(), new RGBColor(0, 0, 0)));
+        T turtle = turtles.apply(field);
+        if (turtle.getField() != field)
+            throw new IllegalArgumentException("The cursor of a pooled session must draw on the given field!");
+        return new PooledSession<>(this, new Size(width, height), turtle,
+                new StreamBasedSessionController(new MapBasedSession(turtle, SessionInjector.provideCommands())));
+    }
+
+    /*
+     * A session which can't be reset is dropped.
+     */
+    private void release(PooledSession<T> session) {
+        try {
+            session.controller.reset();
+        } catch (RuntimeException e) {
+            return;
+        }
+        synchronized (this) {
+            idle.push(session);
+            if (idle.size() > maxIdle)
+                idle.removeLast();
+        }
+    }
+
+    private record Size(double width, double height) { }
+
+    /**
+     * This class represents a session taken from a SessionPool. The session
+     * is given back to its pool when it is closed, and it must not be used afterwards.
+     * @param <T> type of the cursor of the session
+     */
+    public static final class PooledSession<T extends Turtle> implements AutoCloseable {
+
+        private final SessionPool<T> pool;
+        private final Size size;
+        private final T turtle;
+        private final StreamBasedSessionController controller;
+        private boolean leased;
+
+        private PooledSession(SessionPool<T> pool, Size size, T turtle, StreamBasedSessionController controller) {
+            this.pool = pool;
+            this.size = size;
+            this.turtle = turtle;
+            this.controller = controller;
+        }
+
+        /**
+         * Returns the controller running the programs of this session.
+         * @return controller of this session
+         */
+        public SessionController getController() {
+            return controller;
+        }
+
+        /**
+         * Returns the cursor of this session.
+         * @return cursor of this session
+         */
+        public T getTurtle() {
+            return turtle;
+        }
+
+        /**
+         * Returns the field on which the cursor of this session draws.
+         * @return field of this session
+         */
+        public Field getField() {
+            return turtle.getField();
+        }
+
+        /**
+         * Resets this session and gives it back to its pool.
+         * Closing a session which has already been closed has no effect.
+         */
+        @Override
+        public void close() {
+            if (!leased)
+                return;
+            leased = false;
+            pool.release(this);
+        }
+    }
+}
@@ -2,21 +2,35 @@ package it.pa.unicam.stronatisamuele115894.controller;
 
 
 
+import it.pa.unicam.stronatisamuele115894.program.PeepholeOptimizer;
+import it.pa.unicam.stronatisamuele115894.program.Program;
+import it.pa.unicam.stronatisamuele115894.program.ProgramCompiler;
 import java.util.*;
 
 public class StreamBasedSessionController implements SessionController{
 
     private final Session session;
 
-    private ListIterator<List<String>> iterator;
+    private final ProgramCompiler compiler;
+
+    private final PeepholeOptimizer optimizer;
+
+    private final ProgramInterpreter interpreter;
 
     private String lastProcessedCommand;
 
-    public StreamBasedSessionController(Session mappedSession) {
+    public StreamBasedSessionController(Session mappedSession, ProgramInterpreter.Granularity granularity) {
         session = Objects.requireNonNull(mappedSession);
+        compiler = new ProgramCompiler();
+        optimizer = new PeepholeOptimizer();
+        interpreter = new ProgramInterpreter(session.turtle(), granularity);
         lastProcessedCommand = null;
     }
 
+    public StreamBasedSessionController(Session mappedSession) {
+        this(mappedSession, ProgramInterpreter.Granularity.PRIMITIVE);
+    }
+
 
 /*    private ListIterator<List<String>> tokenizedProgram(InputStream in) throws IOException {
         try (BufferedReader br = new BufferedReader(new InputStreamReader(in))) {
@@ -29,32 +43,53 @@ public class StreamBasedSessionController implements SessionController{
         }
     }*/
 
-    private String executeCommandThread(List<String> tokenizedCommand)  {
-        String comm = tokenizedCommand.get(0);
-        String commandOutput = session.getCommand(comm).apply(session.turtle(), tokenizedCommand.subList(1, tokenizedCommand.size()));
-        lastProcessedCommand = comm;
+    private String executeCommandThread()  {
+        String commandOutput = interpreter.step();
+        lastProcessedCommand = interpreter.getLastExecuted().keyword();
         return commandOutput;
     }
 
 
-    private String executeCommand(List<String> tokenizedCommand) {
-        StringBuilder sb = new StringBuilder(String.format("Executing [%s] command...%n", tokenizedCommand));
-        sb.append(executeCommandThread(tokenizedCommand));
+    private String executeCommand() {
+        StringBuilder sb = new StringBuilder(String.format("Executing [%s] command...%n",
+                interpreter.getProgram().instructionString(interpreter.getProgramCounter())));
+        sb.append(executeCommandThread());
         sb.append(String.format("Command executed!%n"));
         return sb.toString();
     }
 
     @Override
     public String runNextCommand()  {
-        if (!Objects.requireNonNull(iterator).hasNext())
+        if (!interpreter.hasNext())
             return String.format("Program completed!%n");
-        return executeCommand(iterator.next());
+        return executeCommand();
+    }
+
+
+    @Override
+    public String runProgram() {
+        if (Objects.nonNull(interpreter.getProgram()) && interpreter.getProgramCounter() == 0)
+            interpreter.load(optimizer.optimize(interpreter.getProgram(), session.turtle()));
+        interpreter.run();
+        if (Objects.nonNull(interpreter.getLastExecuted()))
+            lastProcessedCommand = interpreter.getLastExecuted().keyword();
+        return String.format("Program completed!%n");
     }
 
 
     @Override
     public void clearProgram() {
-        this.iterator = null;
+        interpreter.clear();
+    }
+
+    /*
+     * Removes the loaded program and brings the cursor of the session, together
+     * with its field, back to their initial state, so that the session can be reused.
+     */
+    void reset() {
+        interpreter.clear();
+        lastProcessedCommand = null;
+        session.turtle().reset();
     }
 
     @Override
@@ -64,7 +99,14 @@ public class StreamBasedSessionController implements SessionController{
 
     @Override
     public String setNewProgram(ListIterator<List<String>> program) {
-        iterator = Objects.requireNonNull(program);
+        List<List<String>> commands = new ArrayList<>();
+        Objects.requireNonNull(program).forEachRemaining(commands::add);
+        return setNewProgram(compiler.compileTokens(commands));
+    }
+
+    @Override
+    public String setNewProgram(Program program) {
+        interpreter.load(program);
         return String.format("Program Loaded%n");
     }
 
@@ -73,7 +115,7 @@ public class StreamBasedSessionController implements SessionController{
         return lastProcessedCommand;
     }
 
-    protected ListIterator<List<String>> getProgramIterator() {
-        return iterator;
+    protected ProgramInterpreter getInterpreter() {
+        return interpreter;
     }
 }
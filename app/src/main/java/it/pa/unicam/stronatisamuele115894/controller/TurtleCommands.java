@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Samuele Stronati, Università di Camerino.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * Contributors:
+ *     Samuele Stronati - initial API and implementation
+ *******************************************************************************/
+
+package it.pa.unicam.stronatisamuele115894.controller;
+
+import it.pa.unicam.stronatisamuele115894.model.GLine;
+import it.pa.unicam.stronatisamuele115894.model.Position;
+import it.pa.unicam.stronatisamuele115894.model.Turtle;
+
+/**
+ * This class collects the basic Logo commands which are not directly
+ * mapped to a single Turtle method. They are shared by the string-based
+ * commands injected by the SessionInjector and by the ProgramInterpreter.
+ */
+
+public final class TurtleCommands {
+
+    private TurtleCommands() {
+    }
+
+    /**
+     * Creates a "FORWARD" command for the cursor.
+     */
+    public static String forward(Turtle t, int n) {
+        return t.move(n,-n, new GLine(t.getPosition(), t.computeNewPosition(n,-n),t.getPenSize()));
+    }
+
+    /**
+     * Creates a "BACK" command for the cursor.
+     */
+    public static String back(Turtle t, int n) {
+        return t.move(-n,n, new GLine(t.getPosition(), t.computeNewPosition(-n,n),t.getPenSize()));
+    }
+
+    /**
+     * Creates a "RIGHT" command for the cursor.
+     */
+    public static String right(Turtle t, int degrees) {
+        return t.setDirection(t.getDirection()-degrees);
+    }
+
+    /**
+     * Creates a "LEFT" command for the cursor.
+     */
+    public static String left(Turtle t, int degrees) {
+        return t.setDirection(t.getDirection()+degrees);
+    }
+
+    /**
+     * Creates a "HOME" command for the cursor.
+     */
+    public static String home(Turtle t) {
+        if (t.getPlot())
+            t.setPlot(false);
+        Position homePosition = new Position(t.getField().getWidth() / 2, t.getField().getHeight() / 2);
+        String result = t.move( homePosition, new GLine(t.getPosition(), homePosition,t.getPenSize()));
+        t.setPlot(true);
+        return result;
+    }
+}
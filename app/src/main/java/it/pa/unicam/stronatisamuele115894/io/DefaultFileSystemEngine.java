@@ -26,20 +26,28 @@
 package it.pa.unicam.stronatisamuele115894.io;
 
 import it.pa.unicam.stronatisamuele115894.controller.SessionController;
+import it.pa.unicam.stronatisamuele115894.io.logores.BinaryFieldWriter;
+import it.pa.unicam.stronatisamuele115894.io.modelWriter.FieldWriter;
+import it.pa.unicam.stronatisamuele115894.model.Field;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.Collection;
 import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
  * This class defines a default implementation of a File System Engine.
+ * Fields are saved in parallel, through the common ForkJoinPool, unless
+ * they are saved in the binary format, which is chosen by the extension of the file.
  */
 
 public class DefaultFileSystemEngine implements FileSystemEngine {
@@ -78,6 +86,24 @@ public class DefaultFileSystemEngine implements FileSystemEngine {
         fileSystemWriter.writeTo(path,content);
     }
 
+    @Override
+    public void save(Path path, Field field) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            if (path.getFileName().toString().endsWith(BinaryFieldWriter.EXTENSION))
+                new BinaryFieldWriter().writeTo(field, channel);
+            else
+                new FieldWriter(ForkJoinPool.commonPool()).writeTo(field, channel);
+        }
+    }
+
+    @Override
+    public void save(String fileName, String directory, Field field) throws IOException {
+        if (fileName.indexOf('.') != -1)
+            throw new IllegalArgumentException();
+        save(Paths.get(directory,fileName.concat(".logores")), field);
+    }
+
     @Override
     public ProgramLoader getFileSystemLoader() {
         return fileSystemLoader;
@@ -25,6 +25,8 @@
 
 package it.pa.unicam.stronatisamuele115894.io;
 
+import it.pa.unicam.stronatisamuele115894.model.Field;
+
 import java.io.*;
 import java.nio.file.Path;
 import java.util.Collection;
@@ -75,6 +77,27 @@ public interface FileSystemEngine {
      */
     void save(String fileName, String directory, String content) throws IOException;
 
+    /**
+     * Writes the given field to the file at the given path, as the result of a Logo
+     * program computation. The field is written through a buffer of bounded size,
+     * so that its whole string representation is never built. If the name of the file
+     * ends with the binary extension, the field is written in the binary '.logores' format.
+     * @param path path of the file
+     * @param field field which has to be saved
+     * @throws IOException if some I/O errors occurred
+     */
+    void save(Path path, Field field) throws IOException;
+
+    /**
+     * Writes the given field to a file named "fileName" with the '.logores' extension,
+     * and places it inside the given directory.
+     * @param fileName filename, with no extension
+     * @param directory directory
+     * @param field field which has to be saved
+     * @throws IOException if some I/O errors occurred
+     */
+    void save(String fileName, String directory, Field field) throws IOException;
+
     /**
      * Returns the ProgramLoader used by this File System Engine.
      * @return ProgramLoader instance
@@ -91,6 +114,10 @@ public interface FileSystemEngine {
         save(fileName, System.getProperty("user.dir"), content);
     }
 
+    default void save(String fileName, Field field) throws IOException {
+        save(fileName, System.getProperty("user.dir"), field);
+    }
+
     default Path findFile(String filename, String searchDirectory) throws IOException {
         return find(filename, searchDirectory).stream().findFirst().orElse(null);
     }
@@ -25,10 +25,10 @@
 
 package it.pa.unicam.stronatisamuele115894.io;
 
+import it.pa.unicam.stronatisamuele115894.program.Program;
 import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.*;
 import java.util.stream.Stream;
 
 /**
@@ -36,7 +36,7 @@ import java.util.stream.Stream;
  * It loads a program given from various sources, which can be converted
  * to a Stream.
  *
- * The program is load either as a ListIterator instance, which is useful
+ * The program is load either as a compiled Program instance, which is useful
  * to have full control of the computational stream of the program, or as
  * a String instance, which can be used to represent it on a text field.
  */
@@ -45,31 +45,32 @@ import java.util.stream.Stream;
 public interface ProgramLoader {
 
     /**
-     * Loads the given program from a stream to a list iterator instance.
+     * Loads the given program from a stream to a compiled Program instance.
      * @param stream stream source of the program
-     * @return list iterator representing the processed program.
+     * @return compiled program.
+     * @throws IllegalArgumentException if the program has a syntax error
      */
-    ListIterator<List<String>> loadProgram(Stream<String> stream);
+    Program loadProgram(Stream<String> stream);
 
 
-    default ListIterator<List<String>> loadProgram(String programString) {
+    default Program loadProgram(String programString) {
         return loadProgram(programString.lines());
     }
 
-    default ListIterator<List<String>> loadProgram(BufferedReader br) {
+    default Program loadProgram(BufferedReader br) {
         return loadProgram(br.lines());
     }
 
-    default ListIterator<List<String>> loadProgram(InputStream is) throws IOException {
+    default Program loadProgram(InputStream is) throws IOException {
         BufferedReader br = new BufferedReader(new InputStreamReader(is));
         return loadProgram(br);
     }
 
-    default ListIterator<List<String>> loadProgram(Path programPath) throws IOException {
+    default Program loadProgram(Path programPath) throws IOException {
         return loadProgram(Files.lines(programPath));
     }
 
-    default ListIterator<List<String>> loadProgram(File programFile) throws IOException {
+    default Program loadProgram(File programFile) throws IOException {
         return loadProgram(programFile.toPath());
     }
 
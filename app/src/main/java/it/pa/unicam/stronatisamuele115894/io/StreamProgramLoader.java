@@ -26,12 +26,11 @@
 package it.pa.unicam.stronatisamuele115894.io;
 
 import it.pa.unicam.stronatisamuele115894.controller.SessionController;
-import java.util.Arrays;
-import java.util.List;
-import java.util.ListIterator;
+import it.pa.unicam.stronatisamuele115894.program.Program;
+import it.pa.unicam.stronatisamuele115894.program.ProgramCompiler;
 import java.util.Objects;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
-import static java.util.stream.Collectors.toList;
 
 /**
  * This class implements the ProgramLoader functional interface
@@ -44,6 +43,8 @@ public class StreamProgramLoader implements ProgramLoader{
 
     SessionController controller;
 
+    private final ProgramCompiler compiler;
+
 
     /**
      * Constructs a ProgramLoader instance which wraps the given
@@ -52,24 +53,25 @@ public class StreamProgramLoader implements ProgramLoader{
      */
     public StreamProgramLoader(SessionController controller) {
         this.controller = controller;
+        this.compiler = new ProgramCompiler();
     }
 
     /**
-     * Loads a program into a session controller as a List iterator instance.
-     * A REGEX is used to parse the given stream. The parser checks for line separators
-     * and for square brackets, which may be associated to an argument list of a single
-     * command.
+     * Loads a program into a session controller as a compiled Program instance.
+     * The given stream is tokenized in a single pass by a Lexer, and the tokens
+     * are parsed by a recursive-descent Parser, which takes care of the square
+     * brackets associated to the body of a RIPETI command, even when they are
+     * nested. Lines which don't start with a known command are ignored.
      * @param stream stream source of the program
-     * @return list iterator defining the program.
+     * @return compiled program.
+     * @throws IllegalArgumentException if the program has a syntax error
      */
     @Override
-    public ListIterator<List<String>> loadProgram(Stream<String> stream) {
+    public Program loadProgram(Stream<String> stream) {
         try (Stream<String> programStream = stream) {
-            ListIterator<List<String>> result = programStream.parallel()
+            Program result = compiler.compile(programStream
                     .filter(Objects::nonNull)
-                    .map(s -> Arrays.stream(s.split("\\s+(?![^\\[]*\\])")).toList())
-                    .filter(s -> controller.getSession().getCommandSet().contains(s.get(0)))
-                    .collect(toList()).listIterator();
+                    .collect(Collectors.joining("\n")));
             controller.setNewProgram(result);
             return result;
         }
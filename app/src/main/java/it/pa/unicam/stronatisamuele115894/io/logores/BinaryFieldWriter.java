@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Samuele Stronati, Università di Camerino.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * Contributors:
+ *     Samuele Stronati - initial API and implementation
+ *******************************************************************************/
+package it.pa.unicam.stronatisamuele115894.io.logores;
+
+import it.pa.unicam.stronatisamuele115894.model.ColorPalette;
+import it.pa.unicam.stronatisamuele115894.model.Field;
+import it.pa.unicam.stronatisamuele115894.model.GeoPath;
+import it.pa.unicam.stronatisamuele115894.model.GeoSection;
+import it.pa.unicam.stronatisamuele115894.model.LineChain;
+import it.pa.unicam.stronatisamuele115894.model.RGBColor;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class is used to write a 'Field' element in the binary '.logores' format.
+ * The file holds the same lines written by a FieldWriter, in the same order,
+ * and the palette of the field is written in its header.
+ */
+
+public class BinaryFieldWriter {
+
+    /**
+     * Extension of the files written in the binary '.logores' format.
+     */
+    public static final String EXTENSION = ".logob";
+
+    /**
+     * Writes the given field to the given stream. The stream is not closed.
+     * @param element field element.
+     * @param out destination of the file.
+     * @throws IOException if some I/O errors occurred
+     */
+    public void writeTo(Field element, OutputStream out) throws IOException {
+        ColorPalette palette = element.getPalette();
+        List<RGBColor> colors = new ArrayList<>(palette.size());
+        for (int i = 0; i < palette.size(); i++)
+            colors.add(palette.colorOf(i));
+        LogoresEncoder encoder = new LogoresEncoder(out, element.getWidth(), element.getHeight(),
+                element.getFill(), colors);
+        for (GeoPath p : element.getPaths())
+            if (p.hasStroke())
+                write(p, encoder);
+        encoder.finish();
+    }
+
+    /**
+     * Writes the given field to the given channel. The channel is not closed.
+     * @param element field element.
+     * @param channel destination of the file.
+     * @throws IOException if some I/O errors occurred
+     */
+    public void writeTo(Field element, WritableByteChannel channel) throws IOException {
+        writeTo(element, Channels.newOutputStream(channel));
+    }
+
+    private void write(GeoPath path, LogoresEncoder encoder) throws IOException {
+        List<? extends GeoSection> sections = path.getPathSections();
+        if (path.isClosed() && path instanceof LineChain) {
+            encoder.polygon(sections.size(), path.fill());
+            for (GeoSection s : sections)
+                encoder.vertex(s.start().x(), s.start().y(), s.color().orElse(null), s.pensize());
+        } else
+            for (GeoSection s : sections)
+                encoder.line(s.start().x(), s.start().y(), s.end().x(), s.end().y(),
+                        s.color().orElse(null), s.pensize());
+    }
+}
@@ -0,0 +1,195 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Samuele Stronati, Università di Camerino.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * Contributors:
+ *     Samuele Stronati - initial API and implementation
+ *******************************************************************************/
+package it.pa.unicam.stronatisamuele115894.io.logores;
+
+import it.pa.unicam.stronatisamuele115894.io.modelWriter.LineFormatter;
+import it.pa.unicam.stronatisamuele115894.model.RGBColor;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * This class converts a '.logores' file from the text format to the binary
+ * format, and vice versa. The conversion is lossless: converting a text file
+ * written by a FieldWriter to the binary format and back gives the same text.
+ */
+
+public final class LogoresConverter {
+
+    private static final int FLUSH_THRESHOLD = 8192;
+
+    private LogoresConverter() {}
+
+    /**
+     * Converts the text read from the given reader into a binary file,
+     * which is written to the given stream. The stream is not closed.
+     * @param in source of the text
+     * @param out destination of the binary file
+     * @throws IOException if some I/O errors occurred
+     * @throws IllegalArgumentException if the text is not a '.logores' file
+     */
+    public static void toBinary(BufferedReader in, OutputStream out) throws IOException {
+        String[] size = tokens(in.readLine(), "SIZE", 6);
+        LogoresEncoder encoder = new LogoresEncoder(out, parseSize(size[1]), parseSize(size[2]),
+                parseColor(size, 3), List.of());
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (line.startsWith("LINE ")) {
+                String[] t = tokens(line, "LINE", 9);
+                encoder.line(parseDouble(t[1]), parseDouble(t[2]), parseDouble(t[3]), parseDouble(t[4]),
+                        parseColor(t, 5), parseInt(t[8]));
+            } else if (line.startsWith("POLYGON ")) {
+                String[] t = tokens(line, "POLYGON", 5);
+                int count = parseInt(t[1]);
+                encoder.polygon(count, parseColor(t, 2));
+                for (int i = 0; i < count; i++) {
+                    String[] v = tokens(in.readLine(), null, 6);
+                    encoder.vertex(parseDouble(v[0]), parseDouble(v[1]), parseColor(v, 2), parseInt(v[5]));
+                }
+            } else if (!line.isEmpty())
+                throw new IllegalArgumentException("Malformed line: " + line);
+        }
+        encoder.finish();
+    }
+
+    /**
+     * Converts the binary file read from the given channel into text,
+     * which is appended to the given destination. The channel is not closed.
+     * @param in source of the binary file
+     * @param out destination of the text
+     * @throws IOException if some I/O errors occurred
+     * @throws IllegalArgumentException if the source is not a binary '.logores' file
+     */
+    public static void toText(ReadableByteChannel in, Appendable out) throws IOException {
+        toText(new LogoresDecoder(in), out);
+    }
+
+    /**
+     * Converts the records read by the given reader into text,
+     * which is appended to the given destination.
+     * @param reader reader of a '.logores' file
+     * @param out destination of the text
+     * @throws IOException if some I/O errors occurred
+     * @throws IllegalArgumentException if the file is malformed
+     */
+    public static void toText(RecordReader reader, Appendable out) throws IOException {
+        LineFormatter formatter = new LineFormatter();
+        out.append(String.format("SIZE %.1f %.1f %s\n", reader.getWidth(), reader.getHeight(),
+                formatter.append(reader.getScreenColor())));
+        formatter.clear();
+        RecordReader.Record record;
+        while ((record = reader.next()) != RecordReader.Record.END) {
+            switch (record) {
+                case LINE -> formatter.append("LINE ")
+                        .append(reader.x1()).append(' ').append(reader.y1()).append(' ')
+                        .append(reader.x2()).append(' ').append(reader.y2()).append(' ')
+                        .append(reader.color()).append(' ').append(reader.pensize()).newLine();
+                case POLYGON -> formatter.append("POLYGON ").append(reader.count()).append(' ')
+                        .append(reader.fill()).newLine();
+                case VERTEX -> formatter.append(reader.x1()).append(' ').append(reader.y1()).append(' ')
+                        .append(reader.color()).append(' ').append(reader.pensize()).newLine();
+                default -> { }
+            }
+            if (formatter.length() >= FLUSH_THRESHOLD)
+                formatter.writeTo(out);
+        }
+        formatter.writeTo(out);
+    }
+
+    /**
+     * Converts the text file at the given path into a binary file.
+     * @param text path of the text file
+     * @param binary path of the binary file
+     * @throws IOException if some I/O errors occurred
+     * @throws IllegalArgumentException if the text is not a '.logores' file
+     */
+    public static void toBinary(Path text, Path binary) throws IOException {
+        try (BufferedReader in = Files.newBufferedReader(text, StandardCharsets.UTF_8);
+             OutputStream out = new BufferedOutputStream(Files.newOutputStream(binary))) {
+            toBinary(in, out);
+        }
+    }
+
+    /**
+     * Converts the binary file at the given path into a text file.
+     * @param binary path of the binary file
+     * @param text path of the text file
+     * @throws IOException if some I/O errors occurred
+     * @throws IllegalArgumentException if the source is not a binary '.logores' file
+     */
+    public static void toText(Path binary, Path text) throws IOException {
+        try (FileChannel in = FileChannel.open(binary);
+             Writer out = Files.newBufferedWriter(text, StandardCharsets.UTF_8)) {
+            toText(in, out);
+        }
+    }
+
+    private static String[] tokens(String line, String keyword, int count) {
+        if (line == null)
+            throw new IllegalArgumentException("The file ends unexpectedly!");
+        String[] tokens = line.split(" ");
+        if (tokens.length != count || (keyword != null && !tokens[0].equals(keyword)))
+            throw new IllegalArgumentException("Malformed line: " + line);
+        return tokens;
+    }
+
+    private static RGBColor parseColor(String[] tokens, int from) {
+        if (tokens[from].equals("N"))
+            return null;
+        return new RGBColor(parseInt(tokens[from]), parseInt(tokens[from + 1]), parseInt(tokens[from + 2]));
+    }
+
+    /*
+     * The size is written through String.format, which uses the decimal separator of the default locale.
+     */
+    private static double parseSize(String token) {
+        return parseDouble(token.replace(',', '.'));
+    }
+
+    private static double parseDouble(String token) {
+        try {
+            return Double.parseDouble(token);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed number: " + token);
+        }
+    }
+
+    private static int parseInt(String token) {
+        try {
+            return Integer.parseInt(token);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed number: " + token);
+        }
+    }
+}
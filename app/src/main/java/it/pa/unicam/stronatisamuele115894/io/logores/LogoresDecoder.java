@@ -0,0 +1,294 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Samuele Stronati, Università di Camerino.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * Contributors:
+ *     Samuele Stronati - initial API and implementation
+ *******************************************************************************/
+package it.pa.unicam.stronatisamuele115894.io.logores;
+
+import it.pa.unicam.stronatisamuele115894.model.ColorPalette;
+import it.pa.unicam.stronatisamuele115894.model.RGBColor;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+import java.util.Objects;
+
+import static it.pa.unicam.stronatisamuele115894.io.logores.LogoresFormat.*;
+
+/**
+ * This class reads a binary '.logores' file, one record at a time. The header
+ * is read by the constructor, and reading a record does not allocate any object.
+ * The file is read either from a channel, through a small buffer, or directly
+ * from a buffer, as a mapped file.
+ */
+
+public final class LogoresDecoder implements RecordReader {
+
+    private static final Record[] RECORDS = Record.values();
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final double width;
+    private final double height;
+    private final RGBColor screenColor;
+    private RGBColor[] palette;
+    private int paletteSize;
+    private long refX;
+    private long refY;
+    private Record record;
+    private int vertices;
+    private double x1;
+    private double y1;
+    private double x2;
+    private double y2;
+    private RGBColor color;
+    private int pensize;
+    private int count;
+    private RGBColor fill;
+
+    /**
+     * Constructs a decoder which reads a file from the given channel.
+     * The channel is not closed by the decoder.
+     * @param channel source of the file
+     * @throws IOException if some I/O errors occurred
+     * @throws IllegalArgumentException if the source is not a binary '.logores' file
+     */
+    public LogoresDecoder(ReadableByteChannel channel) throws IOException {
+        this(Objects.requireNonNull(channel), ByteBuffer.allocate(8192).flip());
+    }
+
+    /**
+     * Constructs a decoder which reads a file from the given buffer,
+     * starting from its position.
+     * @param buffer source of the file
+     * @throws IOException if the file ends before its END record
+     * @throws IllegalArgumentException if the source is not a binary '.logores' file
+     */
+    public LogoresDecoder(ByteBuffer buffer) throws IOException {
+        this(null, Objects.requireNonNull(buffer));
+    }
+
+    private LogoresDecoder(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.palette = new RGBColor[16];
+        if (readInt() != MAGIC || readByte() != VERSION)
+            throw new IllegalArgumentException("This is not a binary .logores file!");
+        this.width = Double.longBitsToDouble(readLong());
+        this.height = Double.longBitsToDouble(readLong());
+        long size = readVarLong();
+        for (long i = 0; i < size; i++)
+            define(readRGB());
+        this.screenColor = readColor();
+    }
+
+    @Override
+    public Record next() throws IOException {
+        if (record == Record.END)
+            return record;
+        int header = readByte();
+        int type = header >>> 4;
+        int flags = header & 0xF;
+        if (type >= RECORDS.length || (type == VERTEX) != (vertices > 0))
+            throw new IllegalArgumentException("Malformed record of type " + type + "!");
+        record = RECORDS[type];
+        switch (record) {
+            case LINE -> {
+                if ((flags & CHAINED) != 0) {
+                    x1 = x2;
+                    y1 = y2;
+                } else
+                    readPoint(flags);
+                double x = x1;
+                double y = y1;
+                readPoint(flags);
+                x2 = x1;
+                y2 = y1;
+                x1 = x;
+                y1 = y;
+                readSection(flags);
+            }
+            case POLYGON -> {
+                count = (int) readVarLong();
+                fill = readColor();
+                vertices = count;
+            }
+            case VERTEX -> {
+                readPoint(flags);
+                readSection(flags);
+                vertices--;
+            }
+            case END -> { }
+        }
+        return record;
+    }
+
+    @Override
+    public double getWidth() {
+        return width;
+    }
+
+    @Override
+    public double getHeight() {
+        return height;
+    }
+
+    @Override
+    public RGBColor getScreenColor() {
+        return screenColor;
+    }
+
+    @Override
+    public Record record() {
+        return record;
+    }
+
+    @Override
+    public double x1() {
+        return x1;
+    }
+
+    @Override
+    public double y1() {
+        return y1;
+    }
+
+    @Override
+    public double x2() {
+        return x2;
+    }
+
+    @Override
+    public double y2() {
+        return y2;
+    }
+
+    @Override
+    public RGBColor color() {
+        return color;
+    }
+
+    @Override
+    public int pensize() {
+        return pensize;
+    }
+
+    @Override
+    public int count() {
+        return count;
+    }
+
+    @Override
+    public RGBColor fill() {
+        return fill;
+    }
+
+    private void readPoint(int flags) throws IOException {
+        if ((flags & RAW) != 0) {
+            x1 = Double.longBitsToDouble(readLong());
+            y1 = Double.longBitsToDouble(readLong());
+            return;
+        }
+        refX += unzigzag(readVarLong());
+        refY += unzigzag(readVarLong());
+        x1 = refX;
+        y1 = refY;
+    }
+
+    private void readSection(int flags) throws IOException {
+        if ((flags & SAME_COLOR) == 0)
+            color = readColor();
+        if ((flags & SAME_PENSIZE) == 0)
+            pensize = (int) unzigzag(readVarLong());
+    }
+
+    private RGBColor readColor() throws IOException {
+        long code = readVarLong();
+        if (code == 0)
+            return null;
+        if (code == paletteSize + 1)
+            define(readRGB());
+        else if (code > paletteSize)
+            throw new IllegalArgumentException("Undefined color " + code + "!");
+        return palette[(int) code - 1];
+    }
+
+    private void define(RGBColor color) {
+        if (paletteSize == palette.length)
+            palette = Arrays.copyOf(palette, paletteSize * 2);
+        palette[paletteSize++] = color;
+    }
+
+    private RGBColor readRGB() throws IOException {
+        return ColorPalette.unpack(readByte() << 16 | readByte() << 8 | readByte());
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private long readVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+                return value;
+        }
+        throw new IllegalArgumentException("Malformed varint!");
+    }
+
+    private int readInt() throws IOException {
+        int value = 0;
+        for (int i = 0; i < 4; i++)
+            value = value << 8 | readByte();
+        return value;
+    }
+
+    private long readLong() throws IOException {
+        long value = 0;
+        for (int i = 0; i < 8; i++)
+            value = value << 8 | readByte();
+        return value;
+    }
+
+    private int readByte() throws IOException {
+        if (!buffer.hasRemaining())
+            refill();
+        return buffer.get() & 0xFF;
+    }
+
+    private void refill() throws IOException {
+        if (Objects.isNull(channel))
+            throw new EOFException("The file ends before its END record!");
+        buffer.clear();
+        int read;
+        do
+            read = channel.read(buffer);
+        while (read == 0);
+        buffer.flip();
+        if (read < 0)
+            throw new EOFException("The file ends before its END record!");
+    }
+}
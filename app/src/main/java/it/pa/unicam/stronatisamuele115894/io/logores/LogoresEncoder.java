@@ -0,0 +1,259 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Samuele Stronati, Università di Camerino.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * Contributors:
+ *     Samuele Stronati - initial API and implementation
+ *******************************************************************************/
+package it.pa.unicam.stronatisamuele115894.io.logores;
+
+import it.pa.unicam.stronatisamuele115894.model.ColorPalette;
+import it.pa.unicam.stronatisamuele115894.model.RGBColor;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Objects;
+
+import static it.pa.unicam.stronatisamuele115894.io.logores.LogoresFormat.*;
+
+/**
+ * This class writes a binary '.logores' file to an output stream, one record
+ * at a time. The header is written by the constructor, and the file is completed
+ * by the finish method, which writes the END record and flushes the encoder.
+ *
+ * The lines of a polygon are written as a POLYGON record, followed by a VERTEX
+ * record for the start of each of its sections, as in the text format.
+ * The output stream is never closed by the encoder.
+ */
+
+public final class LogoresEncoder {
+
+    private static final int NO_CODE = -1;
+
+    private final OutputStream out;
+    private final byte[] buffer;
+    private int length;
+    private final ColorPalette palette;
+    private int defined;
+    private long refX;
+    private long refY;
+    private double lastX;
+    private double lastY;
+    private boolean hasLast;
+    private int lastColor;
+    private int lastPensize;
+    private boolean hasPensize;
+    private int vertices;
+
+    /**
+     * Constructs an encoder which writes to the given stream a file whose header
+     * contains the given size, screen color and palette.
+     * @param out destination of the file
+     * @param width width of the field
+     * @param height height of the field
+     * @param screenColor screen color of the field, or null
+     * @param colors colors of the palette written in the header, where null and repeated colors are skipped
+     * @throws IOException if some I/O errors occurred
+     * @throws NullPointerException if the given stream or list of colors is null
+     */
+    public LogoresEncoder(OutputStream out, double width, double height, RGBColor screenColor,
+                          List<RGBColor> colors) throws IOException {
+        this.out = Objects.requireNonNull(out);
+        this.buffer = new byte[8192];
+        this.palette = new ColorPalette();
+        this.lastColor = NO_CODE;
+        writeInt(MAGIC);
+        writeByte(VERSION);
+        writeLong(Double.doubleToRawLongBits(width));
+        writeLong(Double.doubleToRawLongBits(height));
+        for (RGBColor color : colors)
+            palette.indexOf(color);
+        defined = palette.size();
+        writeVarLong(defined);
+        for (int i = 0; i < defined; i++)
+            writeRGB(palette.colorOf(i));
+        writeColor(colorCode(screenColor));
+    }
+
+    /**
+     * Writes a line going from (x1,y1) to (x2,y2).
+     * @param x1 abscissa of the start
+     * @param y1 ordinate of the start
+     * @param x2 abscissa of the end
+     * @param y2 ordinate of the end
+     * @param color color of the line, or null
+     * @param pensize width of the line
+     * @throws IOException if some I/O errors occurred
+     * @throws IllegalStateException if some vertex of a polygon has not been written yet
+     */
+    public void line(double x1, double y1, double x2, double y2, RGBColor color, int pensize) throws IOException {
+        if (vertices > 0)
+            throw new IllegalStateException("The vertexes of the last polygon have not been written!");
+        boolean chained = hasLast && same(x1, lastX) && same(y1, lastY);
+        boolean raw = !isPlain(x2) || !isPlain(y2) || (!chained && (!isPlain(x1) || !isPlain(y1)));
+        int code = colorCode(color);
+        int flags = sectionFlags(code, pensize, raw) | (chained ? CHAINED : 0);
+        writeByte(LINE << 4 | flags);
+        if (!chained)
+            writePoint(x1, y1, raw);
+        writePoint(x2, y2, raw);
+        writeSection(code, pensize, flags);
+        lastX = x2;
+        lastY = y2;
+        hasLast = true;
+    }
+
+    /**
+     * Writes the header of a polygon having the given number of vertexes,
+     * which have to be written next.
+     * @param count number of vertexes
+     * @param fill fill color of the polygon, or null
+     * @throws IOException if some I/O errors occurred
+     * @throws IllegalArgumentException if the number of vertexes is negative
+     * @throws IllegalStateException if some vertex of a polygon has not been written yet
+     */
+    public void polygon(int count, RGBColor fill) throws IOException {
+        if (count < 0)
+            throw new IllegalArgumentException("A polygon can't have a negative number of vertexes!");
+        if (vertices > 0)
+            throw new IllegalStateException("The vertexes of the last polygon have not been written!");
+        writeByte(POLYGON << 4);
+        writeVarLong(count);
+        writeColor(colorCode(fill));
+        vertices = count;
+        hasLast = false;
+    }
+
+    /**
+     * Writes the next vertex of the current polygon, that is the start of one of its sections.
+     * @param x abscissa of the vertex
+     * @param y ordinate of the vertex
+     * @param color color of the section starting at the vertex, or null
+     * @param pensize width of the section starting at the vertex
+     * @throws IOException if some I/O errors occurred
+     * @throws IllegalStateException if every vertex of the current polygon has been written
+     */
+    public void vertex(double x, double y, RGBColor color, int pensize) throws IOException {
+        if (vertices == 0)
+            throw new IllegalStateException("There is no polygon missing a vertex!");
+        boolean raw = !isPlain(x) || !isPlain(y);
+        int code = colorCode(color);
+        int flags = sectionFlags(code, pensize, raw);
+        writeByte(VERTEX << 4 | flags);
+        writePoint(x, y, raw);
+        writeSection(code, pensize, flags);
+        vertices--;
+    }
+
+    /**
+     * Writes the END record and flushes the bytes written so far to the output stream.
+     * @throws IOException if some I/O errors occurred
+     * @throws IllegalStateException if some vertex of a polygon has not been written yet
+     */
+    public void finish() throws IOException {
+        if (vertices > 0)
+            throw new IllegalStateException("The vertexes of the last polygon have not been written!");
+        writeByte(END << 4);
+        out.write(buffer, 0, length);
+        length = 0;
+        out.flush();
+    }
+
+    private int colorCode(RGBColor color) {
+        return Objects.isNull(color) ? 0 : palette.indexOf(color) + 1;
+    }
+
+    private int sectionFlags(int code, int pensize, boolean raw) {
+        return (code == lastColor ? SAME_COLOR : 0)
+                | (hasPensize && pensize == lastPensize ? SAME_PENSIZE : 0)
+                | (raw ? RAW : 0);
+    }
+
+    private void writeSection(int code, int pensize, int flags) throws IOException {
+        if ((flags & SAME_COLOR) == 0)
+            writeColor(code);
+        if ((flags & SAME_PENSIZE) == 0)
+            writeVarLong(zigzag(pensize));
+        lastColor = code;
+        lastPensize = pensize;
+        hasPensize = true;
+    }
+
+    /*
+     * A color which has just been added to the palette is followed by its components.
+     */
+    private void writeColor(int code) throws IOException {
+        writeVarLong(code);
+        if (code > defined) {
+            writeRGB(palette.colorOf(code - 1));
+            defined = code;
+        }
+    }
+
+    private void writePoint(double x, double y, boolean raw) throws IOException {
+        if (raw) {
+            writeLong(Double.doubleToRawLongBits(x));
+            writeLong(Double.doubleToRawLongBits(y));
+            return;
+        }
+        writeVarLong(zigzag((long) x - refX));
+        writeVarLong(zigzag((long) y - refY));
+        refX = (long) x;
+        refY = (long) y;
+    }
+
+    private void writeRGB(RGBColor color) throws IOException {
+        int rgb = ColorPalette.pack(color);
+        writeByte(rgb >>> 16);
+        writeByte(rgb >>> 8);
+        writeByte(rgb);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private void writeVarLong(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        writeByte((int) value);
+    }
+
+    private void writeInt(int value) throws IOException {
+        for (int shift = 24; shift >= 0; shift -= 8)
+            writeByte(value >>> shift);
+    }
+
+    private void writeLong(long value) throws IOException {
+        for (int shift = 56; shift >= 0; shift -= 8)
+            writeByte((int) (value >>> shift));
+    }
+
+    private void writeByte(int value) throws IOException {
+        if (length == buffer.length) {
+            out.write(buffer, 0, length);
+            length = 0;
+        }
+        buffer[length++] = (byte) value;
+    }
+}
@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Samuele Stronati, Università di Camerino.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * Contributors:
+ *     Samuele Stronati - initial API and implementation
+ *******************************************************************************/
+package it.pa.unicam.stronatisamuele115894.io.logores;
+
+/**
+ * This class collects the constants of the binary '.logores' format.
+ *
+ * A binary file starts with a header made up of the magic number, the version
+ * of the format, the size of the field as two doubles, the palette of the file
+ * and the screen color. The header is followed by a sequence of records, closed
+ * by an END record. Every record starts with a byte holding its type in the high
+ * nibble and its flags in the low nibble.
+ *
+ * Colors are written as varints: 0 stands for no color, and i+1 stands for the
+ * i-th color of the palette. The code of the next free palette slot is followed by
+ * the three components of a new color, which is appended to the palette, so that
+ * a file can be written in a single pass even if its colors are not known in advance.
+ *
+ * Coordinates having an integral value are written as zigzag varints, as the
+ * difference with the last integral point written; any other coordinate makes
+ * the whole record raw, and its coordinates are written as doubles.
+ */
+
+final class LogoresFormat {
+
+    static final int MAGIC = 0x4C47524F;
+    static final int VERSION = 1;
+
+    static final int END = 0;
+    static final int LINE = 1;
+    static final int POLYGON = 2;
+    static final int VERTEX = 3;
+
+    /**
+     * The start of the line is the end of the previous line.
+     */
+    static final int CHAINED = 1;
+    /**
+     * The color of the section is the one of the previous section.
+     */
+    static final int SAME_COLOR = 2;
+    /**
+     * The pensize of the section is the one of the previous section.
+     */
+    static final int SAME_PENSIZE = 4;
+    /**
+     * The coordinates of the record are written as doubles.
+     */
+    static final int RAW = 8;
+
+    static final long MAX_PLAIN_COORDINATE = 1L << 53;
+    private static final long NEGATIVE_ZERO = Double.doubleToRawLongBits(-0.0);
+
+    private LogoresFormat() {}
+
+    static boolean isPlain(double value) {
+        return value == (long) value && Math.abs(value) <= MAX_PLAIN_COORDINATE
+                && Double.doubleToRawLongBits(value) != NEGATIVE_ZERO;
+    }
+
+    static boolean same(double a, double b) {
+        return Double.doubleToRawLongBits(a) == Double.doubleToRawLongBits(b);
+    }
+}
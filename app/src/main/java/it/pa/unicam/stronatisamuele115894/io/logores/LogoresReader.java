@@ -0,0 +1,335 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Samuele Stronati, Università di Camerino.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * Contributors:
+ *     Samuele Stronati - initial API and implementation
+ *******************************************************************************/
+package it.pa.unicam.stronatisamuele115894.io.logores;
+
+import it.pa.unicam.stronatisamuele115894.model.Field;
+import it.pa.unicam.stronatisamuele115894.model.GLine;
+import it.pa.unicam.stronatisamuele115894.model.GeoSection;
+import it.pa.unicam.stronatisamuele115894.model.LineChain;
+import it.pa.unicam.stronatisamuele115894.model.Position;
+import it.pa.unicam.stronatisamuele115894.model.RGBColor;
+import it.pa.unicam.stronatisamuele115894.model.SquareField;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * This class reads a '.logores' file, either in the text or in the binary format,
+ * which is recognized by its first bytes. The file is memory-mapped, and its records
+ * are read one at a time, so that a file of any size can be read with a bounded amount
+ * of memory. Text files are mapped one window at a time, so that they can be larger
+ * than the largest buffer which can be mapped.
+ *
+ * Besides the records, a reader can provide the sections of the file, as GLine
+ * elements, or it can draw them into a Field, rebuilding the field which was saved.
+ */
+
+public final class LogoresReader implements RecordReader, Closeable {
+
+    static final int DEFAULT_WINDOW = 1 << 28;
+
+    private final FileChannel channel;
+    private final RecordReader reader;
+
+    private LogoresReader(Path path, int window) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            this.reader = isBinary() ? openBinary() : new TextRecordScanner(channel, window);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens the '.logores' file at the given path, and reads its header.
+     * @param path path of the file
+     * @return a reader of the file
+     * @throws IOException if some I/O errors occurred
+     * @throws IllegalArgumentException if the file is not a '.logores' file
+     */
+    public static LogoresReader open(Path path) throws IOException {
+        return open(path, DEFAULT_WINDOW);
+    }
+
+    static LogoresReader open(Path path, int window) throws IOException {
+        return new LogoresReader(Objects.requireNonNull(path), window);
+    }
+
+    private boolean isBinary() throws IOException {
+        ByteBuffer magic = ByteBuffer.allocate(Integer.BYTES);
+        while (magic.hasRemaining() && channel.read(magic, magic.position()) > 0) ;
+        return !magic.hasRemaining() && magic.getInt(0) == LogoresFormat.MAGIC;
+    }
+
+    /*
+     * A binary file which is too large for a single buffer is read through the channel.
+     */
+    private RecordReader openBinary() throws IOException {
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE)
+            return new LogoresDecoder(channel.position(0));
+        return new LogoresDecoder(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+    }
+
+    /**
+     * Returns an iterator over the sections of the records which have not been read yet.
+     * A LINE record gives a single section, while a polygon gives a section for each
+     * of its vertexes, which goes to the next vertex, or to the first vertex in the
+     * case of the last one. The iterator reads the records of this reader, which
+     * should not be read by other means while the iterator is being used.
+     * @return iterator over the sections of the file
+     */
+    public Iterator<GeoSection> sections() {
+        return new Iterator<>() {
+            private GeoSection next;
+            private Position first;
+            private Position previous;
+            private RGBColor previousColor;
+            private int previousPensize;
+            private int vertexes;
+            private boolean closing;
+
+            @Override
+            public boolean hasNext() {
+                try {
+                    while (Objects.isNull(next) && advance()) ;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return Objects.nonNull(next);
+            }
+
+            @Override
+            public GeoSection next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                GeoSection section = next;
+                next = null;
+                return section;
+            }
+
+            private boolean advance() throws IOException {
+                if (closing) {
+                    closing = false;
+                    next = section(previous, first, previousColor, previousPensize);
+                    return true;
+                }
+                switch (reader.next()) {
+                    case END -> { return false; }
+                    case LINE -> next = section(new Position(x1(), y1()), new Position(x2(), y2()), color(), pensize());
+                    case POLYGON -> {
+                        first = null;
+                        vertexes = count();
+                    }
+                    case VERTEX -> {
+                        Position vertex = new Position(x1(), y1());
+                        if (Objects.isNull(first))
+                            first = vertex;
+                        else
+                            next = section(previous, vertex, previousColor, previousPensize);
+                        previous = vertex;
+                        previousColor = color();
+                        previousPensize = pensize();
+                        closing = --vertexes == 0;
+                    }
+                }
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Rebuilds the field saved in this file, as a SquareField.
+     * @return the field saved in the file
+     * @throws IOException if some I/O errors occurred
+     * @throws IllegalArgumentException if the file is malformed
+     */
+    public Field readField() throws IOException {
+        return readField(new SquareField(getHeight(), getWidth(), new RGBColor(255, 255, 255), new ArrayList<>(),
+                new LineChain(new ArrayList<>(), new RGBColor(0, 0, 0))));
+    }
+
+    /**
+     * Draws the records of this file which have not been read yet into the given field.
+     * Every polygon of the file becomes a closed path of the field, while every chain
+     * of consecutive lines becomes an open path, so that the field is written as this file.
+     * @param field field where the records are drawn
+     * @return the given field
+     * @throws IOException if some I/O errors occurred
+     * @throws IllegalArgumentException if the file is malformed, or if a section is out of the field
+     */
+    public Field readField(Field field) throws IOException {
+        if (Objects.nonNull(getScreenColor()))
+            field.setScreenColor(getScreenColor());
+        Position pathStart = null;
+        Position pathEnd = null;
+        Position first = null;
+        Position previous = null;
+        RGBColor previousColor = null;
+        int previousPensize = 0;
+        RGBColor polygonFill = null;
+        int vertexes = 0;
+        Record record;
+        while ((record = next()) != Record.END) {
+            switch (record) {
+                case LINE -> {
+                    Position start = new Position(x1(), y1());
+                    Position end = new Position(x2(), y2());
+                    if (!start.equals(pathEnd) || end.equals(pathStart)) {
+                        newPath(field);
+                        pathStart = start;
+                    }
+                    draw(field, section(start, end, null, pensize()), color(), null);
+                    pathEnd = end;
+                }
+                case POLYGON -> {
+                    newPath(field);
+                    pathStart = pathEnd = first = null;
+                    polygonFill = fill();
+                    vertexes = count();
+                }
+                case VERTEX -> {
+                    Position vertex = new Position(x1(), y1());
+                    if (Objects.isNull(first))
+                        first = vertex;
+                    else
+                        draw(field, section(previous, vertex, null, previousPensize), previousColor, polygonFill);
+                    previous = vertex;
+                    previousColor = color();
+                    previousPensize = pensize();
+                    if (--vertexes == 0)
+                        draw(field, section(previous, first, null, previousPensize), previousColor, polygonFill);
+                }
+                default -> { }
+            }
+        }
+        return field;
+    }
+
+    private static void newPath(Field field) {
+        if (!field.getDrawingPath().getPathSections().isEmpty())
+            field.createPath();
+    }
+
+    private static void draw(Field field, GeoSection section, RGBColor stroke, RGBColor fill) {
+        try {
+            if (!field.draw(section, stroke, fill))
+                throw new IllegalArgumentException("A section is out of the bounds of the field!");
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static GeoSection section(Position start, Position end, RGBColor color, int pensize) {
+        GLine line = new GLine(start, end, pensize);
+        try {
+            if (Objects.nonNull(color))
+                line.setColor(color);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+        return line;
+    }
+
+    @Override
+    public Record next() throws IOException {
+        return reader.next();
+    }
+
+    @Override
+    public double getWidth() {
+        return reader.getWidth();
+    }
+
+    @Override
+    public double getHeight() {
+        return reader.getHeight();
+    }
+
+    @Override
+    public RGBColor getScreenColor() {
+        return reader.getScreenColor();
+    }
+
+    @Override
+    public Record record() {
+        return reader.record();
+    }
+
+    @Override
+    public double x1() {
+        return reader.x1();
+    }
+
+    @Override
+    public double y1() {
+        return reader.y1();
+    }
+
+    @Override
+    public double x2() {
+        return reader.x2();
+    }
+
+    @Override
+    public double y2() {
+        return reader.y2();
+    }
+
+    @Override
+    public RGBColor color() {
+        return reader.color();
+    }
+
+    @Override
+    public int pensize() {
+        return reader.pensize();
+    }
+
+    @Override
+    public int count() {
+        return reader.count();
+    }
+
+    @Override
+    public RGBColor fill() {
+        return reader.fill();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,148 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Samuele Stronati, Università di Camerino.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * Contributors:
+ *     Samuele Stronati - initial API and implementation
+ *******************************************************************************/
+package it.pa.unicam.stronatisamuele115894.io.logores;
+
+import it.pa.unicam.stronatisamuele115894.model.RGBColor;
+
+import java.io.IOException;
+
+/**
+ * This interface defines the API for reading the records of a '.logores' file,
+ * one record at a time. The header is read as soon as the reader is created,
+ * while every call of the next method reads a record and returns its type;
+ * the values of the record can then be read through the accessors of the reader,
+ * so that reading a record does not need to allocate any object.
+ *
+ * A LINE record defines the values of x1, y1, x2, y2, color and pensize.
+ * A POLYGON record defines the number of its vertexes and their fill color,
+ * and it is followed by a VERTEX record for each vertex, which defines the
+ * values of x1, y1, color and pensize.
+ */
+
+public interface RecordReader {
+
+    /**
+     * Defines the types of the records of a '.logores' file.
+     */
+    enum Record {
+        /**
+         * The end of the file.
+         */
+        END,
+        /**
+         * A section of an open path.
+         */
+        LINE,
+        /**
+         * The header of a polygon.
+         */
+        POLYGON,
+        /**
+         * A vertex of a polygon, that is the start of one of its sections.
+         */
+        VERTEX
+    }
+
+    /**
+     * Reads the next record of the file. Once the END record has been
+     * read, every following call returns END.
+     * @return type of the record
+     * @throws IOException if some I/O errors occurred, or if the file ends unexpectedly
+     * @throws IllegalArgumentException if the record is malformed
+     */
+    Record next() throws IOException;
+
+    /**
+     * Returns the width of the field.
+     * @return width of the field
+     */
+    double getWidth();
+
+    /**
+     * Returns the height of the field.
+     * @return height of the field
+     */
+    double getHeight();
+
+    /**
+     * Returns the screen color of the field.
+     * @return screen color of the field, or null
+     */
+    RGBColor getScreenColor();
+
+    /**
+     * Returns the type of the last record read, or null if no record has been read.
+     * @return type of the last record
+     */
+    Record record();
+
+    /**
+     * Returns the abscissa of the start of the last line, or of the last vertex.
+     * @return abscissa of the start
+     */
+    double x1();
+
+    /**
+     * Returns the ordinate of the start of the last line, or of the last vertex.
+     * @return ordinate of the start
+     */
+    double y1();
+
+    /**
+     * Returns the abscissa of the end of the last line.
+     * @return abscissa of the end
+     */
+    double x2();
+
+    /**
+     * Returns the ordinate of the end of the last line.
+     * @return ordinate of the end
+     */
+    double y2();
+
+    /**
+     * Returns the color of the last line, or of the section starting at the last vertex.
+     * @return color of the section, or null
+     */
+    RGBColor color();
+
+    /**
+     * Returns the width of the last line, or of the section starting at the last vertex.
+     * @return width of the section
+     */
+    int pensize();
+
+    /**
+     * Returns the number of vertexes of the last polygon.
+     * @return number of vertexes
+     */
+    int count();
+
+    /**
+     * Returns the fill color of the last polygon.
+     * @return fill color of the polygon, or null
+     */
+    RGBColor fill();
+}
@@ -0,0 +1,357 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Samuele Stronati, Università di Camerino.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * Contributors:
+ *     Samuele Stronati - initial API and implementation
+ *******************************************************************************/
+package it.pa.unicam.stronatisamuele115894.io.logores;
+
+import it.pa.unicam.stronatisamuele115894.model.ColorPalette;
+import it.pa.unicam.stronatisamuele115894.model.RGBColor;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class reads the records of a text '.logores' file directly from the bytes
+ * of the file, which is mapped into memory one window at a time. No string is built
+ * while a line is read, and the colors of the records are cached, so that reading
+ * a record does not allocate any object in the common case.
+ *
+ * Numbers having at most 15 digits and no exponent, as the ones written by a FieldWriter,
+ * are parsed by dividing their digits by a power of ten, which gives the same double
+ * as Double.parseDouble since both the operands are exact; any other number is parsed
+ * through Double.parseDouble.
+ */
+
+final class TextRecordScanner implements RecordReader {
+
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final int MAX_FAST_DIGITS = 15;
+    private static final int COLOR_CACHE_SIZE = 64;
+    private static final byte[] SIZE = "SIZE ".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] LINE = "LINE ".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] POLYGON = "POLYGON ".getBytes(StandardCharsets.US_ASCII);
+
+    private final FileChannel channel;
+    private final long size;
+    private final int window;
+    private ByteBuffer buffer;
+    private long base;
+    private int nextLine;
+    private int cursor;
+    private int lineEnd;
+    private final int[] cachedKeys;
+    private final RGBColor[] cachedColors;
+    private final double width;
+    private final double height;
+    private final RGBColor screenColor;
+    private Record record;
+    private int vertices;
+    private double x1;
+    private double y1;
+    private double x2;
+    private double y2;
+    private RGBColor color;
+    private int pensize;
+    private int count;
+    private RGBColor fill;
+
+    /**
+     * Constructs a scanner which reads the file of the given channel,
+     * mapping at most the given number of bytes at a time.
+     */
+    TextRecordScanner(FileChannel channel, int window) throws IOException {
+        if (window <= 0)
+            throw new IllegalArgumentException("A window must have at least one byte!");
+        this.channel = channel;
+        this.size = channel.size();
+        this.window = window;
+        this.cachedKeys = new int[COLOR_CACHE_SIZE];
+        this.cachedColors = new RGBColor[COLOR_CACHE_SIZE];
+        map(0);
+        if (!readLine() || !startsWith(SIZE))
+            throw new IllegalArgumentException("This is not a .logores file!");
+        this.width = readDouble();
+        this.height = readDouble();
+        this.screenColor = readColor();
+        checkLineEnd();
+    }
+
+    @Override
+    public Record next() throws IOException {
+        if (record == Record.END)
+            return record;
+        do {
+            if (!readLine()) {
+                if (vertices > 0)
+                    throw new EOFException("The file ends before the last vertex of a polygon!");
+                return record = Record.END;
+            }
+        } while (cursor == lineEnd);
+        if (vertices > 0) {
+            x1 = readDouble();
+            y1 = readDouble();
+            color = readColor();
+            pensize = readInt();
+            vertices--;
+            record = Record.VERTEX;
+        } else if (startsWith(LINE)) {
+            x1 = readDouble();
+            y1 = readDouble();
+            x2 = readDouble();
+            y2 = readDouble();
+            color = readColor();
+            pensize = readInt();
+            record = Record.LINE;
+        } else if (startsWith(POLYGON)) {
+            count = readInt();
+            fill = readColor();
+            vertices = count;
+            record = Record.POLYGON;
+        } else
+            throw malformed();
+        checkLineEnd();
+        return record;
+    }
+
+    @Override
+    public double getWidth() {
+        return width;
+    }
+
+    @Override
+    public double getHeight() {
+        return height;
+    }
+
+    @Override
+    public RGBColor getScreenColor() {
+        return screenColor;
+    }
+
+    @Override
+    public Record record() {
+        return record;
+    }
+
+    @Override
+    public double x1() {
+        return x1;
+    }
+
+    @Override
+    public double y1() {
+        return y1;
+    }
+
+    @Override
+    public double x2() {
+        return x2;
+    }
+
+    @Override
+    public double y2() {
+        return y2;
+    }
+
+    @Override
+    public RGBColor color() {
+        return color;
+    }
+
+    @Override
+    public int pensize() {
+        return pensize;
+    }
+
+    @Override
+    public int count() {
+        return count;
+    }
+
+    @Override
+    public RGBColor fill() {
+        return fill;
+    }
+
+    private void map(long position) throws IOException {
+        base = position;
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(window, size - position));
+        nextLine = 0;
+    }
+
+    /*
+     * Moves the cursor to the start of the next line. A line crossing the end of
+     * the window is read by mapping a new window, which starts with that line.
+     */
+    private boolean readLine() throws IOException {
+        int end = indexOfNewLine(nextLine);
+        if (end < 0 && base + buffer.limit() < size) {
+            map(base + nextLine);
+            end = indexOfNewLine(0);
+            if (end < 0 && base + buffer.limit() < size)
+                throw new IllegalArgumentException("A line is longer than the mapped window!");
+        }
+        if (end < 0) {
+            if (nextLine == buffer.limit())
+                return false;
+            end = buffer.limit();
+        }
+        cursor = nextLine;
+        nextLine = Math.min(end + 1, buffer.limit());
+        lineEnd = end > cursor && buffer.get(end - 1) == '\r' ? end - 1 : end;
+        return true;
+    }
+
+    private int indexOfNewLine(int from) {
+        for (int i = from, limit = buffer.limit(); i < limit; i++)
+            if (buffer.get(i) == '\n')
+                return i;
+        return -1;
+    }
+
+    private boolean startsWith(byte[] keyword) {
+        if (lineEnd - cursor < keyword.length)
+            return false;
+        for (int i = 0; i < keyword.length; i++)
+            if (buffer.get(cursor + i) != keyword[i])
+                return false;
+        cursor += keyword.length;
+        return true;
+    }
+
+    private void checkLineEnd() {
+        if (cursor != lineEnd + 1 && cursor != lineEnd)
+            throw malformed();
+    }
+
+    /*
+     * Every token is followed by a space, or by the end of the line.
+     */
+    private int tokenEnd() {
+        int end = cursor;
+        while (end < lineEnd && buffer.get(end) != ' ')
+            end++;
+        if (end == cursor)
+            throw malformed();
+        return end;
+    }
+
+    private double readDouble() {
+        int end = tokenEnd();
+        int i = cursor;
+        boolean negative = buffer.get(i) == '-';
+        if (negative)
+            i++;
+        long digits = 0;
+        int count = 0;
+        int fraction = -1;
+        for (; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b >= '0' && b <= '9') {
+                digits = digits * 10 + (b - '0');
+                count++;
+            } else if ((b == '.' || b == ',') && fraction < 0)
+                fraction = i;
+            else
+                break;
+        }
+        if (i < end || count == 0 || count > MAX_FAST_DIGITS)
+            return readSlowDouble(end);
+        double value = digits;
+        if (fraction >= 0)
+            value /= POWERS_OF_TEN[end - fraction - 1];
+        cursor = end + 1;
+        return negative ? -value : value;
+    }
+
+    private double readSlowDouble(int end) {
+        byte[] bytes = new byte[end - cursor];
+        buffer.get(cursor, bytes);
+        cursor = end + 1;
+        try {
+            return Double.parseDouble(new String(bytes, StandardCharsets.US_ASCII).replace(',', '.'));
+        } catch (NumberFormatException e) {
+            throw malformed();
+        }
+    }
+
+    private int readInt() {
+        int end = tokenEnd();
+        int i = cursor;
+        boolean negative = buffer.get(i) == '-';
+        if (negative && ++i == end)
+            throw malformed();
+        long value = 0;
+        for (; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b < '0' || b > '9' || (value = value * 10 + (b - '0')) > Integer.MAX_VALUE + 1L)
+                throw malformed();
+        }
+        cursor = end + 1;
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE)
+            throw malformed();
+        return (int) value;
+    }
+
+    private RGBColor readColor() {
+        if (cursor >= lineEnd)
+            throw malformed();
+        if (buffer.get(cursor) == 'N') {
+            for (int i = 0; i < 3; i++) {
+                if (tokenEnd() != cursor + 1 || buffer.get(cursor) != 'N')
+                    throw malformed();
+                cursor += 2;
+            }
+            return null;
+        }
+        int red = readInt();
+        int green = readInt();
+        int blue = readInt();
+        if ((red | green | blue) >>> 8 != 0)
+            throw malformed();
+        int rgb = red << 16 | green << 8 | blue;
+        int slot = (rgb ^ rgb >>> 11) & (COLOR_CACHE_SIZE - 1);
+        if (cachedColors[slot] == null || cachedKeys[slot] != rgb) {
+            cachedKeys[slot] = rgb;
+            cachedColors[slot] = ColorPalette.unpack(rgb);
+        }
+        return cachedColors[slot];
+    }
+
+    private IllegalArgumentException malformed() {
+        int end = Math.min(lineEnd, buffer.limit());
+        int start = end;
+        while (start > 0 && buffer.get(start - 1) != '\n')
+            start--;
+        byte[] bytes = new byte[end - start];
+        buffer.get(start, bytes);
+        return new IllegalArgumentException("Malformed line: " + new String(bytes, StandardCharsets.UTF_8));
+    }
+}
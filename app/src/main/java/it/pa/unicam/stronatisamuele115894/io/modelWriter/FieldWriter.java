@@ -28,22 +28,76 @@ package it.pa.unicam.stronatisamuele115894.io.modelWriter;
 import it.pa.unicam.stronatisamuele115894.model.Field;
 import it.pa.unicam.stronatisamuele115894.model.GeoPath;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
 /**
  * This class is used to transform a 'Field' element into a string.
+ * The colors of the field are resolved through its palette, so that
+ * the string of every color is built once for each written field.
+ *
+ * A field can also be written directly to an Appendable or to a channel,
+ * one line at a time, so that the memory needed to save a field does not
+ * grow with the size of its string representation.
+ *
+ * A FieldWriter constructed with a ForkJoinPool writes a field in parallel:
+ * the sections of its paths, taken in order, are split into chunks of
+ * consecutive lines, every chunk is encoded into its own buffer by a task of
+ * the pool, and the buffers are written in the original order, so that the
+ * output is the same as the one of the sequential writer. Only a few chunks
+ * per worker of the pool are encoded ahead of the one being written.
  */
 
 public class FieldWriter implements ModelWriter<Field> {
 
-    private final PathWriter<GeoPath> lw;
-    private final RGBColorWriter rw;
-
     /**
-     * Constructs an instance of this PathWriter
+     * Default number of lines in a chunk encoded by a parallel writer.
      */
+    public static final int DEFAULT_CHUNK_LINES = 1 << 14;
 
+    private final ForkJoinPool pool;
+    private final int chunkLines;
+
+    /**
+     * Constructs a FieldWriter which writes a field sequentially.
+     */
     public FieldWriter() {
-        lw = new PathWriter<GeoPath>();
-        rw = new RGBColorWriter();
+        this.pool = null;
+        this.chunkLines = DEFAULT_CHUNK_LINES;
+    }
+
+    /**
+     * Constructs a FieldWriter which writes a field in parallel, through
+     * the given pool, in chunks of the given number of lines.
+     * @param pool pool encoding the chunks of a field
+     * @param chunkLines number of lines in a chunk
+     * @throws NullPointerException if the given pool is null
+     * @throws IllegalArgumentException if the number of lines is not positive
+     */
+    public FieldWriter(ForkJoinPool pool, int chunkLines) {
+        if (chunkLines <= 0)
+            throw new IllegalArgumentException("A chunk must have at least one line!");
+        this.pool = Objects.requireNonNull(pool);
+        this.chunkLines = chunkLines;
+    }
+
+    /**
+     * Constructs a FieldWriter which writes a field in parallel, through the given pool.
+     * @param pool pool encoding the chunks of a field
+     * @throws NullPointerException if the given pool is null
+     */
+    public FieldWriter(ForkJoinPool pool) {
+        this(pool, DEFAULT_CHUNK_LINES);
     }
 
     /**
@@ -56,11 +110,96 @@ public class FieldWriter implements ModelWriter<Field> {
      */
     @Override
     public String stringOf(Field element) {
-        StringBuilder sb = new StringBuilder(
-                String.format("SIZE %.1f %.1f %s\n", element.getWidth(), element.getHeight(), rw.stringOf(element.getFill())));
-        element.getPaths().stream()
-                .filter(p -> p.stroke().isPresent())
-                .forEach(p -> sb.append(lw.stringOf(p)));
+        StringBuilder sb = new StringBuilder();
+        try {
+            writeTo(element, sb);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
         return sb.toString();
     }
+
+    /**
+     * Appends the string representation of the given field to the given
+     * destination, one line at a time.
+     * @param element field element.
+     * @param out destination of the string.
+     * @throws IOException if some I/O errors occurred
+     */
+    @Override
+    public void writeTo(Field element, Appendable out) throws IOException {
+        RGBColorWriter rw = new RGBColorWriter(element.getPalette());
+        PathWriter<GeoPath> lw = new PathWriter<>(rw);
+        out.append(String.format("SIZE %.1f %.1f %s\n", element.getWidth(), element.getHeight(), rw.stringOf(element.getFill())));
+        if (Objects.nonNull(pool)) {
+            writeInParallel(element.getPaths(), out);
+            return;
+        }
+        for (GeoPath p : element.getPaths())
+            if (p.hasStroke())
+                lw.writeTo(p, out);
+    }
+
+    /**
+     * Writes the string representation of the given field to the given channel,
+     * encoded in UTF-8, through a buffer of bounded size. The channel is not closed.
+     * @param element field element.
+     * @param channel destination of the string.
+     * @throws IOException if some I/O errors occurred
+     */
+    public void writeTo(Field element, WritableByteChannel channel) throws IOException {
+        Writer writer = Channels.newWriter(channel, StandardCharsets.UTF_8);
+        writeTo(element, writer);
+        writer.flush();
+    }
+
+    /*
+     * Every chunk goes from the section "fromSection" of the path "fromPath"
+     * to the section "toSection" of the path "toPath", which is excluded.
+     */
+    private void writeInParallel(List<GeoPath> paths, Appendable out) throws IOException {
+        Deque<ForkJoinTask<LineFormatter>> pending = new ArrayDeque<>();
+        int window = 2 * pool.getParallelism();
+        int path = 0;
+        int section = 0;
+        while (path < paths.size()) {
+            int fromPath = path;
+            int fromSection = section;
+            int lines = 0;
+            while (path < paths.size() && lines < chunkLines) {
+                int size = paths.get(path).getPathSections().size();
+                int taken = Math.min(size - section, chunkLines - lines);
+                lines += taken;
+                section += taken;
+                if (section == size) {
+                    path++;
+                    section = 0;
+                }
+            }
+            int toPath = path;
+            int toSection = section;
+            pending.add(pool.submit(() -> encode(paths, fromPath, fromSection, toPath, toSection)));
+            if (pending.size() >= window)
+                pending.poll().join().writeTo(out);
+        }
+        while (!pending.isEmpty())
+            pending.poll().join().writeTo(out);
+    }
+
+    /*
+     * Colors are written without a palette, so that no task changes the palette of the field.
+     */
+    private static LineFormatter encode(List<GeoPath> paths, int fromPath, int fromSection,
+                                        int toPath, int toSection) throws IOException {
+        LineFormatter chunk = new LineFormatter();
+        PathWriter<GeoPath> lw = new PathWriter<>();
+        for (int path = fromPath; path <= toPath && path < paths.size(); path++) {
+            GeoPath p = paths.get(path);
+            int from = path == fromPath ? fromSection : 0;
+            int to = path == toPath ? toSection : p.getPathSections().size();
+            if (p.hasStroke() && from < to)
+                lw.writeTo(p, from, to, chunk);
+        }
+        return chunk;
+    }
 }
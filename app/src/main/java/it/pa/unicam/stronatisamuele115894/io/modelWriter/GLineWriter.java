@@ -40,8 +40,17 @@ public class GLineWriter implements ModelWriter<GLine>{
      * Constructs an instance of this GLineWriter
      */
     public GLineWriter() {
-        pw = new PositionWriter();
-        cw = new RGBColorWriter();
+        this(new RGBColorWriter());
+    }
+
+    /**
+     * Constructs an instance of this GLineWriter, which writes
+     * colors through the given RGBColorWriter
+     * @param cw writer of the colors
+     */
+    public GLineWriter(RGBColorWriter cw) {
+        this.pw = new PositionWriter();
+        this.cw = cw;
     }
 
     /**
@@ -63,10 +72,14 @@ public class GLineWriter implements ModelWriter<GLine>{
      */
     @Override
     public String stringOf(GLine element) {
-        return String.format("LINE %s %s %s %d",
-                pw.stringOf(element.start()),
-                pw.stringOf(element.end()),
-                cw.stringOf(element.color().orElse(null)),
-                element.pensize());
+        return format(element, new LineFormatter()).toString();
+    }
+
+    LineFormatter format(GLine element, LineFormatter formatter) {
+        formatter.append("LINE ");
+        pw.format(element.start(), formatter).append(' ');
+        pw.format(element.end(), formatter).append(' ');
+        cw.format(element.color().orElse(null), formatter).append(' ');
+        return formatter.append(element.pensize());
     }
 }
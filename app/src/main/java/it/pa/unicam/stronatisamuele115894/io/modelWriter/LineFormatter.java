@@ -0,0 +1,240 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Samuele Stronati, Università di Camerino.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * Contributors:
+ *     Samuele Stronati - initial API and implementation
+ *******************************************************************************/
+
+package it.pa.unicam.stronatisamuele115894.io.modelWriter;
+
+import it.pa.unicam.stronatisamuele115894.model.RGBColor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * This class builds the lines of a '.logores' file into a reusable buffer of
+ * characters, so that writing a line does not parse any format string, nor
+ * allocate any object. The text it produces is the same as the one produced
+ * by String.format with the "%s" conversion for doubles and the "%d" conversion
+ * for integers.
+ *
+ * A formatter is also an Appendable, so that the lines built by a writer can
+ * be collected into a formatter and written to their destination later.
+ *
+ * Doubles having an integral value whose magnitude is less than 10^7, as
+ * the coordinates computed by a turtle, are written directly; any other
+ * double is written through Double.toString, which is where the text of
+ * the "%s" conversion comes from.
+ */
+
+public final class LineFormatter implements Appendable {
+
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+    private static final double MAX_PLAIN_DOUBLE = 1e7;
+    private static final long NEGATIVE_ZERO = Double.doubleToRawLongBits(-0.0);
+
+    private char[] buffer;
+    private int length;
+
+    /**
+     * Constructs an empty formatter.
+     */
+    public LineFormatter() {
+        this.buffer = new char[256];
+    }
+
+    /**
+     * Returns the number of characters in the buffer of this formatter.
+     * @return number of characters written since the last clear
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Removes every character from the buffer of this formatter.
+     * @return this formatter
+     */
+    public LineFormatter clear() {
+        length = 0;
+        return this;
+    }
+
+    /**
+     * Appends the given character.
+     * @param c character
+     * @return this formatter
+     */
+    public LineFormatter append(char c) {
+        ensureCapacity(1);
+        buffer[length++] = c;
+        return this;
+    }
+
+    /**
+     * Appends the given string.
+     * @param s string
+     * @return this formatter
+     */
+    public LineFormatter append(String s) {
+        ensureCapacity(s.length());
+        s.getChars(0, s.length(), buffer, length);
+        length += s.length();
+        return this;
+    }
+
+    /**
+     * Appends the given character sequence, or "null" if it is null.
+     * @param csq character sequence
+     * @return this formatter
+     */
+    @Override
+    public LineFormatter append(CharSequence csq) {
+        return append(String.valueOf(csq));
+    }
+
+    /**
+     * Appends a subsequence of the given character sequence, or of "null" if it is null.
+     * @param csq character sequence
+     * @param start index of the first character of the subsequence
+     * @param end index of the character following the subsequence
+     * @return this formatter
+     */
+    @Override
+    public LineFormatter append(CharSequence csq, int start, int end) {
+        CharSequence chars = Objects.isNull(csq) ? "null" : csq;
+        Objects.checkFromToIndex(start, end, chars.length());
+        ensureCapacity(end - start);
+        for (int i = start; i < end; i++)
+            buffer[length++] = chars.charAt(i);
+        return this;
+    }
+
+    /**
+     * Appends the given integer, as the "%d" conversion does.
+     * @param value integer
+     * @return this formatter
+     */
+    public LineFormatter append(int value) {
+        return append((long) value);
+    }
+
+    /**
+     * Appends the given long, as the "%d" conversion does.
+     * @param value long
+     * @return this formatter
+     */
+    public LineFormatter append(long value) {
+        if (value == Long.MIN_VALUE)
+            return append(Long.toString(value));
+        ensureCapacity(20);
+        if (value < 0) {
+            buffer[length++] = '-';
+            value = -value;
+        }
+        int start = length;
+        do {
+            buffer[length++] = (char) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        for (int i = start, j = length - 1; i < j; i++, j--) {
+            char c = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = c;
+        }
+        return this;
+    }
+
+    /**
+     * Appends the given double, as the "%s" conversion does.
+     * @param value double
+     * @return this formatter
+     */
+    public LineFormatter append(double value) {
+        if (value == (long) value && Math.abs(value) < MAX_PLAIN_DOUBLE
+                && Double.doubleToRawLongBits(value) != NEGATIVE_ZERO)
+            return append((long) value).append('.').append('0');
+        return append(Double.toString(value));
+    }
+
+    /**
+     * Appends the three components of the given color, separated by a space,
+     * or "N N N" if the color is null.
+     * @param color RGB color, or null
+     * @return this formatter
+     */
+    public LineFormatter append(RGBColor color) {
+        if (Objects.isNull(color))
+            return append("N N N");
+        return append(color.red()).append(' ').append(color.green()).append(' ').append(color.blue());
+    }
+
+    /**
+     * Appends the line separator of the platform, as the "%n" conversion does.
+     * @return this formatter
+     */
+    public LineFormatter newLine() {
+        return append(LINE_SEPARATOR);
+    }
+
+    /**
+     * Appends the characters in the buffer of this formatter to the given destination,
+     * and clears the buffer. Writers and string builders receive the characters
+     * straight from the buffer.
+     * @param out destination of the characters
+     * @throws IOException if some I/O errors occurred
+     */
+    public void writeTo(Appendable out) throws IOException {
+        if (out instanceof Writer writer)
+            writer.write(buffer, 0, length);
+        else if (out instanceof StringBuilder builder)
+            builder.append(buffer, 0, length);
+        else if (out instanceof LineFormatter formatter)
+            formatter.append(buffer, 0, length);
+        else
+            out.append(CharBuffer.wrap(buffer, 0, length));
+        length = 0;
+    }
+
+    /**
+     * Returns the characters in the buffer of this formatter.
+     * @return string of the characters written since the last clear
+     */
+    @Override
+    public String toString() {
+        return new String(buffer, 0, length);
+    }
+
+    private void append(char[] chars, int offset, int count) {
+        ensureCapacity(count);
+        System.arraycopy(chars, offset, buffer, length, count);
+        length += count;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > buffer.length)
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+    }
+}
@@ -27,6 +27,8 @@ package it.pa.unicam.stronatisamuele115894.io.modelWriter;
 
 import it.pa.unicam.stronatisamuele115894.model.Section;
 
+import java.io.IOException;
+
 /**
  * This interface is used to transform a model element into a string.
  *
@@ -42,4 +44,18 @@ public interface ModelWriter<M> {
      * @return the string representing the given model element.
      */
     String stringOf(M element);
+
+    /**
+     * Appends the string representing the given model element to the given
+     * destination. Writers of large elements override this method, so that
+     * the element is written piece by piece, without building its whole
+     * string representation.
+     *
+     * @param element a model element.
+     * @param out destination of the string.
+     * @throws IOException if some I/O errors occurred
+     */
+    default void writeTo(M element, Appendable out) throws IOException {
+        out.append(stringOf(element));
+    }
 }
@@ -27,25 +27,45 @@ package it.pa.unicam.stronatisamuele115894.io.modelWriter;
 
 import it.pa.unicam.stronatisamuele115894.model.GLine;
 import it.pa.unicam.stronatisamuele115894.model.GeoPath;
+import it.pa.unicam.stronatisamuele115894.model.GeoSection;
 import it.pa.unicam.stronatisamuele115894.model.LineChain;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
 /**
  * This class is used to transform a 'GeoPath' element into a string.
+ * The lines of a path are built by a LineFormatter, and they are passed
+ * to the destination in blocks of a few kilobytes.
  */
 
 public class PathWriter<P extends GeoPath> implements ModelWriter<P>{
 
+    private static final int FLUSH_THRESHOLD = 8192;
+
     private final GLineWriter glw;
     private final RGBColorWriter rw;
     private final PositionWriter pw;
+    private final LineFormatter formatter;
 
     /**
      * Constructs an instance of this PathWriter
      */
     public PathWriter() {
-        glw = new GLineWriter();
-        rw = new RGBColorWriter();
-        pw = new PositionWriter();
+        this(new RGBColorWriter());
+    }
+
+    /**
+     * Constructs an instance of this PathWriter, which writes
+     * colors through the given RGBColorWriter
+     * @param rw writer of the colors
+     */
+    public PathWriter(RGBColorWriter rw) {
+        this.glw = new GLineWriter(rw);
+        this.rw = rw;
+        this.pw = new PositionWriter();
+        this.formatter = new LineFormatter();
     }
 
     /**
@@ -63,23 +83,55 @@ public class PathWriter<P extends GeoPath> implements ModelWriter<P>{
 
     @Override
     public String stringOf(P element) {
-        if (element.isClosed() && element instanceof LineChain)
-            return polygonString(element);
         StringBuilder sb = new StringBuilder();
-        element.getPathSections().forEach(s -> sb.append(
-                String.format("%s%n",glw.stringOf((GLine) s))));
+        try {
+            writeTo(element, sb);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
         return sb.toString();
     }
 
+    /**
+     * Appends the string representation of the given path to the given
+     * destination, one line at a time.
+     * @param element field element.
+     * @param out destination of the string.
+     * @throws IOException if some I/O errors occurred
+     */
+    @Override
+    public void writeTo(P element, Appendable out) throws IOException {
+        writeTo(element, 0, element.getPathSections().size(), out);
+    }
 
-    private String polygonString(P element) {
-        StringBuilder sb = new StringBuilder(
-                String.format("POLYGON %d %s%n", element.getPathSections().size(), rw.stringOf(element.fill())));
-        element.getPathSections()
-                .forEach(s -> sb.append(String.format("%s %s %s%n",
-                        pw.stringOf(s.start()),
-                        rw.stringOf(s.color().orElse(null)),
-                        s.pensize())));
-        return sb.toString();
+    /*
+     * Appends the lines of the sections of the given path whose indexes are in
+     * the range [from,to[. The header of a polygon is written with its first section.
+     */
+    void writeTo(P element, int from, int to, Appendable out) throws IOException {
+        formatter.clear();
+        List<? extends GeoSection> sections = element.getPathSections();
+        if (element.isClosed() && element instanceof LineChain) {
+            if (from == 0) {
+                formatter.append("POLYGON ").append(sections.size()).append(' ');
+                rw.format(element.fill(), formatter).newLine();
+            }
+            for (int i = from; i < to; i++) {
+                GeoSection s = sections.get(i);
+                pw.format(s.start(), formatter).append(' ');
+                rw.format(s.color().orElse(null), formatter).append(' ').append(s.pensize()).newLine();
+                flushIfFull(out);
+            }
+        } else
+            for (int i = from; i < to; i++) {
+                glw.format((GLine) sections.get(i), formatter).newLine();
+                flushIfFull(out);
+            }
+        formatter.writeTo(out);
+    }
+
+    private void flushIfFull(Appendable out) throws IOException {
+        if (formatter.length() >= FLUSH_THRESHOLD)
+            formatter.writeTo(out);
     }
 }
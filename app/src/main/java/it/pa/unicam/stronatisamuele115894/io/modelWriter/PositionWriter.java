@@ -43,6 +43,10 @@ public class PositionWriter implements ModelWriter<Position>{
      */
     @Override
     public String stringOf(Position element) {
-        return String.format("%s %s", element.x(), element.y());
+        return format(element, new LineFormatter()).toString();
+    }
+
+    LineFormatter format(Position element, LineFormatter formatter) {
+        return formatter.append(element.x()).append(' ').append(element.y());
     }
 }
\ No newline at end of file
@@ -25,14 +25,40 @@
 
 package it.pa.unicam.stronatisamuele115894.io.modelWriter;
 
+import it.pa.unicam.stronatisamuele115894.model.ColorPalette;
 import it.pa.unicam.stronatisamuele115894.model.RGBColor;
+import java.util.Arrays;
 import java.util.Objects;
 
 /**
  * This class is used to transform a 'RGBColor' element into a string.
+ * If a ColorPalette is given, colors are resolved through the palette,
+ * and the string of every color is built once and shared afterwards.
  */
 public class RGBColorWriter implements ModelWriter<RGBColor> {
 
+    private final ColorPalette palette;
+    private String[] strings;
+
+    /**
+     * Constructs an instance of this RGBColorWriter, which builds
+     * the string of a color every time it is requested.
+     */
+    public RGBColorWriter() {
+        this.palette = null;
+        this.strings = new String[0];
+    }
+
+    /**
+     * Constructs an instance of this RGBColorWriter, which resolves
+     * colors through the given palette.
+     * @param palette palette of the colors to be written
+     * @throws NullPointerException if the given palette is null
+     */
+    public RGBColorWriter(ColorPalette palette) {
+        this.palette = Objects.requireNonNull(palette);
+        this.strings = new String[palette.size()];
+    }
 
     /**
      * Returns the string representation of this 3-ple of color components.
@@ -47,6 +73,19 @@ public class RGBColorWriter implements ModelWriter<RGBColor> {
     public String stringOf(RGBColor element) {
         if (Objects.isNull(element))
             return "N N N";
-        return String.format("%d %d %d", element.red(), element.green(), element.blue());
+        if (Objects.isNull(palette))
+            return new LineFormatter().append(element).toString();
+        int index = palette.indexOf(element);
+        if (index >= strings.length)
+            strings = Arrays.copyOf(strings, Math.max(index + 1, strings.length * 2));
+        if (Objects.isNull(strings[index]))
+            strings[index] = new LineFormatter().append(palette.colorOf(index)).toString();
+        return strings[index];
+    }
+
+    LineFormatter format(RGBColor element, LineFormatter formatter) {
+        if (Objects.isNull(palette))
+            return formatter.append(element);
+        return formatter.append(stringOf(element));
     }
 }
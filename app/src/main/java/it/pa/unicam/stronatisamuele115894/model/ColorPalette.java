@@ -0,0 +1,211 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Samuele Stronati, Università di Camerino.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * Contributors:
+ *     Samuele Stronati - initial API and implementation
+ *******************************************************************************/
+
+package it.pa.unicam.stronatisamuele115894.model;
+
+import javafx.scene.paint.Color;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * This class represents the palette of the colors used by a Field. Every color
+ * is interned the first time it is seen, and it is associated to a small integer
+ * index, so that the elements of a field can refer to a single shared instance
+ * of each color, or to its index, instead of holding their own copy of it.
+ *
+ * Colors are keyed by their packed 24-bit RGB value, in an open addressing
+ * hash table of primitive integers, so that looking up a color which is already
+ * interned does not allocate any object. The absence of a color is
+ * represented by the NO_COLOR index. Since a palette only grows while a field is
+ * being drawn, the colors converted for the JavaFX renderer and the strings built
+ * by the writers can be cached per index, and built once for each distinct color.
+ */
+
+public final class ColorPalette {
+
+    /**
+     * Index associated to the absence of a color.
+     */
+    public static final int NO_COLOR = -1;
+
+    private static final int EMPTY = -1;
+
+    private int[] keys;
+    private int[] indexes;
+    private RGBColor[] colors;
+    private Color[] javaFXColors;
+    private int size;
+
+    /**
+     * Constructs an empty palette.
+     */
+    public ColorPalette() {
+        this.keys = new int[16];
+        this.indexes = new int[16];
+        Arrays.fill(keys, EMPTY);
+        this.colors = new RGBColor[8];
+        this.javaFXColors = new Color[8];
+    }
+
+    /**
+     * Packs the components of the given color into a 24-bit integer,
+     * in the format 0xRRGGBB.
+     * @param color RGB color
+     * @return packed RGB value of the color
+     * @throws NullPointerException if the given color is null
+     */
+    public static int pack(RGBColor color) {
+        return (color.red() << 16) | (color.green() << 8) | color.blue();
+    }
+
+    /**
+     * Returns the color whose components are packed into the given
+     * 24-bit integer, in the format 0xRRGGBB.
+     * @param rgb packed RGB value
+     * @return RGB color
+     * @throws IllegalArgumentException if the given value has more than 24 bits
+     */
+    public static RGBColor unpack(int rgb) {
+        if ((rgb & ~0xFFFFFF) != 0)
+            throw new IllegalArgumentException("A packed RGB value has 24 bits!");
+        return new RGBColor(rgb >>> 16, (rgb >>> 8) & 0xFF, rgb & 0xFF);
+    }
+
+    /**
+     * Returns the index of the given color in this palette, adding
+     * the color to the palette if it is not already interned.
+     * @param color RGB color, or null
+     * @return index of the color, or NO_COLOR if the color is null
+     */
+    public int indexOf(RGBColor color) {
+        if (Objects.isNull(color))
+            return NO_COLOR;
+        int rgb = pack(color);
+        int slot = slotOf(keys, rgb);
+        if (keys[slot] == rgb)
+            return indexes[slot];
+        if (size == colors.length) {
+            colors = Arrays.copyOf(colors, size * 2);
+            javaFXColors = Arrays.copyOf(javaFXColors, size * 2);
+        }
+        colors[size] = color;
+        keys[slot] = rgb;
+        indexes[slot] = size;
+        if (2 * (size + 1) > keys.length)
+            rehash();
+        return size++;
+    }
+
+    /**
+     * Returns the color associated to the given index.
+     * @param index index of a color, or NO_COLOR
+     * @return RGB color, or null if the index is NO_COLOR
+     * @throws IndexOutOfBoundsException if no color is associated to the index
+     */
+    public RGBColor colorOf(int index) {
+        if (index == NO_COLOR)
+            return null;
+        return colors[Objects.checkIndex(index, size)];
+    }
+
+    /**
+     * Returns the instance of this palette which is equal to the given color,
+     * interning the color if it is not already in the palette.
+     * @param color RGB color, or null
+     * @return the shared instance of the color, or null if the color is null
+     */
+    public RGBColor intern(RGBColor color) {
+        return colorOf(indexOf(color));
+    }
+
+    /**
+     * Returns the JavaFX color associated to the given index. The JavaFX color
+     * is built the first time it is requested, and shared afterwards.
+     * @param index index of a color, or NO_COLOR
+     * @return JavaFX color, which is transparent if the index is NO_COLOR
+     * @throws IndexOutOfBoundsException if no color is associated to the index
+     */
+    public Color toJavaFXColor(int index) {
+        if (index == NO_COLOR)
+            return Color.TRANSPARENT;
+        Color color = javaFXColors[Objects.checkIndex(index, size)];
+        if (Objects.isNull(color))
+            color = javaFXColors[index] = colors[index].toJavaFXColor();
+        return color;
+    }
+
+    /**
+     * Returns the JavaFX color which is equal to the given color,
+     * interning the color if it is not already in the palette.
+     * @param color RGB color, or null
+     * @return JavaFX color, which is transparent if the color is null
+     */
+    public Color toJavaFXColor(RGBColor color) {
+        return toJavaFXColor(indexOf(color));
+    }
+
+    /**
+     * Returns the number of colors in this palette.
+     * @return number of interned colors
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes every color from this palette.
+     */
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        Arrays.fill(colors, 0, size, null);
+        Arrays.fill(javaFXColors, 0, size, null);
+        size = 0;
+    }
+
+    private static int slotOf(int[] keys, int rgb) {
+        int mask = keys.length - 1;
+        int hash = rgb * 0x9E3779B9;
+        int slot = (hash ^ hash >>> 16) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != rgb)
+            slot = (slot + 1) & mask;
+        return slot;
+    }
+
+    private void rehash() {
+        int[] newKeys = new int[keys.length * 2];
+        int[] newIndexes = new int[keys.length * 2];
+        Arrays.fill(newKeys, EMPTY);
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] == EMPTY)
+                continue;
+            int newSlot = slotOf(newKeys, keys[slot]);
+            newKeys[newSlot] = keys[slot];
+            newIndexes[newSlot] = indexes[slot];
+        }
+        keys = newKeys;
+        indexes = newIndexes;
+    }
+}
@@ -0,0 +1,433 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Samuele Stronati, Università di Camerino.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * Contributors:
+ *     Samuele Stronati - initial API and implementation
+ *******************************************************************************/
+package it.pa.unicam.stronatisamuele115894.model;
+
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.RandomAccess;
+
+/**
+ * This class gives an implementation of the "Field" interface through a 2D square
+ * shaped field, like SquareField, whose paths are stored as primitive records of a
+ * SegmentStore rather than as GeoPath and GeoSection instances. Every section is
+ * stored as a line, made up of its end coordinates, the index of its color in a
+ * palette and its pensize, since its start position is the end position of the
+ * previous section of the same path. Every path is stored as its start coordinates,
+ * the offset of its first section and the palette indexes of its stroke and fill colors.
+ *
+ * The paths and the sections returned by this field are lightweight views over
+ * these records, which are built on demand. Therefore this field needs about 24 bytes
+ * per section, instead of the dozen objects of a LineChain made up of GLine instances.
+ * By default the records are kept in a HeapSegmentStore, while a DirectSegmentStore
+ * keeps them outside of the heap.
+ *
+ * The sections within a region, or near a position, are found through a SegmentIndex,
+ * whose identifiers are the offsets of the sections in the store, without scanning every
+ * path. The index is only built when the field is first queried, and then the sections
+ * stored since the previous query are inserted in it, so that drawing on a field which
+ * is never queried keeps needing only its records.
+ */
+
+public final class ColumnarField implements Field {
+
+    private static final String SILENT = "";
+
+    private final double height;
+    private final double width;
+    private GeoPath defaultPath;
+    private RGBColor fill;
+
+    private final RGBColor defaultFill;
+
+    private boolean silent;
+
+    private final ColorPalette palette;
+    private SegmentIndex index;
+
+    private final SegmentStore store;
+
+    public ColumnarField(double h, double w, RGBColor fill, GeoPath defaultPath, SegmentStore store) {
+        if ((this.height = h) < 0 || (this.width = w) < 0)
+            throw new IllegalArgumentException("Axis ranges must be [0, infty[ !");
+        palette = new ColorPalette();
+        setScreenColor(fill);
+        defaultFill = fill;
+        this.store = Objects.requireNonNull(store, "Paths need to be stored somewhere!");
+        store.clear();
+        if (!createPath(defaultPath,true))
+            throw new IllegalArgumentException();
+    }
+
+    public ColumnarField(double h, double w, RGBColor fill, GeoPath defaultPath) {
+        this(h, w, fill, defaultPath, new HeapSegmentStore());
+    }
+
+    @Override
+    public double getHeight() {
+        return height;
+    }
+
+    @Override
+    public double getWidth() {
+        return width;
+    }
+
+    @Override
+    public RGBColor getFill() {
+        return fill;
+    }
+
+    @Override
+    public RGBColor getDefaultFill() {
+        return defaultFill;
+    }
+
+    @Override
+    public String setScreenColor(RGBColor fill) {
+        RGBColor newfill = Objects.requireNonNull(fill,"A field must have a background color!");
+        this.fill = palette.intern(newfill);
+        if (silent)
+            return SILENT;
+        return String.format("Setting stroke color to new RGBColor(%s)", newfill);
+    }
+
+    /**
+     * Returns an unmodifiable view of the paths drawn on this field.
+     * @return list of the paths drawn on this field
+     */
+    @Override
+    public List<GeoPath> getPaths() {
+        return new PathList();
+    }
+
+    @Override
+    public List<GeoSection> getSectionsWithin(double minX, double minY, double maxX, double maxY) {
+        return Arrays.stream(index().query(minX, minY, maxX, maxY))
+                .mapToObj(this::sectionAt)
+                .map(GeoSection.class::cast)
+                .toList();
+    }
+
+    @Override
+    public Optional<GeoSection> getNearestSection(Position position, double maxDistance) {
+        Objects.requireNonNull(position, "Position can't be null!");
+        int id = index().nearest(position.x(), position.y(), maxDistance);
+        return id < 0 ? Optional.empty() : Optional.of(sectionAt(id));
+    }
+
+    @Override
+    public ColorPalette getPalette() {
+        return palette;
+    }
+
+    @Override
+    public GeoPath getDrawingPath() {
+        return new ColumnarPath(store.paths() - 1);
+    }
+
+    @Override
+    public GeoPath getDefaultPath() {
+        return defaultPath;
+    }
+
+    @Override
+    public boolean createPath(GeoPath path, boolean setDefault) {
+        if (setDefault)
+            this.defaultPath = Objects.requireNonNull(path);
+        store.addPath(store.sections(), palette.indexOf(defaultPath.stroke().orElse(null)), palette.indexOf(defaultPath.fill()));
+        for (GeoSection section : defaultPath.getPathSections())
+            append(section, section.colorOrNull());
+        return true;
+    }
+
+    @Override
+    public boolean draw(GeoSection section, RGBColor stroke, RGBColor fill) throws IllegalAccessException {
+        if (!isWithinBounds(Objects.requireNonNull(section).end()))
+            return false;
+        RGBColor color = palette.intern(stroke);
+        section.setColor(color);
+        int path = store.paths() - 1;
+        if (Objects.isNull(color)) {
+            if (sizeOf(path) > 0)
+                createPath();
+            return true;
+        }
+        if (store.stroke(path) == ColorPalette.NO_COLOR || isClosed(path)) {
+            createPath();
+            store.setStroke(store.paths() - 1, palette.indexOf(color));
+        }
+        store.setFill(store.paths() - 1, palette.indexOf(fill));
+        return append(section, color);
+    }
+
+    @Override
+    public String clearScreen() {
+        store.clear();
+        palette.clear();
+        if (Objects.nonNull(index))
+            index.clear();
+        setScreenColor(defaultFill);
+        createPath();
+        if (silent)
+            return SILENT;
+        return String.format("Field has been cleared!%n");
+    }
+
+    @Override
+    public void setSilent(boolean silent) {
+        this.silent = silent;
+    }
+
+    @Override
+    public boolean isSilent() {
+        return silent;
+    }
+
+    @Override
+    public boolean isWithinBounds(Position position) {
+        double x = Objects.requireNonNull(position, "Position can't be null!").x();
+        double y = position.y();
+        return (x >= 0 && x <= getWidth()) && (y >= 0 && y <= getHeight());
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(
+                String.format("SIZE %.1f %.1f %s\n", this.getWidth(), this.getHeight(), this.getFill()));
+        getPaths().stream()
+                .filter(p -> p.stroke().isPresent())
+                .forEach(s -> sb.append(String.format("%s",s)));
+        return sb.toString();
+    }
+
+    /*
+     * Appends the given section to the drawing path, following the rules of
+     * PolySection: the section must be adjacent to the end of the path, and
+     * its color must be present if and only if the stroke of the path is.
+     */
+    private boolean append(GeoSection section, RGBColor color) {
+        int path = store.paths() - 1;
+        int first = store.firstSection(path);
+        int sections = store.sections();
+        Position start = section.start();
+        if (sections > first && (Double.compare(store.endX(sections - 1), start.x()) != 0
+                || Double.compare(store.endY(sections - 1), start.y()) != 0))
+            throw new IllegalArgumentException("Sections should be adjacent!");
+        if (Objects.isNull(color) ^ store.stroke(path) == ColorPalette.NO_COLOR)
+            return false;
+        if (sections == first)
+            store.setStart(path, start.x(), start.y());
+        store.addSection(section.end().x(), section.end().y(), palette.indexOf(color), section.pensize());
+        store.setStroke(path, palette.indexOf(color));
+        return true;
+    }
+
+    /*
+     * Inserts in the index the sections stored since the previous query, reading
+     * their coordinates back from the store.
+     */
+    private SegmentIndex index() {
+        if (Objects.isNull(index))
+            index = new SegmentIndex(width, height);
+        int path = pathOf(index.size());
+        for (int at = index.size(); at < store.sections(); at++) {
+            while (path + 1 < store.paths() && store.firstSection(path + 1) <= at)
+                path++;
+            boolean first = at == store.firstSection(path);
+            index.insert(first ? store.startX(path) : store.endX(at - 1), first ? store.startY(path) : store.endY(at - 1),
+                    store.endX(at), store.endY(at));
+        }
+        return index;
+    }
+
+    private GLine sectionAt(int at) {
+        int path = pathOf(at);
+        return sectionOf(path, at - store.firstSection(path));
+    }
+
+    /*
+     * Returns the path of the section stored at the given offset, which is
+     * the last one starting at or before the offset.
+     */
+    private int pathOf(int at) {
+        int low = 0, high = store.paths() - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (store.firstSection(middle) <= at)
+                low = middle;
+            else
+                high = middle - 1;
+        }
+        return low;
+    }
+
+    private int sizeOf(int path) {
+        return (path + 1 < store.paths() ? store.firstSection(path + 1) : store.sections()) - store.firstSection(path);
+    }
+
+    private boolean isClosed(int path) {
+        int size = sizeOf(path);
+        if (size == 0)
+            return false;
+        int last = store.firstSection(path) + size - 1;
+        return Double.compare(store.startX(path), store.endX(last)) == 0
+                && Double.compare(store.startY(path), store.endY(last)) == 0;
+    }
+
+    private GLine sectionOf(int path, int index) {
+        int at = store.firstSection(path) + index;
+        Position start = index == 0
+                ? new Position(store.startX(path), store.startY(path))
+                : new Position(store.endX(at - 1), store.endY(at - 1));
+        GLine line = new GLine(start, new Position(store.endX(at), store.endY(at)), store.pensize(at));
+        try {
+            line.setColor(palette.colorOf(store.color(at)));
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+        return line;
+    }
+
+    private final class PathList extends AbstractList<GeoPath> implements RandomAccess {
+
+        @Override
+        public GeoPath get(int index) {
+            Objects.checkIndex(index, store.paths());
+            return new ColumnarPath(index);
+        }
+
+        @Override
+        public int size() {
+            return store.paths();
+        }
+    }
+
+    private final class SectionList extends AbstractList<GLine> implements RandomAccess {
+
+        private final int path;
+
+        private SectionList(int path) {
+            this.path = path;
+        }
+
+        @Override
+        public GLine get(int index) {
+            Objects.checkIndex(index, sizeOf(path));
+            return sectionOf(path, index);
+        }
+
+        @Override
+        public int size() {
+            return sizeOf(path);
+        }
+    }
+
+    /*
+     * View of a path of this field. It is a LineChain, since all of its sections are lines.
+     * Only the drawing path of the field can be extended.
+     */
+    private final class ColumnarPath extends LineChain {
+
+        private final int path;
+
+        private ColumnarPath(int path) {
+            super(new SectionList(path), null);
+            this.path = path;
+        }
+
+        @Override
+        public Optional<Position> start() {
+            if (sizeOf(path) == 0)
+                return Optional.empty();
+            return Optional.of(new Position(store.startX(path), store.startY(path)));
+        }
+
+        @Override
+        public Optional<Position> end() {
+            int size = sizeOf(path);
+            if (size == 0)
+                return Optional.empty();
+            int last = store.firstSection(path) + size - 1;
+            return Optional.of(new Position(store.endX(last), store.endY(last)));
+        }
+
+        @Override
+        public RGBColor fill() {
+            return palette.colorOf(store.fill(path));
+        }
+
+        @Override
+        public Optional<RGBColor> stroke() {
+            return Optional.ofNullable(palette.colorOf(store.stroke(path)));
+        }
+
+        @Override
+        public boolean hasStroke() {
+            return store.stroke(path) != ColorPalette.NO_COLOR;
+        }
+
+        @Override
+        public boolean isClosed() {
+            return ColumnarField.this.isClosed(path);
+        }
+
+        @Override
+        public <S extends GeoSection> boolean add(S section) {
+            if (path != store.paths() - 1)
+                throw new IllegalStateException("Only the drawing path of a field can be extended!");
+            return append(section, section.colorOrNull());
+        }
+
+        @Override
+        public RGBColor setFill(RGBColor newFill) {
+            store.setFill(path, palette.indexOf(newFill));
+            return newFill;
+        }
+
+        @Override
+        public RGBColor setStroke(RGBColor newStroke) {
+            store.setStroke(path, palette.indexOf(newStroke));
+            return newStroke;
+        }
+
+        @Override
+        public GeoPath makeCopy() {
+            LineChain copy = new LineChain(new ArrayList<>(getPathSections()), stroke().orElse(null));
+            copy.setFill(fill());
+            return copy;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public List<GLine> getPathSections() {
+            return (List<GLine>) super.getPathSections();
+        }
+    }
+}
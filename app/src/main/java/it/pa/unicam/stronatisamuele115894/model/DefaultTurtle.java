@@ -10,14 +10,37 @@ import java.util.Objects;
 
 public class DefaultTurtle implements Turtle {
 
+    private static final String SILENT = "";
+
+    /*
+     * Cosine and sine of every integer direction in the range (-360,360), computed
+     * exactly as they would be computed for every move, so that the rounded positions
+     * do not change. The values of direction d are stored at index d + 359.
+     */
+    private static final int TRIG_OFFSET = 359;
+    private static final double[] COS = new double[2 * TRIG_OFFSET + 1];
+    private static final double[] SIN = new double[2 * TRIG_OFFSET + 1];
+
+    static {
+        for (int d = -TRIG_OFFSET; d <= TRIG_OFFSET; d++) {
+            double rad = Math.toRadians(d);
+            COS[d + TRIG_OFFSET] = Math.cos(rad);
+            SIN[d + TRIG_OFFSET] = Math.sin(rad);
+        }
+    }
+
     private Position position;
     private int direction;
     private RGBColor stroke;
     private final RGBColor defaultStroke;
     private RGBColor fill;
+    private final RGBColor defaultFill;
     private boolean plot;
     private final Field field;
     private int pensize;
+    private final int defaultPensize;
+    private final Position startPosition;
+    private boolean silent;
 
 
     /**
@@ -34,10 +57,14 @@ public class DefaultTurtle implements Turtle {
         this.stroke = Objects.requireNonNull(stroke, "Turtle must be initialized with a stroke color!");
         this.defaultStroke = stroke;
         setPosition(startPosition);
+        this.startPosition = startPosition;
         this.fill = Objects.requireNonNull(fill, "You can't set a null fill!");
+        this.defaultFill = fill;
         this.pensize = pensize;
+        this.defaultPensize = pensize;
         this.plot = true;
         this.direction = 0;
+        this.silent = false;
     }
 
     /**
@@ -115,9 +142,9 @@ public class DefaultTurtle implements Turtle {
      */
     @Override
     public String setPosition(Position newPosition) {
-        if (!field.isWithinBounds(newPosition))
-            throw new IllegalArgumentException("The turtle must stay inside its field!");
-        position = newPosition;
+        updatePosition(newPosition);
+        if (silent)
+            return SILENT;
         return String.format("The turtle has changed its position. It is now at (x:%.1f y:%.1f)%n",
                 newPosition.x(),newPosition.y());
     }
@@ -143,10 +170,27 @@ public class DefaultTurtle implements Turtle {
     @Override
     public String clearScreen() {
         this.field.clearScreen();
-        setPosition(new Position(field.getWidth()/2,field.getHeight()/2));
+        updatePosition(new Position(field.getWidth()/2,field.getHeight()/2));
+        if (silent)
+            return SILENT;
         return String.format("New position%n");
     }
 
+    /**
+     * Clears the field on which this turtle is positioned, and brings this
+     * turtle back to its start position, direction, colors and pensize.
+     */
+    @Override
+    public void reset() {
+        this.field.clearScreen();
+        this.position = startPosition;
+        this.direction = 0;
+        this.stroke = defaultStroke;
+        this.fill = defaultFill;
+        this.pensize = defaultPensize;
+        this.plot = true;
+    }
+
     /**
      * Moves this turtle on a new position on the field, moving
      * through the given GeoSection instance. For this reason, the
@@ -160,10 +204,12 @@ public class DefaultTurtle implements Turtle {
     @Override
     public String move(Position newPosition, GeoSection section){
         try {
-            setPosition(newPosition);
+            updatePosition(newPosition);
             if (!Objects.equals(section.end(), newPosition))
                 throw new IllegalArgumentException("Turtle has to move to its new position");
             field.draw(Objects.requireNonNull(section), getStroke(), getFill());
+            if (silent)
+                return SILENT;
             return String.format("Moving this turtle to position (%s) through following section: %s%n", newPosition, section);
         } catch (IllegalAccessException e) {
             throw new IllegalArgumentException("Turtle stroke color and section stroke must be equal!");
@@ -203,6 +249,8 @@ public class DefaultTurtle implements Turtle {
     @Override
     public String setDirection(int newAngle) {
         direction = newAngle % 360;
+        if (silent)
+            return SILENT;
         return String.format("Setting turtle direction to %d",direction);
     }
 
@@ -215,6 +263,8 @@ public class DefaultTurtle implements Turtle {
     @Override
     public String setStroke(RGBColor stroke) {
         this.stroke = stroke;
+        if (silent)
+            return SILENT;
         return String.format("Setting stroke color to new RGBColor(%s)",stroke);
     }
 
@@ -228,6 +278,8 @@ public class DefaultTurtle implements Turtle {
     public String setFill(RGBColor fill) {
         this.fill = Objects.requireNonNull(fill,
                 "You can't set a null fill!");
+        if (silent)
+            return SILENT;
         return (String.format("Setting fill color to new RGBColor(%s)",fill));
     }
 
@@ -244,6 +296,8 @@ public class DefaultTurtle implements Turtle {
     public String setPlot(boolean flag) {
         this.stroke = (flag) ? defaultStroke : null;
         plot = flag;
+        if (silent)
+            return SILENT;
         return String.format("Turtle can draw: %s",flag);
     }
 
@@ -255,21 +309,54 @@ public class DefaultTurtle implements Turtle {
     @Override
     public String setPenSize(int pensize) {
         this.pensize = pensize;
+        if (silent)
+            return SILENT;
         return String.format("Setting stroke size to %d",pensize);
     }
 
+    /**
+     * Sets whether this turtle, together with its field, has to skip building
+     * the strings representing the result of its activities.
+     * @param silent true if no result string has to be built, false otherwise
+     */
+    @Override
+    public void setSilent(boolean silent) {
+        this.silent = silent;
+        field.setSilent(silent);
+    }
+
+    /**
+     * Returns true if this turtle skips building the strings representing
+     * the result of its activities, false otherwise.
+     * @return true if this turtle is silent, false otherwise
+     */
+    @Override
+    public boolean isSilent() {
+        return silent;
+    }
+
     /**
      * Computes a new Position instance through a defined function,
-     * which takes two integers as arguments.
+     * which takes two integers as arguments. The cosine and the sine of
+     * the direction are read from a table, since the direction is an integer.
      * @param par1 first argument of the function;
      * @param par2 second argumento of the function
      * @return new Positio instance
      */
     @Override
     public Position computeNewPosition(int par1, int par2) {
-        double rad = Math.toRadians(getDirection());
-        double x = Math.round(getPosition().x() + par1 * Math.cos(rad));
-        double y = Math.round(getPosition().y() + par2 * Math.sin(rad));
+        int d = getDirection();
+        double cos, sin;
+        if (d >= -TRIG_OFFSET && d <= TRIG_OFFSET) {
+            cos = COS[d + TRIG_OFFSET];
+            sin = SIN[d + TRIG_OFFSET];
+        } else {
+            double rad = Math.toRadians(d);
+            cos = Math.cos(rad);
+            sin = Math.sin(rad);
+        }
+        double x = Math.round(getPosition().x() + par1 * cos);
+        double y = Math.round(getPosition().y() + par2 * sin);
         Position newPosition;
         if (!getField().isWithinBounds(newPosition = new Position(x,y)))
             throw new IllegalArgumentException("This position is out of bounds!");
@@ -277,6 +364,12 @@ public class DefaultTurtle implements Turtle {
     }
 
 
+    private void updatePosition(Position newPosition) {
+        if (!field.isWithinBounds(newPosition))
+            throw new IllegalArgumentException("The turtle must stay inside its field!");
+        position = newPosition;
+    }
+
     /**
      * String representation for logging purposes
      * @return logString of this turtle
@@ -0,0 +1,231 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Samuele Stronati, Università di Camerino.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * Contributors:
+ *     Samuele Stronati - initial API and implementation
+ *******************************************************************************/
+package it.pa.unicam.stronatisamuele115894.model;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class implements a SegmentStore through blocks of direct ByteBuffers, so
+ * that the records are kept outside of the heap and are never scanned or moved by
+ * the garbage collector. Every block holds the same number of fixed-width records:
+ * a section takes 24 bytes (end x, end y, color, pensize) and a path takes 32 bytes
+ * (start x, start y, first section, stroke, fill and 4 bytes of padding).
+ *
+ * When the store is cleared, only its first blocks are kept and reused, while
+ * the others are released, like in an arena which is reset.
+ */
+
+public final class DirectSegmentStore implements SegmentStore {
+
+    /**
+     * Default number of records of a block.
+     */
+    public static final int DEFAULT_BLOCK_RECORDS = 1 << 15;
+
+    private static final int SECTION_BYTES = 24;
+    private static final int END_X = 0;
+    private static final int END_Y = 8;
+    private static final int COLOR = 16;
+    private static final int PENSIZE = 20;
+
+    private static final int PATH_BYTES = 32;
+    private static final int START_X = 0;
+    private static final int START_Y = 8;
+    private static final int FIRST_SECTION = 16;
+    private static final int STROKE = 20;
+    private static final int FILL = 24;
+
+    private final int shift;
+    private final int mask;
+    private final List<ByteBuffer> sectionBlocks;
+    private final List<ByteBuffer> pathBlocks;
+    private int sections;
+    private int paths;
+
+    /**
+     * Constructs a store whose blocks hold the given number of records.
+     * @param blockRecords number of records of a block
+     * @throws IllegalArgumentException if the number of records is not a positive power of two,
+     *                                  or if a block would exceed 2GB
+     */
+    public DirectSegmentStore(int blockRecords) {
+        if (blockRecords < 1 || Integer.bitCount(blockRecords) != 1 || blockRecords > Integer.MAX_VALUE / PATH_BYTES)
+            throw new IllegalArgumentException("The records of a block must be a positive power of two!");
+        this.shift = Integer.numberOfTrailingZeros(blockRecords);
+        this.mask = blockRecords - 1;
+        this.sectionBlocks = new ArrayList<>();
+        this.pathBlocks = new ArrayList<>();
+    }
+
+    /**
+     * Constructs a store whose blocks hold DEFAULT_BLOCK_RECORDS records.
+     */
+    public DirectSegmentStore() {
+        this(DEFAULT_BLOCK_RECORDS);
+    }
+
+    @Override
+    public int sections() {
+        return sections;
+    }
+
+    @Override
+    public void addSection(double x, double y, int color, int pensize) {
+        ByteBuffer block = blockToAppend(sectionBlocks, sections, SECTION_BYTES);
+        int at = offset(sections, SECTION_BYTES);
+        block.putDouble(at + END_X, x);
+        block.putDouble(at + END_Y, y);
+        block.putInt(at + COLOR, color);
+        block.putInt(at + PENSIZE, pensize);
+        sections++;
+    }
+
+    @Override
+    public double endX(int section) {
+        return sectionBlock(section).getDouble(offset(section, SECTION_BYTES) + END_X);
+    }
+
+    @Override
+    public double endY(int section) {
+        return sectionBlock(section).getDouble(offset(section, SECTION_BYTES) + END_Y);
+    }
+
+    @Override
+    public int color(int section) {
+        return sectionBlock(section).getInt(offset(section, SECTION_BYTES) + COLOR);
+    }
+
+    @Override
+    public int pensize(int section) {
+        return sectionBlock(section).getInt(offset(section, SECTION_BYTES) + PENSIZE);
+    }
+
+    @Override
+    public int paths() {
+        return paths;
+    }
+
+    @Override
+    public void addPath(int first, int stroke, int fill) {
+        ByteBuffer block = blockToAppend(pathBlocks, paths, PATH_BYTES);
+        int at = offset(paths, PATH_BYTES);
+        block.putDouble(at + START_X, 0);
+        block.putDouble(at + START_Y, 0);
+        block.putInt(at + FIRST_SECTION, first);
+        block.putInt(at + STROKE, stroke);
+        block.putInt(at + FILL, fill);
+        paths++;
+    }
+
+    @Override
+    public int firstSection(int path) {
+        return pathBlock(path).getInt(offset(path, PATH_BYTES) + FIRST_SECTION);
+    }
+
+    @Override
+    public double startX(int path) {
+        return pathBlock(path).getDouble(offset(path, PATH_BYTES) + START_X);
+    }
+
+    @Override
+    public double startY(int path) {
+        return pathBlock(path).getDouble(offset(path, PATH_BYTES) + START_Y);
+    }
+
+    @Override
+    public int stroke(int path) {
+        return pathBlock(path).getInt(offset(path, PATH_BYTES) + STROKE);
+    }
+
+    @Override
+    public int fill(int path) {
+        return pathBlock(path).getInt(offset(path, PATH_BYTES) + FILL);
+    }
+
+    @Override
+    public void setStart(int path, double x, double y) {
+        ByteBuffer block = pathBlock(path);
+        int at = offset(path, PATH_BYTES);
+        block.putDouble(at + START_X, x);
+        block.putDouble(at + START_Y, y);
+    }
+
+    @Override
+    public void setStroke(int path, int stroke) {
+        pathBlock(path).putInt(offset(path, PATH_BYTES) + STROKE, stroke);
+    }
+
+    @Override
+    public void setFill(int path, int fill) {
+        pathBlock(path).putInt(offset(path, PATH_BYTES) + FILL, fill);
+    }
+
+    /**
+     * Removes every record from this store, and releases every block but the first ones.
+     */
+    @Override
+    public void clear() {
+        sections = 0;
+        paths = 0;
+        release(sectionBlocks);
+        release(pathBlocks);
+    }
+
+    /**
+     * Returns the number of bytes allocated outside of the heap by this store.
+     * @return number of allocated bytes
+     */
+    public long allocatedBytes() {
+        long records = (long) mask + 1;
+        return records * (sectionBlocks.size() * (long) SECTION_BYTES + pathBlocks.size() * (long) PATH_BYTES);
+    }
+
+    private ByteBuffer sectionBlock(int section) {
+        return sectionBlocks.get(section >>> shift);
+    }
+
+    private ByteBuffer pathBlock(int path) {
+        return pathBlocks.get(path >>> shift);
+    }
+
+    private int offset(int record, int recordBytes) {
+        return (record & mask) * recordBytes;
+    }
+
+    private ByteBuffer blockToAppend(List<ByteBuffer> blocks, int record, int recordBytes) {
+        int index = record >>> shift;
+        if (index == blocks.size())
+            blocks.add(ByteBuffer.allocateDirect((mask + 1) * recordBytes).order(ByteOrder.nativeOrder()));
+        return blocks.get(index);
+    }
+
+    private void release(List<ByteBuffer> blocks) {
+        if (blocks.size() > 1)
+            blocks.subList(1, blocks.size()).clear();
+    }
+}
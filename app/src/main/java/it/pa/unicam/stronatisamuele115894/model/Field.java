@@ -29,6 +29,7 @@ package it.pa.unicam.stronatisamuele115894.model;
 import javafx.scene.layout.Pane;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * This interface represents a 2D cartesian coordinate field used to draw
@@ -72,8 +73,39 @@ public interface Field {
 
     List<GeoPath> getPaths();
 
+    /**
+     * Returns the palette of the colors used by the elements of this field.
+     * The colors of the paths drawn on the field are interned in this palette.
+     * @return palette of the field
+     */
+    ColorPalette getPalette();
+
     GeoPath getDrawingPath();
 
+    /**
+     * Returns the sections of the paths of this field which intersect the
+     * rectangle [minX,maxX]x[minY,maxY], in the order in which they have been
+     * drawn. The sections are found through a spatial index of the field, so
+     * that the paths which are far from the rectangle are not scanned.
+     * @param minX minimum x coordinate of the rectangle
+     * @param minY minimum y coordinate of the rectangle
+     * @param maxX maximum x coordinate of the rectangle
+     * @param maxY maximum y coordinate of the rectangle
+     * @return sections intersecting the rectangle
+     */
+    List<GeoSection> getSectionsWithin(double minX, double minY, double maxX, double maxY);
+
+    /**
+     * Returns the section of the paths of this field which is the nearest to the
+     * given position, among those whose distance from it is not greater than the
+     * given maximum distance. Among sections having the same distance, the first
+     * drawn one is returned.
+     * @param position the given position
+     * @param maxDistance maximum distance of the section from the position
+     * @return the nearest section, or an empty Optional if no section is near enough
+     */
+    Optional<GeoSection> getNearestSection(Position position, double maxDistance);
+
     GeoPath getDefaultPath();
 
     boolean createPath(GeoPath path, boolean setDefault);
@@ -82,6 +114,20 @@ public interface Field {
 
     default boolean createPath() {return createPath(getDefaultPath());}
 
+    /**
+     * Draws the given section on this field, with the given stroke and fill colors,
+     * adding it to the drawing path. A new drawing path is created if the drawing path
+     * is closed, or if the presence of its stroke color differs from the one of the section.
+     * A section without a stroke color, which is followed by a cursor whose pen is up,
+     * is not stored: it only ends the drawing path, if the path is not empty, so that
+     * the following section starts a new path.
+     * @param section section to be drawn
+     * @param stroke stroke color of the section, or null
+     * @param fill fill color of the drawing path, or null
+     * @return true if the section has been drawn, false if it is out of the field
+     *         or if it cannot be added to the drawing path
+     * @throws IllegalAccessException if the color of the section is already set
+     */
     boolean draw(GeoSection section, RGBColor stroke, RGBColor fill) throws IllegalAccessException;
 
     /**
@@ -91,6 +137,21 @@ public interface Field {
      */
     String clearScreen();
 
+    /**
+     * Sets whether this field has to skip building the strings representing
+     * the result of its activities. A silent field returns an empty string
+     * from every method which changes its state.
+     * @param silent true if no result string has to be built, false otherwise
+     */
+    void setSilent(boolean silent);
+
+    /**
+     * Returns true if this field skips building the strings representing
+     * the result of its activities, false otherwise.
+     * @return true if this field is silent, false otherwise
+     */
+    boolean isSilent();
+
     /**
      * Checks whether a given position is within field's bounds.
      * @param position the given position
@@ -78,6 +78,15 @@ public interface GeoPath {
      */
     Optional<RGBColor> stroke();
 
+    /**
+     * Returns true if the stroke color of this path is present, false
+     * otherwise, without building an Optional of the stroke color.
+     * @return true if this path has a stroke color
+     */
+    default boolean hasStroke() {
+        return stroke().isPresent();
+    }
+
 
     /**
      * Returns a list of all the GeoSection instances this GeoPath
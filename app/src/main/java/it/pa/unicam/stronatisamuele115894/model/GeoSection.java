@@ -59,6 +59,24 @@ public interface GeoSection {
      */
     Optional<RGBColor> color();
 
+    /**
+     * Returns true if a color is associated to this section, false
+     * otherwise, without building an Optional of the color.
+     * @return true if this section has a color
+     */
+    default boolean hasColor() {
+        return color().isPresent();
+    }
+
+    /**
+     * Returns the color associated to this section, or null if this
+     * section is "transparent", without building an Optional of the color.
+     * @return RGBColor associated to this section, or null
+     */
+    default RGBColor colorOrNull() {
+        return color().orElse(null);
+    }
+
     /**
      * Stroke size of this section
      * @return stroke size
@@ -0,0 +1,161 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Samuele Stronati, Università di Camerino.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * Contributors:
+ *     Samuele Stronati - initial API and implementation
+ *******************************************************************************/
+package it.pa.unicam.stronatisamuele115894.model;
+
+import java.util.Arrays;
+
+/**
+ * This class implements a SegmentStore through parallel primitive arrays on the heap,
+ * which are doubled whenever they are full.
+ */
+
+public final class HeapSegmentStore implements SegmentStore {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int sections;
+    private double[] endX = new double[INITIAL_CAPACITY];
+    private double[] endY = new double[INITIAL_CAPACITY];
+    private int[] sectionColor = new int[INITIAL_CAPACITY];
+    private int[] sectionPensize = new int[INITIAL_CAPACITY];
+
+    private int paths;
+    private int[] firstSection = new int[INITIAL_CAPACITY];
+    private double[] startX = new double[INITIAL_CAPACITY];
+    private double[] startY = new double[INITIAL_CAPACITY];
+    private int[] pathStroke = new int[INITIAL_CAPACITY];
+    private int[] pathFill = new int[INITIAL_CAPACITY];
+
+    @Override
+    public int sections() {
+        return sections;
+    }
+
+    @Override
+    public void addSection(double x, double y, int color, int pensize) {
+        if (sections == endX.length) {
+            int capacity = sections * 2;
+            endX = Arrays.copyOf(endX, capacity);
+            endY = Arrays.copyOf(endY, capacity);
+            sectionColor = Arrays.copyOf(sectionColor, capacity);
+            sectionPensize = Arrays.copyOf(sectionPensize, capacity);
+        }
+        endX[sections] = x;
+        endY[sections] = y;
+        sectionColor[sections] = color;
+        sectionPensize[sections] = pensize;
+        sections++;
+    }
+
+    @Override
+    public double endX(int section) {
+        return endX[section];
+    }
+
+    @Override
+    public double endY(int section) {
+        return endY[section];
+    }
+
+    @Override
+    public int color(int section) {
+        return sectionColor[section];
+    }
+
+    @Override
+    public int pensize(int section) {
+        return sectionPensize[section];
+    }
+
+    @Override
+    public int paths() {
+        return paths;
+    }
+
+    @Override
+    public void addPath(int first, int stroke, int fill) {
+        if (paths == firstSection.length) {
+            int capacity = paths * 2;
+            firstSection = Arrays.copyOf(firstSection, capacity);
+            startX = Arrays.copyOf(startX, capacity);
+            startY = Arrays.copyOf(startY, capacity);
+            pathStroke = Arrays.copyOf(pathStroke, capacity);
+            pathFill = Arrays.copyOf(pathFill, capacity);
+        }
+        firstSection[paths] = first;
+        startX[paths] = 0;
+        startY[paths] = 0;
+        pathStroke[paths] = stroke;
+        pathFill[paths] = fill;
+        paths++;
+    }
+
+    @Override
+    public int firstSection(int path) {
+        return firstSection[path];
+    }
+
+    @Override
+    public double startX(int path) {
+        return startX[path];
+    }
+
+    @Override
+    public double startY(int path) {
+        return startY[path];
+    }
+
+    @Override
+    public int stroke(int path) {
+        return pathStroke[path];
+    }
+
+    @Override
+    public int fill(int path) {
+        return pathFill[path];
+    }
+
+    @Override
+    public void setStart(int path, double x, double y) {
+        startX[path] = x;
+        startY[path] = y;
+    }
+
+    @Override
+    public void setStroke(int path, int stroke) {
+        pathStroke[path] = stroke;
+    }
+
+    @Override
+    public void setFill(int path, int fill) {
+        pathFill[path] = fill;
+    }
+
+    @Override
+    public void clear() {
+        sections = 0;
+        paths = 0;
+    }
+}
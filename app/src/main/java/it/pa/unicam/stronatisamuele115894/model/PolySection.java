@@ -32,6 +32,11 @@ import java.util.*;
 
 /**
  * This class gives a base abstract implementation of a GeoPath.
+ *
+ * The start and end positions of the path are kept as fields, and they are
+ * updated whenever a section is added, so that checking whether the path is
+ * closed, or whether a section is adjacent to it, takes constant time and
+ * does not allocate any object.
  */
 
 public abstract class PolySection implements GeoPath {
@@ -55,8 +60,7 @@ public abstract class PolySection implements GeoPath {
     @SuppressWarnings("unchecked")
     public PolySection(List<? extends GeoSection> pathSections, RGBColor color) {
         this.pathSections = (List<GeoSection>) Objects.requireNonNull(pathSections);
-        this.start = null;
-        this.end = null;
+        updateEndpoints();
         this.fill = color;
         this.stroke = color;
     }
@@ -71,8 +75,9 @@ public abstract class PolySection implements GeoPath {
      */
     public PolySection(PolySection obj) {
         this.pathSections = new ArrayList<>(obj.pathSections);
-        this.fill = (obj.fill == null) ? setFill(null) : setFill(new RGBColor(obj.fill.red(), obj.fill.green(), obj.fill.blue()));
-        this.stroke = (obj.stroke == null) ? setStroke(null) : setStroke(new RGBColor(obj.stroke.red(), obj.stroke.green(), obj.stroke.blue()));
+        updateEndpoints();
+        this.fill = obj.fill;
+        this.stroke = obj.stroke;
     }
 
     /**
@@ -89,11 +94,7 @@ public abstract class PolySection implements GeoPath {
      */
     @Override
     public Optional<Position> start() {
-        try {
-            return Optional.ofNullable(pathSections.get(0).start());
-        } catch (IndexOutOfBoundsException e) {
-            return Optional.empty();
-        }
+        return Optional.ofNullable(start);
     }
 
     /**
@@ -103,11 +104,7 @@ public abstract class PolySection implements GeoPath {
      */
     @Override
     public Optional<Position> end() {
-        try {
-            return Optional.ofNullable(pathSections.get(pathSections.size()-1).end());
-        } catch (IndexOutOfBoundsException e) {
-            return Optional.empty();
-        }
+        return Optional.ofNullable(end);
     }
 
     /**
@@ -132,6 +129,16 @@ public abstract class PolySection implements GeoPath {
         return Optional.ofNullable(stroke);
     }
 
+    /**
+     * Returns true if the stroke color of this path is present,
+     * false otherwise.
+     * @return true if this path has a stroke color
+     */
+    @Override
+    public boolean hasStroke() {
+        return stroke != null;
+    }
+
 
 
     /**
@@ -151,10 +158,8 @@ public abstract class PolySection implements GeoPath {
      * @return true if this GeoPath instance is closed, false otherwise.
      */
     @Override
-    public final boolean isClosed() {
-        if (start().isPresent() && end().isPresent())
-            return Objects.equals(start().get(),end().get());
-        return false;
+    public boolean isClosed() {
+        return start != null && start.equals(end);
     }
 
     /**
@@ -167,20 +172,29 @@ public abstract class PolySection implements GeoPath {
      */
     @Override
     public <S extends GeoSection> boolean add(S  section) {
-        if (this.end().isPresent() && !Objects.equals(this.end().get(),section.start()))
+        if (this.end != null && !this.end.equals(section.start()))
             throw new IllegalArgumentException("Sections should be adjacent!");
         return addSectionIfPossible(section);
     }
 
 
     private <S extends GeoSection> boolean addSectionIfPossible(S section) {
-        if (section.color().isEmpty() ^ this.stroke == null)
+        if (section.hasColor() ^ this.stroke != null)
             return false;
         boolean result = this.pathSections.add(section);
-        setStroke(section.color().orElse(null));
+        if (this.start == null)
+            this.start = section.start();
+        this.end = section.end();
+        if (this.stroke != null)
+            setStroke(section.colorOrNull());
         return result;
     }
 
+    private void updateEndpoints() {
+        this.start = pathSections.isEmpty() ? null : pathSections.get(0).start();
+        this.end = pathSections.isEmpty() ? null : pathSections.get(pathSections.size()-1).end();
+    }
+
 
     /**
      * Sets the color used to fill a close area eventually drawn
@@ -100,6 +100,26 @@ public abstract class Section implements GeoSection {
         return Optional.ofNullable(color);
     }
 
+    /**
+     * Tells whether a color is associated to this section,
+     * without wrapping it in an Optional.
+     * @return true if this section has a color, false otherwise
+     */
+    @Override
+    public boolean hasColor() {
+        return color != null;
+    }
+
+    /**
+     * Returns the color associated to this section, or null,
+     * without wrapping it in an Optional.
+     * @return RGBColor associated to this section, or null
+     */
+    @Override
+    public RGBColor colorOrNull() {
+        return color;
+    }
+
     /**
      * Stroke size of this section
      * @return stroke size
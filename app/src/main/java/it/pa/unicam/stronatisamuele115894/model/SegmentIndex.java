@@ -0,0 +1,311 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Samuele Stronati, Università di Camerino.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * Contributors:
+ *     Samuele Stronati - initial API and implementation
+ *******************************************************************************/
+
+package it.pa.unicam.stronatisamuele115894.model;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * This class represents a spatial index over the segments drawn on a field,
+ * so that the segments which intersect a region, or the segment which is the
+ * nearest to a point, can be found without scanning every path of the field.
+ *
+ * The index is a quadtree over the area [0,width]x[0,height]: every segment is
+ * kept by the smallest node whose quadrant fully contains its bounding box, so
+ * that a segment is inserted in O(depth) time, without ever being moved or split.
+ * Segments are identified by the progressive integer returned when they are
+ * inserted, and their coordinates are kept in primitive arrays, together with
+ * the linked lists of the segments of every node, so that an insertion does not
+ * allocate any object unless some array has to grow. Segments which are not
+ * within the area of the index are kept by the root node.
+ */
+
+public final class SegmentIndex {
+
+    /**
+     * Default maximum depth of the quadtree.
+     */
+    public static final int DEFAULT_MAX_DEPTH = 16;
+
+    private static final int ROOT = 0;
+    private static final int NONE = -1;
+
+    private final double width;
+    private final double height;
+    private final int maxDepth;
+
+    private double[] coordinates;
+    private int[] next;
+    private int segments;
+
+    private int[] children;
+    private int[] heads;
+    private int nodes;
+
+    /**
+     * Constructs an empty index over the area [0,width]x[0,height],
+     * whose quadtree has the given maximum depth.
+     * @param width width of the indexed area
+     * @param height height of the indexed area
+     * @param maxDepth maximum depth of the quadtree
+     * @throws IllegalArgumentException if the width or the height is negative,
+     *              or if the maximum depth is not positive
+     */
+    public SegmentIndex(double width, double height, int maxDepth) {
+        if (width < 0 || height < 0)
+            throw new IllegalArgumentException("Axis ranges must be [0, infty[ !");
+        if (maxDepth <= 0)
+            throw new IllegalArgumentException("The depth of a quadtree must be positive!");
+        this.width = width;
+        this.height = height;
+        this.maxDepth = maxDepth;
+        this.coordinates = new double[64];
+        this.next = new int[16];
+        this.children = new int[64];
+        this.heads = new int[16];
+        clear();
+    }
+
+    /**
+     * Constructs an empty index over the area [0,width]x[0,height].
+     * @param width width of the indexed area
+     * @param height height of the indexed area
+     * @throws IllegalArgumentException if the width or the height is negative
+     */
+    public SegmentIndex(double width, double height) {
+        this(width, height, DEFAULT_MAX_DEPTH);
+    }
+
+    /**
+     * Inserts the segment between the two given points.
+     * @param x1 x coordinate of the start of the segment
+     * @param y1 y coordinate of the start of the segment
+     * @param x2 x coordinate of the end of the segment
+     * @param y2 y coordinate of the end of the segment
+     * @return identifier of the inserted segment
+     */
+    public int insert(double x1, double y1, double x2, double y2) {
+        if (segments == next.length) {
+            next = Arrays.copyOf(next, segments * 2);
+            coordinates = Arrays.copyOf(coordinates, segments * 8);
+        }
+        int id = segments++;
+        coordinates[4 * id] = x1;
+        coordinates[4 * id + 1] = y1;
+        coordinates[4 * id + 2] = x2;
+        coordinates[4 * id + 3] = y2;
+        int node = nodeOf(Math.min(x1, x2), Math.min(y1, y2), Math.max(x1, x2), Math.max(y1, y2));
+        next[id] = heads[node];
+        heads[node] = id;
+        return id;
+    }
+
+    /**
+     * Returns the number of segments in this index.
+     * @return number of indexed segments
+     */
+    public int size() {
+        return segments;
+    }
+
+    /**
+     * Removes every segment from this index.
+     */
+    public void clear() {
+        segments = 0;
+        nodes = 1;
+        Arrays.fill(children, 0, 4, NONE);
+        heads[ROOT] = NONE;
+    }
+
+    /**
+     * Passes to the given consumer the identifier of every segment which
+     * intersects the rectangle [minX,maxX]x[minY,maxY]. Every segment is
+     * passed once, in no particular order.
+     * @param minX minimum x coordinate of the rectangle
+     * @param minY minimum y coordinate of the rectangle
+     * @param maxX maximum x coordinate of the rectangle
+     * @param maxY maximum y coordinate of the rectangle
+     * @param action consumer of the identifiers of the segments
+     */
+    public void query(double minX, double minY, double maxX, double maxY, IntConsumer action) {
+        query(ROOT, 0, 0, width, height, minX, minY, maxX, maxY, action);
+    }
+
+    /**
+     * Returns the identifiers of the segments which intersect the rectangle
+     * [minX,maxX]x[minY,maxY], in the order in which they have been inserted.
+     * @param minX minimum x coordinate of the rectangle
+     * @param minY minimum y coordinate of the rectangle
+     * @param maxX maximum x coordinate of the rectangle
+     * @param maxY maximum y coordinate of the rectangle
+     * @return sorted identifiers of the segments
+     */
+    public int[] query(double minX, double minY, double maxX, double maxY) {
+        IntStream.Builder ids = IntStream.builder();
+        query(minX, minY, maxX, maxY, ids);
+        return ids.build().sorted().toArray();
+    }
+
+    /**
+     * Returns the identifier of the segment which is the nearest to the given
+     * point, among the segments whose distance from it is not greater than
+     * the given maximum distance.
+     * @param x x coordinate of the point
+     * @param y y coordinate of the point
+     * @param maxDistance maximum distance of the segment from the point
+     * @return identifier of the nearest segment, or -1 if no segment is near enough
+     */
+    public int nearest(double x, double y, double maxDistance) {
+        double[] best = {maxDistance * maxDistance, NONE};
+        nearest(ROOT, 0, 0, width, height, x, y, best);
+        return (int) best[1];
+    }
+
+    /**
+     * Returns the distance of the given point from the given segment.
+     * @param id identifier of the segment
+     * @param x x coordinate of the point
+     * @param y y coordinate of the point
+     * @return distance of the point from the segment
+     * @throws IndexOutOfBoundsException if no segment has the given identifier
+     */
+    public double distance(int id, double x, double y) {
+        return Math.sqrt(squaredDistance(Objects.checkIndex(id, segments), x, y));
+    }
+
+    private int nodeOf(double minX, double minY, double maxX, double maxY) {
+        if (minX < 0 || minY < 0 || maxX > width || maxY > height)
+            return ROOT;
+        int node = ROOT;
+        double x0 = 0, y0 = 0, x1 = width, y1 = height;
+        for (int depth = 0; depth < maxDepth; depth++) {
+            double midX = (x0 + x1) / 2, midY = (y0 + y1) / 2;
+            int quadrant;
+            if (maxX <= midX) { quadrant = 0; x1 = midX; }
+            else if (minX >= midX) { quadrant = 1; x0 = midX; }
+            else break;
+            if (maxY <= midY) y1 = midY;
+            else if (minY >= midY) { quadrant += 2; y0 = midY; }
+            else break;
+            node = childOf(node, quadrant);
+        }
+        return node;
+    }
+
+    private int childOf(int node, int quadrant) {
+        int child = children[4 * node + quadrant];
+        if (child != NONE)
+            return child;
+        if (nodes == heads.length) {
+            heads = Arrays.copyOf(heads, nodes * 2);
+            children = Arrays.copyOf(children, nodes * 8);
+        }
+        child = nodes++;
+        Arrays.fill(children, 4 * child, 4 * child + 4, NONE);
+        heads[child] = NONE;
+        children[4 * node + quadrant] = child;
+        return child;
+    }
+
+    private void query(int node, double x0, double y0, double x1, double y1,
+                       double minX, double minY, double maxX, double maxY, IntConsumer action) {
+        for (int id = heads[node]; id != NONE; id = next[id])
+            if (intersects(id, minX, minY, maxX, maxY))
+                action.accept(id);
+        double midX = (x0 + x1) / 2, midY = (y0 + y1) / 2;
+        for (int quadrant = 0; quadrant < 4; quadrant++) {
+            int child = children[4 * node + quadrant];
+            if (child == NONE)
+                continue;
+            double cx0 = (quadrant & 1) == 0 ? x0 : midX, cx1 = (quadrant & 1) == 0 ? midX : x1;
+            double cy0 = (quadrant & 2) == 0 ? y0 : midY, cy1 = (quadrant & 2) == 0 ? midY : y1;
+            if (cx0 <= maxX && cx1 >= minX && cy0 <= maxY && cy1 >= minY)
+                query(child, cx0, cy0, cx1, cy1, minX, minY, maxX, maxY, action);
+        }
+    }
+
+    private void nearest(int node, double x0, double y0, double x1, double y1, double x, double y, double[] best) {
+        for (int id = heads[node]; id != NONE; id = next[id]) {
+            double distance = squaredDistance(id, x, y);
+            if (distance < best[0] || (distance == best[0] && (best[1] == NONE || id < best[1]))) {
+                best[0] = distance;
+                best[1] = id;
+            }
+        }
+        double midX = (x0 + x1) / 2, midY = (y0 + y1) / 2;
+        int first = (x < midX ? 0 : 1) + (y < midY ? 0 : 2);
+        for (int i = 0; i < 4; i++) {
+            int quadrant = first ^ i;
+            int child = children[4 * node + quadrant];
+            if (child == NONE)
+                continue;
+            double cx0 = (quadrant & 1) == 0 ? x0 : midX, cx1 = (quadrant & 1) == 0 ? midX : x1;
+            double cy0 = (quadrant & 2) == 0 ? y0 : midY, cy1 = (quadrant & 2) == 0 ? midY : y1;
+            double dx = Math.max(0, Math.max(cx0 - x, x - cx1));
+            double dy = Math.max(0, Math.max(cy0 - y, y - cy1));
+            if (dx * dx + dy * dy <= best[0])
+                nearest(child, cx0, cy0, cx1, cy1, x, y, best);
+        }
+    }
+
+    private double squaredDistance(int id, double x, double y) {
+        double ax = coordinates[4 * id], ay = coordinates[4 * id + 1];
+        double dx = coordinates[4 * id + 2] - ax, dy = coordinates[4 * id + 3] - ay;
+        double length = dx * dx + dy * dy;
+        double t = length == 0 ? 0 : Math.max(0, Math.min(1, ((x - ax) * dx + (y - ay) * dy) / length));
+        double px = ax + t * dx - x, py = ay + t * dy - y;
+        return px * px + py * py;
+    }
+
+    /*
+     * Clips the segment against the rectangle, as in the Liang-Barsky algorithm.
+     */
+    private boolean intersects(int id, double minX, double minY, double maxX, double maxY) {
+        double ax = coordinates[4 * id], ay = coordinates[4 * id + 1];
+        double dx = coordinates[4 * id + 2] - ax, dy = coordinates[4 * id + 3] - ay;
+        double t0 = 0, t1 = 1;
+        if (dx == 0) {
+            if (ax < minX || ax > maxX)
+                return false;
+        } else {
+            double ta = (minX - ax) / dx, tb = (maxX - ax) / dx;
+            t0 = Math.max(t0, Math.min(ta, tb));
+            t1 = Math.min(t1, Math.max(ta, tb));
+        }
+        if (dy == 0) {
+            if (ay < minY || ay > maxY)
+                return false;
+        } else {
+            double ta = (minY - ay) / dy, tb = (maxY - ay) / dy;
+            t0 = Math.max(t0, Math.min(ta, tb));
+            t1 = Math.min(t1, Math.max(ta, tb));
+        }
+        return t0 <= t1;
+    }
+}
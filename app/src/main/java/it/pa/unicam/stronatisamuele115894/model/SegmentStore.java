@@ -0,0 +1,77 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Samuele Stronati, Università di Camerino.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * Contributors:
+ *     Samuele Stronati - initial API and implementation
+ *******************************************************************************/
+package it.pa.unicam.stronatisamuele115894.model;
+
+/**
+ * This interface represents the storage of the paths of a ColumnarField, where
+ * every section and every path is a fixed-width record of primitive values.
+ * A section record is made up of the end coordinates of the section, the
+ * palette index of its color and its pensize. A path record is made up of the
+ * index of its first section, its start coordinates and the palette indexes
+ * of its stroke and fill colors. A missing color is represented by a negative index.
+ *
+ * Records are only appended, and the whole storage is emptied at once,
+ * so that an implementation can keep its records in large contiguous blocks.
+ */
+
+public interface SegmentStore {
+
+    int sections();
+
+    void addSection(double endX, double endY, int color, int pensize);
+
+    double endX(int section);
+
+    double endY(int section);
+
+    int color(int section);
+
+    int pensize(int section);
+
+    int paths();
+
+    void addPath(int firstSection, int stroke, int fill);
+
+    int firstSection(int path);
+
+    double startX(int path);
+
+    double startY(int path);
+
+    int stroke(int path);
+
+    int fill(int path);
+
+    void setStart(int path, double x, double y);
+
+    void setStroke(int path, int stroke);
+
+    void setFill(int path, int fill);
+
+    /**
+     * Removes every section and every path from this storage.
+     */
+    void clear();
+}
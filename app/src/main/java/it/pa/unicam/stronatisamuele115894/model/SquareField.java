@@ -26,28 +26,46 @@
 package it.pa.unicam.stronatisamuele115894.model;
 
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 
 /**
  * This class gives a default implementation of the "Field" interface through a
  * 2D square shaped field. Axis range values of the field are [0,width] and [0,height].
  * Elements and shapes put beyond those ranges are not allowed.
+ *
+ * The sections within a region, or near a position, are found through a SegmentIndex
+ * without scanning every path. The index is only built when the field is first queried,
+ * and then the sections drawn since the previous query are inserted in it, so that
+ * drawing on a field which is never queried does not pay for it. The identifier of
+ * a section is its position among the sections of every path, so that only the
+ * identifier of the first section of each path is kept alongside the index.
  */
 
 public final class SquareField implements Field {
 
+    private static final String SILENT = "";
+
     private final double height;
     private final double width;
     private final List<GeoPath> pathList;
+    private final ColorPalette palette;
+    private SegmentIndex index;
+    private int[] firstIds;
+    private int indexedPaths;
     private GeoPath defaultPath;
     private RGBColor fill;
 
     private final RGBColor defaultFill;
 
+    private boolean silent;
+
     public SquareField(double h, double w, RGBColor fill, List<GeoPath> pathList, GeoPath defaultPath) {
         if ((this.height = h) < 0 || (this.width = w) < 0)
             throw new IllegalArgumentException("Axis ranges must be [0, infty[ !");
+        this.palette = new ColorPalette();
         setScreenColor(fill);
         defaultFill = fill;
         this.pathList = Objects.requireNonNull(pathList,"Paths need to be drawn on the field!");
@@ -78,7 +96,9 @@ public final class SquareField implements Field {
     @Override
     public String setScreenColor(RGBColor fill) {
         RGBColor newfill = Objects.requireNonNull(fill,"A field must have a background color!");
-        this.fill = newfill;
+        this.fill = palette.intern(newfill);
+        if (silent)
+            return SILENT;
         return String.format("Setting stroke color to new RGBColor(%s)", newfill);
     }
 
@@ -87,6 +107,11 @@ public final class SquareField implements Field {
         return pathList;
     }
 
+    @Override
+    public ColorPalette getPalette() {
+        return palette;
+    }
+
     @Override
     public GeoPath getDrawingPath() {
         return getPaths().get(getPaths().size()-1);
@@ -108,23 +133,58 @@ public final class SquareField implements Field {
     public boolean draw(GeoSection section, RGBColor stroke, RGBColor fill) throws IllegalAccessException {
         if (!isWithinBounds(Objects.requireNonNull(section).end()))
             return false;
-        section.setColor(stroke);
-        if ((section.color().isPresent() ^ getDrawingPath().stroke().isPresent()) || getDrawingPath().isClosed()) {
+        RGBColor color = palette.intern(stroke);
+        section.setColor(color);
+        GeoPath path = getDrawingPath();
+        if (Objects.isNull(color))
+            return moveTo(path);
+        if (!path.hasStroke() || path.isClosed()) {
             createPath();
-            getDrawingPath().setStroke(section.color().orElse(null));
+            path = getDrawingPath();
+            path.setStroke(color);
         }
-        getDrawingPath().setFill(fill);
-        return getDrawingPath().add(section);
+        path.setFill(palette.intern(fill));
+        return path.add(section);
+    }
+
+    @Override
+    public List<GeoSection> getSectionsWithin(double minX, double minY, double maxX, double maxY) {
+        return Arrays.stream(index().query(minX, minY, maxX, maxY))
+                .mapToObj(this::sectionAt)
+                .toList();
+    }
+
+    @Override
+    public Optional<GeoSection> getNearestSection(Position position, double maxDistance) {
+        Objects.requireNonNull(position, "Position can't be null!");
+        int id = index().nearest(position.x(), position.y(), maxDistance);
+        return id < 0 ? Optional.empty() : Optional.of(sectionAt(id));
     }
 
     @Override
     public String clearScreen() {
         pathList.clear();
+        palette.clear();
+        if (Objects.nonNull(index))
+            index.clear();
+        indexedPaths = 0;
         setScreenColor(defaultFill);
         createPath();
+        if (silent)
+            return SILENT;
         return String.format("Field has been cleared!%n");
     }
 
+    @Override
+    public void setSilent(boolean silent) {
+        this.silent = silent;
+    }
+
+    @Override
+    public boolean isSilent() {
+        return silent;
+    }
+
     @Override
     public boolean isWithinBounds(Position position) {
         double x = Objects.requireNonNull(position, "Position can't be null!").x();
@@ -141,4 +201,56 @@ public final class SquareField implements Field {
                 .forEach(s -> sb.append(String.format("%s",s)));
         return sb.toString();
     }
-}
\ No newline at end of file
+
+    /*
+     * A section without a stroke color is not stored: it only ends the drawing
+     * path, so that the next drawn section starts a new path from its end.
+     */
+    private boolean moveTo(GeoPath path) {
+        if (!path.getPathSections().isEmpty())
+            createPath();
+        return true;
+    }
+
+    /*
+     * Inserts in the index the sections drawn since the previous query. Only the
+     * drawing path can grow, so the sections of the last indexed path are inserted
+     * from the first one which is not indexed yet, and those of the newer paths from
+     * the start.
+     */
+    private SegmentIndex index() {
+        if (Objects.isNull(index)) {
+            index = new SegmentIndex(width, height);
+            firstIds = new int[16];
+        }
+        for (int path = Math.max(0, indexedPaths - 1); path < pathList.size(); path++) {
+            if (path == indexedPaths) {
+                if (indexedPaths == firstIds.length)
+                    firstIds = Arrays.copyOf(firstIds, indexedPaths * 2);
+                firstIds[indexedPaths++] = index.size();
+            }
+            List<? extends GeoSection> sections = pathList.get(path).getPathSections();
+            for (int i = index.size() - firstIds[path]; i < sections.size(); i++) {
+                GeoSection section = sections.get(i);
+                index.insert(section.start().x(), section.start().y(), section.end().x(), section.end().y());
+            }
+        }
+        return index;
+    }
+
+    /*
+     * Returns the section with the given identifier, whose path is the last one
+     * whose first identifier is not greater than it.
+     */
+    private GeoSection sectionAt(int id) {
+        int low = 0, high = indexedPaths - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (firstIds[middle] <= id)
+                low = middle;
+            else
+                high = middle - 1;
+        }
+        return pathList.get(low).getPathSections().get(id - firstIds[low]);
+    }
+}
@@ -110,6 +110,24 @@ public interface Turtle {
      */
     String clearScreen();
 
+    /**
+     * Brings this turtle, together with its field, back to the state it had when it
+     * was created: the field is cleared, and the position, the direction, the colors,
+     * the pensize and the plot flag of this turtle are set to their initial values.
+     * The memory already allocated by the field is kept, so that a turtle can be reused
+     * to run another program.
+     */
+    void reset();
+
+    /**
+     * Called before every command of a program run by this turtle, and at every
+     * repetition of a RIPETI statement, even if the statement doesn't direct the turtle.
+     * A turtle can stop the program by throwing an unchecked exception. By default,
+     * nothing is done.
+     */
+    default void checkpoint() {
+    }
+
     /**
      * Moves this turtle on a new position on the field, moving
      * through the given GeoSection instance. For this reason, the
@@ -188,6 +206,21 @@ public interface Turtle {
      */
     String setPenSize(int pensize);
 
+    /**
+     * Sets whether this turtle, together with its field, has to skip building
+     * the strings representing the result of its activities. A silent turtle
+     * returns an empty string from every method which changes its state.
+     * @param silent true if no result string has to be built, false otherwise
+     */
+    void setSilent(boolean silent);
+
+    /**
+     * Returns true if this turtle skips building the strings representing
+     * the result of its activities, false otherwise.
+     * @return true if this turtle is silent, false otherwise
+     */
+    boolean isSilent();
+
     /**
      * Computes a new Position instance through a defined function,
      * which takes two integers as arguments.
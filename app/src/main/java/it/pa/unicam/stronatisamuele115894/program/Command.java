@@ -0,0 +1,64 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Samuele Stronati, Università di Camerino.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * Contributors:
+ *     Samuele Stronati - initial API and implementation
+ *******************************************************************************/
+
+package it.pa.unicam.stronatisamuele115894.program;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * This record represents a basic Logo command, made up of its opcode
+ * and its integer arguments.
+ *
+ * @param opcode opcode of the command;
+ * @param arguments integer arguments of the command;
+ * @param line line of the command, starting from 1;
+ * @param column column of the command, starting from 1.
+ */
+
+public record Command(Opcode opcode, List<Integer> arguments, int line, int column) implements Statement {
+
+    /**
+     * Constructs a basic Logo command.
+     *
+     * @throws NullPointerException if opcode or arguments is null
+     * @throws IllegalArgumentException if the opcode is RIPETI or an internal
+     *                                  instruction
+     */
+    public Command {
+        if (Objects.requireNonNull(opcode) == Opcode.REPEAT || Objects.isNull(opcode.keyword()))
+            throw new IllegalArgumentException(String.format("%s is not a basic command!", opcode));
+        arguments = List.copyOf(arguments);
+    }
+
+    @Override
+    public List<String> tokens() {
+        List<String> tokens = new ArrayList<>(arguments.size() + 1);
+        tokens.add(opcode.keyword());
+        arguments.forEach(a -> tokens.add(String.valueOf(a)));
+        return tokens;
+    }
+}
@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Samuele Stronati, Università di Camerino.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * Contributors:
+ *     Samuele Stronati - initial API and implementation
+ *******************************************************************************/
+
+package it.pa.unicam.stronatisamuele115894.program;
+
+import java.util.Objects;
+
+/**
+ * This class splits a Logo source into tokens through a single pass over
+ * its characters. Square brackets are always returned as tokens on their own,
+ * whatever the characters around them, while every other token is a run of
+ * characters delimited by whitespace or brackets. A token made up of an
+ * optional minus sign followed by digits only is a number.
+ */
+
+public class Lexer {
+
+    private final CharSequence source;
+    private int index;
+    private int line;
+    private int column;
+
+    /**
+     * Constructs a lexer over the given source.
+     * @param source Logo source
+     * @throws NullPointerException if the given source is null
+     */
+    public Lexer(CharSequence source) {
+        this.source = Objects.requireNonNull(source);
+        this.index = 0;
+        this.line = 1;
+        this.column = 1;
+    }
+
+    /**
+     * Returns the next token of the source. Once the end of the source
+     * is reached, an EOF token is returned by every call.
+     * @return next token of the source
+     */
+    public Token next() {
+        skipWhitespace();
+        if (index == source.length())
+            return new Token(Token.Type.EOF, "", line, column);
+        char c = source.charAt(index);
+        if (c == '[' || c == ']')
+            return bracket(c);
+        int start = index;
+        int startColumn = column;
+        while (index < source.length() && isWordCharacter(source.charAt(index))) {
+            index++;
+            column++;
+        }
+        String text = source.subSequence(start, index).toString();
+        return new Token(isNumber(text) ? Token.Type.NUMBER : Token.Type.WORD, text, line, startColumn);
+    }
+
+    private Token bracket(char c) {
+        Token token = new Token((c == '[') ? Token.Type.OPEN_BRACKET : Token.Type.CLOSE_BRACKET,
+                String.valueOf(c), line, column);
+        index++;
+        column++;
+        return token;
+    }
+
+    private void skipWhitespace() {
+        while (index < source.length() && Character.isWhitespace(source.charAt(index))) {
+            if (source.charAt(index) == '\n') {
+                line++;
+                column = 1;
+            } else
+                column++;
+            index++;
+        }
+    }
+
+    private static boolean isWordCharacter(char c) {
+        return !Character.isWhitespace(c) && c != '[' && c != ']';
+    }
+
+    private static boolean isNumber(String text) {
+        int start = (text.charAt(0) == '-') ? 1 : 0;
+        if (start == text.length())
+            return false;
+        for (int i = start; i < text.length(); i++)
+            if (!Character.isDigit(text.charAt(i)))
+                return false;
+        return true;
+    }
+}
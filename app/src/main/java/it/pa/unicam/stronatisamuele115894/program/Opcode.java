@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Samuele Stronati, Università di Camerino.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * Contributors:
+ *     Samuele Stronati - initial API and implementation
+ *******************************************************************************/
+
+package it.pa.unicam.stronatisamuele115894.program;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * This enum defines the instruction set of a compiled Logo program. Every
+ * instruction is made up of an opcode, stored as its ordinal, followed by
+ * a fixed number of integer operands. Color operands are indexes into the
+ * constant pool of the compiled program.
+ *
+ * Opcodes associated to a Logo keyword can be written in a source file,
+ * while the LOOP opcode is an internal instruction used by the compiler to
+ * close the body of a RIPETI command.
+ */
+
+public enum Opcode {
+
+    FORWARD("FORWARD", 1),
+    BACK("BACK", 1),
+    RIGHT("RIGHT", 1),
+    LEFT("LEFT", 1),
+    SETPENSIZE("SETPENSIZE", 1),
+    SETPENCOLOR("SETPENCOLOR", 1),
+    SETFILLCOLOR("SETFILLCOLOR", 1),
+    SETSCREENCOLOR("SETSCREENCOLOR", 1),
+    CLEARSCREEN("CLEARSCREEN", 0),
+    HOME("HOME", 0),
+    PENUP("PENUP", 0),
+    PENDOWN("PENDOWN", 0),
+    REPEAT("RIPETI", 2),
+    LOOP(null, 1);
+
+    private static final Opcode[] OPCODES = values();
+
+    private static final Map<String, Opcode> KEYWORDS = Arrays.stream(OPCODES)
+            .filter(o -> Objects.nonNull(o.keyword))
+            .collect(Collectors.toUnmodifiableMap(o -> o.keyword, Function.identity()));
+
+    private final String keyword;
+    private final int operands;
+
+    Opcode(String keyword, int operands) {
+        this.keyword = keyword;
+        this.operands = operands;
+    }
+
+    /**
+     * Returns the Logo keyword associated to this opcode, or null
+     * if this opcode is an internal instruction.
+     * @return Logo keyword of this opcode, or null
+     */
+    public String keyword() {
+        return keyword;
+    }
+
+    /**
+     * Returns the number of integer operands which follow
+     * this opcode in the code of a compiled program.
+     * @return number of operands of this opcode
+     */
+    public int operands() {
+        return operands;
+    }
+
+    /**
+     * Returns the opcode associated to the given ordinal.
+     * @param ordinal ordinal of the opcode
+     * @return opcode associated to the given ordinal
+     * @throws ArrayIndexOutOfBoundsException if the ordinal is not valid
+     */
+    public static Opcode of(int ordinal) {
+        return OPCODES[ordinal];
+    }
+
+    /**
+     * Returns the opcode associated to the given Logo keyword.
+     * @param keyword Logo keyword
+     * @return opcode associated to the keyword, or null if there is no such opcode
+     */
+    public static Opcode of(String keyword) {
+        return KEYWORDS.get(Objects.requireNonNull(keyword));
+    }
+}
@@ -0,0 +1,168 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Samuele Stronati, Università di Camerino.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * Contributors:
+ *     Samuele Stronati - initial API and implementation
+ *******************************************************************************/
+
+package it.pa.unicam.stronatisamuele115894.program;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * This class implements a recursive-descent parser for Logo programs,
+ * which builds the abstract syntax tree of a program from the tokens
+ * returned by a Lexer. The grammar of a program is the following:
+ *
+ * program   := statement* EOF
+ * statement := 'RIPETI' NUMBER block | KEYWORD NUMBER*
+ * block     := '[' statement* ']'
+ *
+ * where the number of arguments of a command depends on its keyword.
+ * As in the line-based format of Logo files, a line of the program
+ * which doesn't start with a known command is ignored, as long as it
+ * is not inside a block.
+ */
+
+public class Parser {
+
+    private final Lexer lexer;
+    private Token current;
+
+    /**
+     * Constructs a parser which reads the tokens of the given lexer.
+     * @param lexer lexer of the Logo source
+     * @throws NullPointerException if the given lexer is null
+     */
+    public Parser(Lexer lexer) {
+        this.lexer = Objects.requireNonNull(lexer);
+        this.current = lexer.next();
+    }
+
+    /**
+     * Constructs a parser of the given Logo source.
+     * @param source Logo source
+     * @throws NullPointerException if the given source is null
+     */
+    public Parser(CharSequence source) {
+        this(new Lexer(source));
+    }
+
+    /**
+     * Parses a whole program.
+     * @return list of the top-level statements of the program
+     * @throws IllegalArgumentException if the program has a syntax error
+     */
+    public List<Statement> parseProgram() {
+        List<Statement> statements = new ArrayList<>();
+        while (current.type() != Token.Type.EOF) {
+            if (isKeyword(current))
+                statements.add(parseStatement());
+            else
+                skipLine();
+        }
+        return statements;
+    }
+
+    /**
+     * Parses a source made up of a single block of statements,
+     * written between square brackets.
+     * @return list of the statements inside the block
+     * @throws IllegalArgumentException if the block has a syntax error
+     */
+    public List<Statement> parseBlock() {
+        List<Statement> statements = block();
+        expect(Token.Type.EOF);
+        return statements;
+    }
+
+    private Statement parseStatement() {
+        Token keyword = expect(Token.Type.WORD);
+        Opcode opcode = Opcode.of(keyword.text());
+        if (!isKeyword(keyword))
+            throw error(keyword, "unknown command");
+        if (opcode == Opcode.REPEAT)
+            return new Repeat(number(), block(), keyword.line(), keyword.column());
+        List<Integer> arguments = new ArrayList<>(opcode.operands());
+        for (int i = 0; i < arity(opcode); i++)
+            arguments.add(number());
+        return new Command(opcode, arguments, keyword.line(), keyword.column());
+    }
+
+    private List<Statement> block() {
+        expect(Token.Type.OPEN_BRACKET);
+        List<Statement> statements = new ArrayList<>();
+        while (current.type() != Token.Type.CLOSE_BRACKET) {
+            if (current.type() == Token.Type.EOF)
+                throw error(current, "missing ']'");
+            statements.add(parseStatement());
+        }
+        advance();
+        return statements;
+    }
+
+    private int number() {
+        Token token = expect(Token.Type.NUMBER);
+        try {
+            return Integer.parseInt(token.text());
+        } catch (NumberFormatException e) {
+            throw error(token, "number out of range");
+        }
+    }
+
+    private Token expect(Token.Type type) {
+        if (current.type() != type)
+            throw error(current, String.format("%s expected", type.toString().toLowerCase().replace('_', ' ')));
+        return advance();
+    }
+
+    private Token advance() {
+        Token token = current;
+        current = lexer.next();
+        return token;
+    }
+
+    private void skipLine() {
+        int line = current.line();
+        while (current.type() != Token.Type.EOF && current.line() == line)
+            advance();
+    }
+
+    private static boolean isKeyword(Token token) {
+        return token.type() == Token.Type.WORD && Objects.nonNull(Opcode.of(token.text()));
+    }
+
+    private static int arity(Opcode opcode) {
+        return switch (opcode) {
+            case SETPENCOLOR, SETFILLCOLOR, SETSCREENCOLOR -> 3;
+            default -> opcode.operands();
+        };
+    }
+
+    private static IllegalArgumentException error(Token token, String message) {
+        return new IllegalArgumentException(String.format("Syntax error: %s, found %s", message,
+                (token.type() == Token.Type.EOF)
+                        ? String.format("end of program at line %d, column %d", token.line(), token.column())
+                        : token));
+    }
+}
@@ -0,0 +1,364 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Samuele Stronati, Università di Camerino.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * Contributors:
+ *     Samuele Stronati - initial API and implementation
+ *******************************************************************************/
+package it.pa.unicam.stronatisamuele115894.program;
+
+import it.pa.unicam.stronatisamuele115894.model.Field;
+import it.pa.unicam.stronatisamuele115894.model.Position;
+import it.pa.unicam.stronatisamuele115894.model.Turtle;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * This class implements a peephole optimizer for Logo programs. The optimizer
+ * rewrites a program into a shorter one, which draws exactly the same field
+ * and leaves the turtle in exactly the same state. The following rewritings
+ * are applied, until none of them changes the program anymore:
+ * <ul>
+ *     <li>RIPETI statements repeated once are inlined, while those repeated
+ *     zero times, or having an empty body, are removed;</li>
+ *     <li>screen colors which are wiped out by a later CLEARSCREEN are removed,
+ *     and so are the moves wiped out by it, if they provably keep the turtle
+ *     within the field, while a wiped out HOME is replaced by a PENDOWN;</li>
+ *     <li>pen sizes, colors and pen states which are overwritten before being
+ *     used are removed;</li>
+ *     <li>consecutive rotations towards the same side are folded into a single
+ *     one, and rotations of zero degrees are removed;</li>
+ *     <li>consecutive moves towards the same side are merged into a single one,
+ *     if the pen is known to be up and the direction of the turtle is known to
+ *     be a multiple of 90 degrees, so that no rounding of the position can change.</li>
+ * </ul>
+ * A rewritten program throws an exception exactly where the original one would.
+ * Whether a move keeps the turtle within the field can only be proved when the
+ * turtle executing the program is known: in that case, the distance the turtle can
+ * travel from its last known position is bounded by the sum of the lengths of the
+ * moves made since then, and a wiped out move is only removed if the field contains
+ * every position within that distance, and no later move up to the CLEARSCREEN is kept.
+ */
+
+public class PeepholeOptimizer {
+
+    private enum Register { PENSIZE, STROKE, PLOT, FILL, SCREEN }
+
+    private static final Set<Register> MOVE_READS = EnumSet.of(Register.PENSIZE, Register.STROKE, Register.FILL);
+    private static final Set<Register> HOME_READS = EnumSet.complementOf(EnumSet.of(Register.SCREEN));
+    private static final Set<Register> PLOT_WRITES = EnumSet.of(Register.STROKE, Register.PLOT);
+
+    private final ProgramCompiler compiler;
+
+    /**
+     * Constructs a peephole optimizer.
+     */
+    public PeepholeOptimizer() {
+        compiler = new ProgramCompiler();
+    }
+
+    /**
+     * Optimizes the given program, without any assumption about the turtle executing it.
+     * @param program program to be optimized
+     * @return the optimized program
+     * @throws NullPointerException if the given program is null
+     */
+    public Program optimize(Program program) {
+        return compiler.compile(optimize(Objects.requireNonNull(program).toStatements()));
+    }
+
+    /**
+     * Optimizes the given program, which is going to be executed by the given turtle
+     * in its current state.
+     * @param program program to be optimized
+     * @param turtle turtle which executes the program
+     * @return the optimized program
+     * @throws NullPointerException if the given program or turtle is null
+     */
+    public Program optimize(Program program, Turtle turtle) {
+        List<Statement> statements = Objects.requireNonNull(program).toStatements();
+        return compiler.compile(optimizeBlock(statements, turtle.getDirection(), Objects.isNull(turtle.getStroke()),
+                turtle.getPosition(), turtle.getField()));
+    }
+
+    /**
+     * Optimizes the given statements, without any assumption about the turtle executing them.
+     * @param statements top-level statements of a program
+     * @return the optimized statements
+     * @throws NullPointerException if the given list is null
+     */
+    public List<Statement> optimize(List<Statement> statements) {
+        return optimizeBlock(Objects.requireNonNull(statements), null, null, null, null);
+    }
+
+    /*
+     * The start position and the field are null when the turtle executing the block is not known.
+     */
+    private List<Statement> optimizeBlock(List<Statement> block, Integer direction, Boolean penUp,
+                                          Position start, Field field) {
+        List<Statement> result = optimizeLoops(block);
+        List<Statement> previous;
+        do {
+            previous = result;
+            result = removeWipedDrawing(result, staysWithinField(result, start, field));
+            result = removeDeadStores(result);
+            result = foldMoves(result, direction, penUp);
+        } while (!result.equals(previous));
+        return result;
+    }
+
+    private List<Statement> optimizeLoops(List<Statement> block) {
+        List<Statement> result = new ArrayList<>(block.size());
+        for (Statement statement : block) {
+            if (!(statement instanceof Repeat repeat))
+                result.add(statement);
+            else if (repeat.times() == 1)
+                result.addAll(optimizeLoops(repeat.body()));
+            else if (repeat.times() > 1) {
+                List<Statement> body = optimizeBlock(repeat.body(), null, null, null, null);
+                if (!body.isEmpty())
+                    result.add(new Repeat(repeat.times(), body, repeat.line(), repeat.column()));
+            }
+        }
+        return result;
+    }
+
+    /*
+     * A wiped out move is removed only if it stays within the field. Once a wiped out
+     * move is kept, no earlier move or HOME is removed or replaced, since the position
+     * of the turtle when the kept move is executed must not change.
+     */
+    private List<Statement> removeWipedDrawing(List<Statement> block, boolean[] withinField) {
+        List<Statement> result = new ArrayList<>(block.size());
+        boolean wiped = false;
+        boolean moves = false;
+        for (int i = block.size() - 1; i >= 0; i--) {
+            Statement statement = block.get(i);
+            if (statement instanceof Repeat repeat) {
+                if (wiped && isDrawingOnly(repeat.body())
+                        && (!hasMoves(repeat.body()) || (moves && withinField[i])))
+                    continue;
+                wiped &= !hasMoves(repeat.body());
+            } else {
+                Command command = (Command) statement;
+                switch (command.opcode()) {
+                    case CLEARSCREEN -> wiped = moves = true;
+                    case SETSCREENCOLOR -> {
+                        if (wiped)
+                            continue;
+                    }
+                    case FORWARD, BACK -> {
+                        if (wiped && moves && withinField[i])
+                            continue;
+                        moves &= !wiped;
+                    }
+                    case HOME -> {
+                        if (wiped && moves)
+                            statement = new Command(Opcode.PENDOWN, List.of(), command.line(), command.column());
+                    }
+                    default -> { }
+                }
+            }
+            result.add(statement);
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    /*
+     * Returns, for every statement of the block, whether the turtle is provably within
+     * the field after it. The turtle is within the given distance from its anchor, which
+     * is its start position or the center of the field after a HOME or a CLEARSCREEN.
+     * Every move adds one to the distance, which covers the rounding of the position.
+     */
+    private boolean[] staysWithinField(List<Statement> block, Position start, Field field) {
+        boolean[] within = new boolean[block.size()];
+        if (Objects.isNull(start) || Objects.isNull(field))
+            return within;
+        double x = start.x();
+        double y = start.y();
+        double distance = 0;
+        for (int i = 0; i < block.size(); i++) {
+            Statement statement = block.get(i);
+            if (statement instanceof Repeat repeat)
+                distance += repeat.times() * travel(repeat.body());
+            else switch (((Command) statement).opcode()) {
+                case FORWARD, BACK -> distance += Math.abs((double) ((Command) statement).arguments().get(0)) + 1;
+                case HOME, CLEARSCREEN -> {
+                    x = field.getWidth() / 2;
+                    y = field.getHeight() / 2;
+                    distance = 0;
+                }
+                default -> { }
+            }
+            within[i] = x - distance >= 0 && x + distance <= field.getWidth()
+                    && y - distance >= 0 && y + distance <= field.getHeight();
+        }
+        return within;
+    }
+
+    /*
+     * Returns a bound of the distance travelled by one execution of the given body,
+     * which is infinite if the body moves the turtle back to the center of the field.
+     */
+    private double travel(List<Statement> body) {
+        double distance = 0;
+        for (Statement statement : body) {
+            if (statement instanceof Repeat repeat)
+                distance += repeat.times() * travel(repeat.body());
+            else switch (((Command) statement).opcode()) {
+                case FORWARD, BACK -> distance += Math.abs((double) ((Command) statement).arguments().get(0)) + 1;
+                case HOME, CLEARSCREEN -> distance = Double.POSITIVE_INFINITY;
+                default -> { }
+            }
+        }
+        return distance;
+    }
+
+    private boolean isDrawingOnly(List<Statement> body) {
+        for (Statement statement : body) {
+            if (statement instanceof Repeat repeat) {
+                if (!isDrawingOnly(repeat.body()))
+                    return false;
+            } else switch (((Command) statement).opcode()) {
+                case FORWARD, BACK, SETSCREENCOLOR -> { }
+                default -> {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean hasMoves(List<Statement> body) {
+        for (Statement statement : body) {
+            if (statement instanceof Repeat repeat) {
+                if (hasMoves(repeat.body()))
+                    return true;
+            } else switch (((Command) statement).opcode()) {
+                case FORWARD, BACK, HOME -> {
+                    return true;
+                }
+                default -> { }
+            }
+        }
+        return false;
+    }
+
+    private List<Statement> removeDeadStores(List<Statement> block) {
+        List<Statement> result = new ArrayList<>(block.size());
+        Set<Register> overwritten = EnumSet.noneOf(Register.class);
+        for (int i = block.size() - 1; i >= 0; i--) {
+            Statement statement = block.get(i);
+            if (statement instanceof Repeat) {
+                overwritten.clear();
+                result.add(statement);
+                continue;
+            }
+            Set<Register> writes = switch (((Command) statement).opcode()) {
+                case SETPENSIZE -> EnumSet.of(Register.PENSIZE);
+                case SETPENCOLOR -> EnumSet.of(Register.STROKE);
+                case SETFILLCOLOR -> EnumSet.of(Register.FILL);
+                case SETSCREENCOLOR -> EnumSet.of(Register.SCREEN);
+                case PENUP, PENDOWN -> PLOT_WRITES;
+                default -> Set.of();
+            };
+            if (!writes.isEmpty() && overwritten.containsAll(writes))
+                continue;
+            overwritten.addAll(writes);
+            switch (((Command) statement).opcode()) {
+                case FORWARD, BACK -> overwritten.removeAll(MOVE_READS);
+                case HOME -> overwritten.removeAll(HOME_READS);
+                case CLEARSCREEN -> overwritten.add(Register.SCREEN);
+                default -> { }
+            }
+            result.add(statement);
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    private List<Statement> foldMoves(List<Statement> block, Integer direction, Boolean penUp) {
+        List<Statement> result = new ArrayList<>(block.size());
+        for (Statement statement : block) {
+            if (statement instanceof Repeat) {
+                direction = null;
+                penUp = null;
+                result.add(statement);
+                continue;
+            }
+            Command command = (Command) statement;
+            Command last = result.isEmpty() || result.get(result.size() - 1) instanceof Repeat
+                    ? null : (Command) result.get(result.size() - 1);
+            switch (command.opcode()) {
+                case RIGHT, LEFT -> {
+                    int degrees = command.arguments().get(0);
+                    if (degrees == 0)
+                        continue;
+                    if (Objects.nonNull(direction))
+                        direction = (command.opcode() == Opcode.RIGHT ? direction - degrees : direction + degrees) % 360;
+                    Command folded = fold(last, command, Opcode.LEFT, Opcode.RIGHT);
+                    if (Objects.nonNull(folded)) {
+                        result.set(result.size() - 1, folded);
+                        continue;
+                    }
+                }
+                case FORWARD, BACK -> {
+                    boolean exact = Boolean.TRUE.equals(penUp) && Objects.nonNull(direction) && direction % 90 == 0;
+                    Command merged = exact ? fold(last, command, Opcode.FORWARD, Opcode.BACK) : null;
+                    if (Objects.nonNull(merged)) {
+                        result.set(result.size() - 1, merged);
+                        continue;
+                    }
+                }
+                case PENUP -> penUp = true;
+                case PENDOWN, HOME, SETPENCOLOR -> penUp = false;
+                default -> { }
+            }
+            result.add(command);
+        }
+        return result;
+    }
+
+    /*
+     * Folds two consecutive commands, each one being either the positive or the negative
+     * opcode, into a single one, if both of them move the turtle towards the same side.
+     * Returns null if they cannot be folded.
+     */
+    private Command fold(Command last, Command command, Opcode positive, Opcode negative) {
+        if (Objects.isNull(last) || (last.opcode() != positive && last.opcode() != negative))
+            return null;
+        long previous = signedArgument(last, positive);
+        long current = signedArgument(command, positive);
+        long sum = previous + current;
+        if (previous == 0 || Long.signum(previous) != Long.signum(current) || Math.abs(sum) > Integer.MAX_VALUE - 360)
+            return null;
+        return new Command(sum > 0 ? positive : negative, List.of((int) Math.abs(sum)), last.line(), last.column());
+    }
+
+    private long signedArgument(Command command, Opcode positive) {
+        long argument = command.arguments().get(0);
+        return command.opcode() == positive ? argument : -argument;
+    }
+}
@@ -0,0 +1,237 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Samuele Stronati, Università di Camerino.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * Contributors:
+ *     Samuele Stronati - initial API and implementation
+ *******************************************************************************/
+
+package it.pa.unicam.stronatisamuele115894.program;
+
+import it.pa.unicam.stronatisamuele115894.model.RGBColor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * This class represents an immutable compiled Logo program. The program is
+ * stored as a compact array of integers, where every instruction is made up of
+ * the ordinal of its Opcode followed by its pre-decoded integer operands. Colors
+ * are stored once in a constant pool, and instructions refer to them through
+ * their index in the pool. This means that a program can be executed as many times
+ * as needed, without any string being parsed or any argument being boxed.
+ */
+
+public final class Program {
+
+    private final int[] code;
+    private final RGBColor[] constants;
+
+    /**
+     * Constructs a compiled program from its code and its constant pool.
+     * Both arrays are copied, so that the program stays immutable.
+     * @param code code of the program
+     * @param constants constant pool of the program
+     * @throws NullPointerException if code or constants is null
+     */
+    public Program(int[] code, RGBColor[] constants) {
+        this.code = Arrays.copyOf(Objects.requireNonNull(code), code.length);
+        this.constants = Arrays.copyOf(Objects.requireNonNull(constants), constants.length);
+    }
+
+    /**
+     * Returns the length of the code of this program.
+     * @return length of the code of this program
+     */
+    public int size() {
+        return code.length;
+    }
+
+    /**
+     * Returns true if this program has no instruction.
+     * @return true if this program has no instruction, false otherwise
+     */
+    public boolean isEmpty() {
+        return code.length == 0;
+    }
+
+    /**
+     * Returns the ordinal of the opcode of the instruction at the given address.
+     * @param pc address of the instruction
+     * @return ordinal of the opcode
+     */
+    public int opcode(int pc) {
+        return code[pc];
+    }
+
+    /**
+     * Returns the operand at the given index of the instruction at the given address.
+     * @param pc address of the instruction
+     * @param index index of the operand
+     * @return value of the operand
+     */
+    public int operand(int pc, int index) {
+        return code[pc + 1 + index];
+    }
+
+    /**
+     * Returns the color stored in the constant pool at the given index.
+     * @param index index in the constant pool
+     * @return color stored at the given index
+     */
+    public RGBColor constant(int index) {
+        return constants[index];
+    }
+
+    /**
+     * Returns the number of colors stored in the constant pool.
+     * @return size of the constant pool
+     */
+    public int constants() {
+        return constants.length;
+    }
+
+    /**
+     * Returns the address of the instruction which follows the
+     * one at the given address.
+     * @param pc address of the instruction
+     * @return address of the next instruction
+     */
+    public int next(int pc) {
+        return pc + 1 + Opcode.of(code[pc]).operands();
+    }
+
+    /**
+     * Returns the source representation of the instruction at the given
+     * address. The body of a RIPETI instruction is written between square
+     * brackets.
+     * @param pc address of the instruction
+     * @return source representation of the instruction
+     */
+    public String instructionString(int pc) {
+        StringBuilder sb = new StringBuilder();
+        appendInstruction(sb, pc);
+        return sb.toString();
+    }
+
+    private int appendInstruction(StringBuilder sb, int pc) {
+        Opcode opcode = Opcode.of(code[pc]);
+        sb.append(opcode.keyword());
+        switch (opcode) {
+            case SETPENCOLOR, SETFILLCOLOR, SETSCREENCOLOR -> {
+                RGBColor color = constant(operand(pc, 0));
+                sb.append(' ').append(color.red())
+                        .append(' ').append(color.green())
+                        .append(' ').append(color.blue());
+            }
+            case REPEAT -> {
+                sb.append(' ').append(operand(pc, 0)).append(" [");
+                int end = operand(pc, 1);
+                for (int i = next(pc); Opcode.of(code[i]) != Opcode.LOOP; ) {
+                    if (i != next(pc))
+                        sb.append(' ');
+                    i = appendInstruction(sb, i);
+                }
+                sb.append(']');
+                return end;
+            }
+            default -> {
+                for (int i = 0; i < opcode.operands(); i++)
+                    sb.append(' ').append(operand(pc, i));
+            }
+        }
+        return next(pc);
+    }
+
+    /**
+     * Decodes this program back into the statements of an abstract syntax
+     * tree. Since a compiled program keeps no position of its statements,
+     * every decoded statement is placed at line 0, column 0.
+     * @return top-level statements of this program
+     */
+    public List<Statement> toStatements() {
+        List<Statement> statements = new ArrayList<>();
+        decode(0, code.length, statements);
+        return statements;
+    }
+
+    private void decode(int pc, int end, List<Statement> statements) {
+        while (pc < end) {
+            Opcode opcode = Opcode.of(code[pc]);
+            switch (opcode) {
+                case REPEAT -> {
+                    List<Statement> body = new ArrayList<>();
+                    int exit = operand(pc, 1);
+                    decode(next(pc), exit - 1 - Opcode.LOOP.operands(), body);
+                    statements.add(new Repeat(operand(pc, 0), body, 0, 0));
+                    pc = exit;
+                    continue;
+                }
+                case SETPENCOLOR, SETFILLCOLOR, SETSCREENCOLOR -> {
+                    RGBColor color = constant(operand(pc, 0));
+                    statements.add(new Command(opcode, List.of(color.red(), color.green(), color.blue()), 0, 0));
+                }
+                default -> {
+                    List<Integer> arguments = new ArrayList<>(opcode.operands());
+                    for (int i = 0; i < opcode.operands(); i++)
+                        arguments.add(operand(pc, i));
+                    statements.add(new Command(opcode, arguments, 0, 0));
+                }
+            }
+            pc = next(pc);
+        }
+    }
+
+    /**
+     * Returns true if the given object is a program made up of the same
+     * code and the same constant pool of this program.
+     * @param o object to be compared with this program
+     * @return true if the given object is an equal program, false otherwise
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof Program other))
+            return false;
+        return Arrays.equals(code, other.code) && Arrays.equals(constants, other.constants);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(code) + Arrays.hashCode(constants);
+    }
+
+    /**
+     * Returns the source representation of this whole program,
+     * one instruction per line.
+     * @return source representation of this program
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int pc = 0; pc < code.length; ) {
+            pc = appendInstruction(sb, pc);
+            sb.append(String.format("%n"));
+        }
+        return sb.toString();
+    }
+}
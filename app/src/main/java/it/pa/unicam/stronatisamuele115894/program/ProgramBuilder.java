@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Samuele Stronati, Università di Camerino.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * Contributors:
+ *     Samuele Stronati - initial API and implementation
+ *******************************************************************************/
+
+package it.pa.unicam.stronatisamuele115894.program;
+
+import it.pa.unicam.stronatisamuele115894.model.RGBColor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * This class is used to build a Program instance, one instruction at a time.
+ * Colors added to the constant pool are stored only once, so that every
+ * instruction using the same color refers to the same pool index.
+ */
+
+public final class ProgramBuilder {
+
+    private int[] code;
+    private int size;
+    private final List<RGBColor> constants;
+    private final Map<RGBColor, Integer> constantIndexes;
+
+    /**
+     * Constructs an empty ProgramBuilder.
+     */
+    public ProgramBuilder() {
+        this.code = new int[16];
+        this.size = 0;
+        this.constants = new ArrayList<>();
+        this.constantIndexes = new HashMap<>();
+    }
+
+    /**
+     * Appends an instruction to the program being built.
+     * @param opcode opcode of the instruction
+     * @param operands integer operands of the instruction
+     * @return address of the appended instruction
+     * @throws IllegalArgumentException if the number of operands doesn't match the opcode
+     */
+    public int emit(Opcode opcode, int... operands) {
+        if (Objects.requireNonNull(opcode).operands() != operands.length)
+            throw new IllegalArgumentException(
+                    String.format("%s instruction needs %d operands!", opcode, opcode.operands()));
+        ensureCapacity(size + 1 + operands.length);
+        int address = size;
+        code[size++] = opcode.ordinal();
+        for (int operand : operands)
+            code[size++] = operand;
+        return address;
+    }
+
+    /**
+     * Adds the given color to the constant pool, if it is not already there.
+     * @param color color to be added
+     * @return index of the color in the constant pool
+     */
+    public int constant(RGBColor color) {
+        return constantIndexes.computeIfAbsent(Objects.requireNonNull(color), c -> {
+            constants.add(c);
+            return constants.size() - 1;
+        });
+    }
+
+    /**
+     * Overwrites the value stored at the given address of the code.
+     * It is used to fill in jump addresses which are not known
+     * when the instruction is emitted.
+     * @param address address of the code
+     * @param value new value
+     * @throws IndexOutOfBoundsException if the address has not been emitted yet
+     */
+    public void patch(int address, int value) {
+        Objects.checkIndex(address, size);
+        code[address] = value;
+    }
+
+    /**
+     * Returns the current length of the code being built,
+     * which is the address of the next emitted instruction.
+     * @return current length of the code
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Builds the Program instance.
+     * @return the compiled program
+     */
+    public Program build() {
+        return new Program(Arrays.copyOf(code, size), constants.toArray(new RGBColor[0]));
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > code.length)
+            code = Arrays.copyOf(code, Math.max(capacity, code.length * 2));
+    }
+}
@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Samuele Stronati, Università di Camerino.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * Contributors:
+ *     Samuele Stronati - initial API and implementation
+ *******************************************************************************/
+
+package it.pa.unicam.stronatisamuele115894.program;
+
+import it.pa.unicam.stronatisamuele115894.model.RGBColor;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * This class compiles a Logo program into a Program instance. Every statement
+ * of the abstract syntax tree is resolved to its Opcode, and its arguments are
+ * stored as integers or as indexes of the constant pool. The body of a RIPETI
+ * statement is compiled only once, and it is closed by a LOOP instruction which
+ * jumps back to the beginning of the body.
+ */
+
+public class ProgramCompiler {
+
+    /**
+     * Compiles the given statements.
+     * @param statements top-level statements of a program
+     * @return the compiled program
+     * @throws NullPointerException if the given list is null
+     */
+    public Program compile(List<Statement> statements) {
+        ProgramBuilder builder = new ProgramBuilder();
+        Objects.requireNonNull(statements).forEach(s -> compileStatement(builder, s));
+        return builder.build();
+    }
+
+    /**
+     * Parses and compiles the given Logo source.
+     * @param source Logo source
+     * @return the compiled program
+     * @throws IllegalArgumentException if the source has a syntax error
+     * @throws NullPointerException if the given source is null
+     */
+    public Program compile(CharSequence source) {
+        return compile(new Parser(source).parseProgram());
+    }
+
+    /**
+     * Compiles a tokenized program. Every element of the given list is
+     * made up of a command string followed by its arguments.
+     * @param tokenizedProgram tokenized program
+     * @return the compiled program
+     * @throws IllegalArgumentException if a command is unknown or its arguments are not valid
+     * @throws NullPointerException if the given program is null
+     */
+    public Program compileTokens(List<List<String>> tokenizedProgram) {
+        StringBuilder source = new StringBuilder();
+        for (List<String> command : Objects.requireNonNull(tokenizedProgram)) {
+            if (Objects.isNull(Opcode.of(command.get(0))))
+                throw new IllegalArgumentException(String.format("Unknown command '%s'!", command.get(0)));
+            source.append(String.join(" ", command)).append('\n');
+        }
+        return compile(source);
+    }
+
+    private void compileStatement(ProgramBuilder builder, Statement statement) {
+        if (statement instanceof Repeat repeat)
+            compileRepeat(builder, repeat);
+        else
+            compileCommand(builder, (Command) statement);
+    }
+
+    private void compileCommand(ProgramBuilder builder, Command command) {
+        List<Integer> args = command.arguments();
+        switch (command.opcode()) {
+            case SETPENCOLOR, SETFILLCOLOR, SETSCREENCOLOR ->
+                    builder.emit(command.opcode(), builder.constant(RGBColor.create(args)));
+            case FORWARD, BACK, RIGHT, LEFT, SETPENSIZE ->
+                    builder.emit(command.opcode(), args.get(0));
+            default -> builder.emit(command.opcode());
+        }
+    }
+
+    private void compileRepeat(ProgramBuilder builder, Repeat repeat) {
+        int start = builder.emit(Opcode.REPEAT, repeat.times(), 0);
+        int body = builder.size();
+        repeat.body().forEach(s -> compileStatement(builder, s));
+        builder.emit(Opcode.LOOP, body);
+        builder.patch(start + 2, builder.size());
+    }
+}
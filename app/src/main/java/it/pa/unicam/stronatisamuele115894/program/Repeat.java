@@ -0,0 +1,58 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Samuele Stronati, Università di Camerino.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * Contributors:
+ *     Samuele Stronati - initial API and implementation
+ *******************************************************************************/
+
+package it.pa.unicam.stronatisamuele115894.program;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * This record represents a RIPETI statement, which repeats the
+ * statements of its body a given number of times. The body may
+ * contain other RIPETI statements.
+ *
+ * @param times number of repetitions;
+ * @param body statements to be repeated;
+ * @param line line of the statement, starting from 1;
+ * @param column column of the statement, starting from 1.
+ */
+
+public record Repeat(int times, List<Statement> body, int line, int column) implements Statement {
+
+    /**
+     * Constructs a RIPETI statement.
+     *
+     * @throws NullPointerException if body is null
+     */
+    public Repeat {
+        body = List.copyOf(body);
+    }
+
+    @Override
+    public List<String> tokens() {
+        return List.of(Opcode.REPEAT.keyword(), String.valueOf(times),
+                body.stream().map(Statement::source).collect(Collectors.joining(" ", "[", "]")));
+    }
+}
@@ -0,0 +1,65 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Samuele Stronati, Università di Camerino.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * Contributors:
+ *     Samuele Stronati - initial API and implementation
+ *******************************************************************************/
+
+package it.pa.unicam.stronatisamuele115894.program;
+
+import java.util.List;
+
+/**
+ * This interface represents a statement of the abstract syntax tree of
+ * a Logo program. Every statement keeps the position of its keyword in
+ * the source, so that errors can be reported to the user.
+ */
+
+public sealed interface Statement permits Command, Repeat {
+
+    /**
+     * Line of the keyword of this statement, starting from 1.
+     * @return line of this statement
+     */
+    int line();
+
+    /**
+     * Column of the keyword of this statement, starting from 1.
+     * @return column of this statement
+     */
+    int column();
+
+    /**
+     * Returns this statement as a list made up of its command string
+     * followed by its arguments. The body of a RIPETI statement is
+     * returned as a single argument, written between square brackets.
+     * @return string tokens of this statement
+     */
+    List<String> tokens();
+
+    /**
+     * Returns the source representation of this statement.
+     * @return source representation of this statement
+     */
+    default String source() {
+        return String.join(" ", tokens());
+    }
+}
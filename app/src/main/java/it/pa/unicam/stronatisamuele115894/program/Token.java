@@ -0,0 +1,72 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Samuele Stronati, Università di Camerino.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * Contributors:
+ *     Samuele Stronati - initial API and implementation
+ *******************************************************************************/
+
+package it.pa.unicam.stronatisamuele115894.program;
+
+import java.util.Objects;
+
+/**
+ * This record represents a token of a Logo source, together with
+ * the position of its first character in the source itself.
+ *
+ * @param type type of the token;
+ * @param text text of the token;
+ * @param line line of the token, starting from 1;
+ * @param column column of the token, starting from 1.
+ */
+
+public record Token(Type type, String text, int line, int column) {
+
+    /**
+     * Types of the tokens of a Logo source.
+     */
+    public enum Type {
+        WORD,
+        NUMBER,
+        OPEN_BRACKET,
+        CLOSE_BRACKET,
+        EOF
+    }
+
+    /**
+     * Constructs a token of a Logo source.
+     *
+     * @throws NullPointerException if type or text is null
+     */
+    public Token {
+        Objects.requireNonNull(type);
+        Objects.requireNonNull(text);
+    }
+
+    /**
+     * Returns the string representation of this token, made up of its text
+     * and its position in the source.
+     * @return string representation of this token
+     */
+    @Override
+    public String toString() {
+        return String.format("'%s' at line %d, column %d", text, line, column);
+    }
+}
@@ -1,4 +0,0 @@
-package it.pa.unicam.stronatisamuele115894.utils;
-
-public @interface InjTurtle {
-}
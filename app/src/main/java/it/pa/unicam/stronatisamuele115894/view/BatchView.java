@@ -0,0 +1,238 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Samuele Stronati, Università di Camerino.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * Contributors:
+ *     Samuele Stronati - initial API and implementation
+ *******************************************************************************/
+package it.pa.unicam.stronatisamuele115894.view;
+
+import it.pa.unicam.stronatisamuele115894.controller.SessionController;
+import it.pa.unicam.stronatisamuele115894.controller.SessionInjector;
+import it.pa.unicam.stronatisamuele115894.controller.SessionPool;
+import it.pa.unicam.stronatisamuele115894.model.Turtle;
+import it.pa.unicam.stronatisamuele115894.io.DefaultFileSystemEngine;
+import it.pa.unicam.stronatisamuele115894.io.FileSystemEngine;
+
+import java.io.*;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * This class implements a non-interactive view, which renders a whole set of
+ * '.logo' programs. The programs are either all the '.logo' files in a directory
+ * tree, or the files matching a glob pattern, such as "programs/**.logo".
+ *
+ * Every program is run in its own session, on a pool with a fixed number of workers,
+ * where the sessions are taken from a SessionPool and reset after each program. The
+ * output of a program is saved in the output directory as a '.logores' file, at the
+ * same relative path which the program has in the input directory. When every program
+ * has been run, a report with the outcome and the time of each program is saved in the
+ * output directory, as a tab-separated file.
+ */
+
+public class BatchView implements View {
+
+    /**
+     * Name of the report saved in the output directory.
+     */
+    public static final String REPORT = "batch-report.tsv";
+
+    /**
+     * Usage of the batch session from the command line.
+     */
+    public static final String USAGE = "Usage: BATCH <input directory or glob> <output directory> [workers]";
+
+    private static final double DEFAULT_FIELD_SIZE = 200;
+
+    private static final String GLOB_CHARACTERS = "*?[{";
+
+    private final String input;
+    private final Path outputDirectory;
+    private final int workers;
+    private final OutputStream out;
+
+    /**
+     * Outcome of the rendering of a program.
+     * @param program path of the program
+     * @param output path of the saved output, or null if the rendering failed
+     * @param nanos time spent rendering the program, in nanoseconds
+     * @param error description of the failure, or null if the rendering succeeded
+     */
+    public record Result(Path program, Path output, long nanos, String error) {
+
+        /**
+         * Returns true if the program has been rendered and saved.
+         * @return true if the rendering succeeded, false otherwise
+         */
+        public boolean succeeded() {
+            return Objects.isNull(error);
+        }
+    }
+
+    /**
+     * Constructs a batch view which renders the programs found through the given input
+     * into the given output directory, with the given number of workers.
+     * @param input directory, or glob pattern, of the programs
+     * @param outputDirectory directory of the outputs and of the report
+     * @param workers number of programs rendered at the same time
+     * @param out destination of the messages of the view
+     * @throws IllegalArgumentException if the number of workers is not positive
+     */
+    public BatchView(String input, Path outputDirectory, int workers, OutputStream out) {
+        if (workers <= 0)
+            throw new IllegalArgumentException("A batch needs at least one worker!");
+        this.input = Objects.requireNonNull(input);
+        this.outputDirectory = Objects.requireNonNull(outputDirectory);
+        this.workers = workers;
+        this.out = Objects.requireNonNull(out);
+    }
+
+    public BatchView(String input, Path outputDirectory, int workers) {
+        this(input, outputDirectory, workers, System.out);
+    }
+
+    public BatchView(String input, Path outputDirectory) {
+        this(input, outputDirectory, Runtime.getRuntime().availableProcessors());
+    }
+
+    @Override
+    public void open() throws IOException {
+        render();
+    }
+
+    /**
+     * Renders every program, saves the report and returns the outcome of every program,
+     * in the order of their paths.
+     * @return outcome of every program
+     * @throws IOException if some I/O errors occurred while searching the programs or saving the report
+     */
+    public List<Result> render() throws IOException {
+        long start = System.nanoTime();
+        Path baseDirectory = baseDirectory();
+        List<Path> programs = findPrograms(baseDirectory);
+        Files.createDirectories(outputDirectory);
+        List<Result> results = new ArrayList<>(programs.size());
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        SessionPool<Turtle> sessions = new SessionPool<>(workers, SessionInjector::provideTurtle);
+        try {
+            List<Future<Result>> futures = new ArrayList<>(programs.size());
+            for (Path program : programs)
+                futures.add(pool.submit(() -> render(sessions, program, outputOf(baseDirectory, program))));
+            for (Future<Result> future : futures)
+                results.add(future.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("The batch has been interrupted!");
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        Path report = outputDirectory.resolve(REPORT);
+        writeReport(results, report);
+        long failed = results.stream().filter(r -> !r.succeeded()).count();
+        PrintWriter pr = new PrintWriter(new BufferedWriter(new OutputStreamWriter(out)), true);
+        pr.println(String.format("Rendered %d of %d programs in %.1f s with %d workers, %d failed. Report saved to %s",
+                results.size() - failed, results.size(), (System.nanoTime() - start) / 1e9, workers, failed, report));
+        return results;
+    }
+
+    private Result render(SessionPool<Turtle> sessions, Path program, Path output) {
+        long start = System.nanoTime();
+        try (SessionPool.PooledSession<Turtle> session = sessions.acquire(DEFAULT_FIELD_SIZE, DEFAULT_FIELD_SIZE)) {
+            SessionController controller = session.getController();
+            FileSystemEngine fileSystemInterface = new DefaultFileSystemEngine(controller);
+            fileSystemInterface.getFileSystemLoader().loadProgram(program);
+            controller.runProgram();
+            Files.createDirectories(output.getParent());
+            fileSystemInterface.save(output, controller.getSession().turtle().getField());
+            return new Result(program, output, System.nanoTime() - start, null);
+        } catch (IOException | RuntimeException e) {
+            String error = Objects.requireNonNullElse(e.getMessage(), e.getClass().getSimpleName());
+            return new Result(program, null, System.nanoTime() - start, error.replaceAll("\\s+", " ").trim());
+        }
+    }
+
+    /*
+     * The base directory of a glob is made up of the names which precede the first name having a glob character.
+     */
+    private Path baseDirectory() {
+        if (!isGlob())
+            return Paths.get(input);
+        Path base = Paths.get("");
+        for (String name : input.split("[/\\\\]")) {
+            if (name.chars().anyMatch(c -> GLOB_CHARACTERS.indexOf(c) >= 0))
+                break;
+            base = base.resolve(name.isEmpty() ? "/" : name);
+        }
+        return base;
+    }
+
+    private boolean isGlob() {
+        return input.chars().anyMatch(c -> GLOB_CHARACTERS.indexOf(c) >= 0);
+    }
+
+    private List<Path> findPrograms(Path baseDirectory) throws IOException {
+        PathMatcher matcher = isGlob() ? FileSystems.getDefault().getPathMatcher("glob:" + input)
+                : p -> p.getFileName().toString().endsWith(".logo");
+        if (!Files.isDirectory(baseDirectory))
+            throw new FileNotFoundException("There is no such directory: " + baseDirectory);
+        try (Stream<Path> files = Files.walk(baseDirectory)) {
+            return files
+                    .filter(Files::isRegularFile)
+                    .filter(matcher::matches)
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private Path outputOf(Path baseDirectory, Path program) {
+        Path relative = baseDirectory.relativize(program);
+        String name = relative.getFileName().toString();
+        if (name.endsWith(".logo"))
+            name = name.substring(0, name.length() - ".logo".length());
+        return outputDirectory.resolve(relative).resolveSibling(name.concat(".logores"));
+    }
+
+    private void writeReport(List<Result> results, Path report) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(report)) {
+            writer.write("status\tmillis\tprogram\toutput or error");
+            writer.newLine();
+            for (Result r : results) {
+                writer.write(String.format("%s\t%.3f\t%s\t%s", r.succeeded() ? "OK" : "FAILED", r.nanos() / 1e6,
+                        r.program(), r.succeeded() ? r.output() : r.error()));
+                writer.newLine();
+            }
+        }
+    }
+}
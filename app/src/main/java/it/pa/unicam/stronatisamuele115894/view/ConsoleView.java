@@ -28,7 +28,9 @@ package it.pa.unicam.stronatisamuele115894.view;
 import it.pa.unicam.stronatisamuele115894.controller.SessionController;
 import it.pa.unicam.stronatisamuele115894.io.*;
 import it.pa.unicam.stronatisamuele115894.io.modelWriter.FieldWriter;
+import it.pa.unicam.stronatisamuele115894.model.Field;
 import java.io.*;
+import java.nio.file.Path;
 import java.util.Objects;
 
 /**
@@ -74,12 +76,13 @@ public class ConsoleView implements View {
              PrintWriter pr = new PrintWriter(new BufferedWriter(new OutputStreamWriter(out)),true)) {
             hello(pr);
             while (isOpen) {
-                boolean fileFound = fileSystemInterface.loadProgram(in,out);
-                if (!fileFound) {
+                Path program = fileSystemInterface.findFile(br,pr);
+                if (Objects.isNull(program)) {
                     isOpen = false;
                     exit(pr);
                     return;
                 }
+                fileSystemInterface.getFileSystemLoader().loadProgram(program);
                 chooseRunMode(br,pr);
             }
         }
@@ -99,10 +102,7 @@ public class ConsoleView implements View {
     }
 
     private void runFullProgram(BufferedReader br, PrintWriter pr) throws IOException {
-        String c;
-        do {
-            c = sessionController.runNextCommand();
-        } while (!Objects.equals(c, String.format("Program completed!%n")));
+        sessionController.runProgram();
         saveOutput(br,pr);
     }
 
@@ -122,10 +122,12 @@ public class ConsoleView implements View {
     }
 
     private void saveOutput(BufferedReader br, PrintWriter pr) throws IOException {
-        String result = new FieldWriter().stringOf(sessionController.getSession().turtle().getField());
-        fileSystemInterface.getFileSystemWriter().writeTo(out,result);
+        Field field = sessionController.getSession().turtle().getField();
+        Writer console = new BufferedWriter(new OutputStreamWriter(out));
+        new FieldWriter().writeTo(field, console);
+        console.flush();
         pr.println("Please, enter an output file name. You must enter the name only, with no extension");
-        fileSystemInterface.save(br.readLine(), result);
+        fileSystemInterface.save(br.readLine(), field);
         pr.println("Saving the output...");
     }
 
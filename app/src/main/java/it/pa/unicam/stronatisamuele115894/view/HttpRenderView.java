@@ -0,0 +1,344 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Samuele Stronati, Università di Camerino.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * Contributors:
+ *     Samuele Stronati - initial API and implementation
+ *******************************************************************************/
+package it.pa.unicam.stronatisamuele115894.view;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import it.pa.unicam.stronatisamuele115894.controller.SessionController;
+import it.pa.unicam.stronatisamuele115894.controller.SessionPool;
+import it.pa.unicam.stronatisamuele115894.io.StreamProgramLoader;
+import it.pa.unicam.stronatisamuele115894.io.logores.BinaryFieldWriter;
+import it.pa.unicam.stronatisamuele115894.io.modelWriter.FieldWriter;
+import it.pa.unicam.stronatisamuele115894.model.DefaultTurtle;
+import it.pa.unicam.stronatisamuele115894.model.Field;
+import it.pa.unicam.stronatisamuele115894.model.Position;
+import it.pa.unicam.stronatisamuele115894.model.RGBColor;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class implements a view which renders Logo programs for HTTP clients.
+ * A client POSTs the source of a program to the "/render" path, and receives the
+ * '.logores' file of its output. The query of the request may define the "width"
+ * and the "height" of the field, and the "format" of the output, which is either
+ * "text", the default, or "binary".
+ *
+ * Every request is run in its own session, taken from a SessionPool and reset
+ * once the output has been sent, and at most a given number of requests
+ * are run at the same time: a request which can't start within the timeout is
+ * refused with status 503, while a program which can't be completed within the
+ * timeout is stopped, and its request is answered with status 504. Any other
+ * failure while running a program is answered with status 500.
+ *
+ * Requests are handled by virtual threads when the runtime provides them, and by
+ * a cached pool of platform threads otherwise. In both cases every request starts
+ * being handled as soon as it arrives, so that only the permits of the view limit
+ * the requests being run, and a request never waits for a thread past its timeout.
+ */
+
+public class HttpRenderView implements View {
+
+    /**
+     * Path handling the render requests.
+     */
+    public static final String PATH = "/render";
+
+    /**
+     * Usage of the server session from the command line.
+     */
+    public static final String USAGE = "Usage: SERVER [port] [concurrent requests] [timeout in milliseconds]";
+
+    /**
+     * Default port of the server.
+     */
+    public static final int DEFAULT_PORT = 8080;
+
+    /**
+     * Default size of the field, when a request doesn't define it.
+     */
+    public static final double DEFAULT_FIELD_SIZE = 200;
+
+    private static final int MAX_SOURCE_BYTES = 1 << 20;
+
+    private final InetSocketAddress address;
+    private final int maxConcurrentRequests;
+    private final Duration timeout;
+    private final double maxFieldSize;
+    private final Semaphore permits;
+    private final SessionPool<DeadlineTurtle> sessions;
+    private final CountDownLatch stopped;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * Constructs a view which listens on the given address.
+     * @param address address of the server
+     * @param maxConcurrentRequests maximum number of requests run at the same time
+     * @param timeout maximum time spent waiting for and running a request
+     * @param maxFieldSize maximum width and height of a field
+     * @throws IllegalArgumentException if the number of requests, the timeout or the field size is not positive
+     */
+    public HttpRenderView(InetSocketAddress address, int maxConcurrentRequests, Duration timeout, double maxFieldSize) {
+        if (maxConcurrentRequests <= 0 || timeout.isNegative() || timeout.isZero() || !(maxFieldSize > 0))
+            throw new IllegalArgumentException("Concurrent requests, timeout and field size must be positive!");
+        this.address = Objects.requireNonNull(address);
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.timeout = timeout;
+        this.maxFieldSize = maxFieldSize;
+        this.permits = new Semaphore(maxConcurrentRequests);
+        this.sessions = new SessionPool<>(maxConcurrentRequests, DeadlineTurtle::new);
+        this.stopped = new CountDownLatch(1);
+    }
+
+    /**
+     * Constructs a view which listens on the given port of the loopback address, and
+     * which accepts fields up to ten thousands units wide and high.
+     * @param port port of the server, or 0 for any free port
+     * @param maxConcurrentRequests maximum number of requests run at the same time
+     * @param timeout maximum time spent waiting for and running a request
+     */
+    public HttpRenderView(int port, int maxConcurrentRequests, Duration timeout) {
+        this(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), maxConcurrentRequests, timeout, 10_000);
+    }
+
+    /**
+     * Starts the server, and waits until it is stopped.
+     * @throws IOException if the server can't be started
+     */
+    @Override
+    public void open() throws IOException {
+        start();
+        System.out.println("Rendering programs at http://" + address.getHostString() + ":" + getPort() + PATH);
+        try {
+            stopped.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stop();
+        }
+    }
+
+    /**
+     * Starts the server, without waiting for it to be stopped.
+     * @throws IOException if the server can't be started
+     * @throws IllegalStateException if the server has already been started
+     */
+    public synchronized void start() throws IOException {
+        if (Objects.nonNull(server))
+            throw new IllegalStateException("The server has already been started!");
+        server = HttpServer.create(address, 0);
+        executor = newExecutor();
+        server.createContext(PATH, this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * Stops the server, and the requests being handled.
+     */
+    public synchronized void stop() {
+        if (Objects.nonNull(server)) {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+        stopped.countDown();
+    }
+
+    /**
+     * Returns the port where the server listens, which is known once the server has been started.
+     * @return port of the server
+     */
+    public synchronized int getPort() {
+        return Objects.isNull(server) ? address.getPort() : server.getAddress().getPort();
+    }
+
+    /*
+     * Virtual threads are looked up reflectively, so that the view also runs on runtimes without them.
+     */
+    private static ExecutorService newExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("POST")) {
+                exchange.getResponseHeaders().add("Allow", "POST");
+                respond(exchange, 405, "Programs must be sent through a POST request!");
+                return;
+            }
+            long deadline = System.nanoTime() + timeout.toNanos();
+            if (!permits.tryAcquire(timeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                respond(exchange, 503, "Too many programs are being rendered!");
+                return;
+            }
+            try {
+                render(exchange, deadline);
+            } finally {
+                permits.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            if (exchange.getResponseCode() < 0)
+                respond(exchange, 500, Objects.requireNonNullElse(e.getMessage(), e.getClass().getSimpleName()));
+        }
+    }
+
+    private void render(HttpExchange exchange, long deadline) throws IOException {
+        double width;
+        double height;
+        boolean binary;
+        String source;
+        try {
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            binary = parseFormat(query.getOrDefault("format", "text"));
+            width = parseSize(query.get("width"));
+            height = parseSize(query.get("height"));
+            source = readSource(exchange.getRequestBody());
+        } catch (IllegalArgumentException e) {
+            respond(exchange, 400, Objects.requireNonNullElse(e.getMessage(), "Malformed request!"));
+            return;
+        }
+        try (SessionPool.PooledSession<DeadlineTurtle> session = sessions.acquire(width, height)) {
+            session.getTurtle().setDeadline(deadline);
+            try {
+                SessionController controller = session.getController();
+                new StreamProgramLoader(controller).loadProgram(source);
+                controller.runProgram();
+            } catch (CancellationException e) {
+                respond(exchange, 504, e.getMessage());
+                return;
+            } catch (IllegalArgumentException e) {
+                respond(exchange, 400, Objects.requireNonNullElse(e.getMessage(), "Malformed request!"));
+                return;
+            }
+            writeField(exchange, session.getField(), binary);
+        }
+    }
+
+    private static void writeField(HttpExchange exchange, Field field, boolean binary) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type",
+                binary ? "application/octet-stream" : "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream body = new BufferedOutputStream(exchange.getResponseBody());
+        if (binary)
+            new BinaryFieldWriter().writeTo(field, body);
+        else {
+            Writer writer = new OutputStreamWriter(body, StandardCharsets.UTF_8);
+            new FieldWriter().writeTo(field, writer);
+            writer.flush();
+        }
+        body.flush();
+    }
+
+    private static void respond(HttpExchange exchange, int status, String message) throws IOException {
+        byte[] bytes = String.format("%s%n", message).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> parameters = new HashMap<>();
+        if (Objects.isNull(query) || query.isEmpty())
+            return parameters;
+        for (String parameter : query.split("&")) {
+            int equals = parameter.indexOf('=');
+            if (equals < 0)
+                throw new IllegalArgumentException("Malformed query parameter: " + parameter);
+            parameters.put(URLDecoder.decode(parameter.substring(0, equals), StandardCharsets.UTF_8),
+                    URLDecoder.decode(parameter.substring(equals + 1), StandardCharsets.UTF_8));
+        }
+        return parameters;
+    }
+
+    private static boolean parseFormat(String format) {
+        return switch (format) {
+            case "text" -> false;
+            case "binary" -> true;
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        };
+    }
+
+    private double parseSize(String size) {
+        if (Objects.isNull(size))
+            return DEFAULT_FIELD_SIZE;
+        double value = Double.parseDouble(size);
+        if (!(value > 0 && value <= maxFieldSize))
+            throw new IllegalArgumentException(String.format("The size of the field must be in the range ]0,%s]!", maxFieldSize));
+        return value;
+    }
+
+    private static String readSource(InputStream in) throws IOException {
+        byte[] bytes = in.readNBytes(MAX_SOURCE_BYTES + 1);
+        if (bytes.length > MAX_SOURCE_BYTES)
+            throw new IllegalArgumentException("The program is too large!");
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * This turtle stops the program it is running, by throwing a CancellationException,
+     * as soon as it reaches a checkpoint after its deadline. The deadline is set before
+     * every program run by the turtle.
+     */
+    @SuppressWarnings("unchecked")
+    static final class DeadlineTurtle extends DefaultTurtle {
+
+        private long deadline;
+
+        DeadlineTurtle(Field field) {
+            super(field, new Position(field.getWidth() / 2, field.getHeight() / 2),
+                    new RGBColor(0, 0, 0), new RGBColor(255, 255, 255), 1);
+            this.deadline = System.nanoTime();
+        }
+
+        void setDeadline(long deadline) {
+            this.deadline = deadline;
+        }
+
+        @Override
+        public void checkpoint() {
+            if (System.nanoTime() - deadline > 0)
+                throw new CancellationException("The program has run out of time!");
+        }
+    }
+}
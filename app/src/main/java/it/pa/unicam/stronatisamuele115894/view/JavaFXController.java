@@ -5,7 +5,7 @@ import it.pa.unicam.stronatisamuele115894.controller.SessionController;
 import it.pa.unicam.stronatisamuele115894.controller.SessionInjector;
 import it.pa.unicam.stronatisamuele115894.controller.StreamBasedSessionController;
 import it.pa.unicam.stronatisamuele115894.io.*;
-import it.pa.unicam.stronatisamuele115894.io.modelWriter.FieldWriter;
+import it.pa.unicam.stronatisamuele115894.io.logores.BinaryFieldWriter;
 import it.pa.unicam.stronatisamuele115894.model.GeoPath;
 import it.pa.unicam.stronatisamuele115894.model.GeoSection;
 import it.pa.unicam.stronatisamuele115894.model.Position;
@@ -128,7 +128,7 @@ public class JavaFXController {
 
 
     private Color setColor(RGBColor color) {
-        return (Objects.isNull(color)) ? Color.TRANSPARENT : color.toJavaFXColor();
+        return controller.getSession().turtle().getField().getPalette().toJavaFXColor(color);
     }
 
     @FXML
@@ -169,9 +169,11 @@ public class JavaFXController {
             FileChooser logoFileChooser = new FileChooser();
             logoFileChooser.setTitle("Save Logo Output to File");
             logoFileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Logo Output Files", "*.logores"));
+            logoFileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Binary Logo Output Files", "*" + BinaryFieldWriter.EXTENSION));
             File savedFile = logoFileChooser.showSaveDialog(null);
-            String result = new FieldWriter().stringOf(controller.getSession().turtle().getField());
-            fileSystemInterface.getFileSystemWriter().writeTo(savedFile,result);
+            if (Objects.isNull(savedFile))
+                return;
+            fileSystemInterface.save(savedFile.toPath(), controller.getSession().turtle().getField());
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
@@ -267,7 +269,8 @@ public class JavaFXController {
     }
 
     private void setScreenColor(RGBColor newFill) {
-        BackgroundFill backgroundfill = new BackgroundFill(newFill.toJavaFXColor(),null,null);
+        BackgroundFill backgroundfill = new BackgroundFill(
+                controller.getSession().turtle().getField().getPalette().toJavaFXColor(newFill),null,null);
         this.pane.setBackground(new Background(backgroundfill));
     }
 }
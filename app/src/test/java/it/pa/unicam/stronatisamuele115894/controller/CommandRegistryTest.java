@@ -0,0 +1,73 @@
+package it.pa.unicam.stronatisamuele115894.controller;
+
+import it.pa.unicam.stronatisamuele115894.io.modelWriter.FieldWriter;
+import it.pa.unicam.stronatisamuele115894.model.Turtle;
+import it.pa.unicam.stronatisamuele115894.program.Opcode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CommandRegistryTest {
+
+    Map<String, BiFunction<Turtle, List<?>, String>> commands;
+
+    @BeforeEach
+    private void allocate() {
+        commands = SessionInjector.provideCommands();
+    }
+
+    @AfterEach
+    private void deallocate() {
+        commands = null;
+    }
+
+    @Test
+    public void checkRegistryIsSharedAndImmutable() {
+        assertSame(commands, SessionInjector.provideCommands());
+        assertEquals(13, commands.size());
+        assertTrue(commands.keySet().contains("RIPETI"));
+        assertFalse(commands.containsKey("LOOP"));
+        assertNull(commands.get("JUMP"));
+        assertNull(commands.get(null));
+        assertThrows(UnsupportedOperationException.class, () -> commands.put("JUMP", (t, obj) -> ""));
+        assertThrows(UnsupportedOperationException.class, () -> commands.remove("FORWARD"));
+        assertThrows(UnsupportedOperationException.class, () -> commands.keySet().clear());
+        CommandRegistry registry = (CommandRegistry) commands;
+        for (String keyword : commands.keySet())
+            assertSame(commands.get(keyword), registry.get(Opcode.of(keyword)));
+        assertThrows(IllegalArgumentException.class,
+                () -> new CommandRegistry(Map.of("JUMP", (t, obj) -> "")), "Unknown command: JUMP");
+    }
+
+    @Test
+    public void checkSessionsShareTheRegistryAcrossThreads() throws InterruptedException, ExecutionException {
+        Turtle expected = SessionInjector.provideTurtle();
+        commands.get("RIPETI").apply(expected, List.of("36", "[FORWARD 5 RIGHT 10 RIPETI 2 [PENUP BACK 1 PENDOWN]]"));
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 16; i++)
+                futures.add(pool.submit(() -> {
+                    Session session = new MapBasedSession(SessionInjector.provideTurtle(), SessionInjector.provideCommands());
+                    session.getCommand("RIPETI").apply(session.turtle(),
+                            List.of("36", "[FORWARD 5 RIGHT 10 RIPETI 2 [PENUP BACK 1 PENDOWN]]"));
+                    return new FieldWriter().stringOf(session.turtle().getField());
+                }));
+            for (Future<String> future : futures)
+                assertEquals(new FieldWriter().stringOf(expected.getField()), future.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
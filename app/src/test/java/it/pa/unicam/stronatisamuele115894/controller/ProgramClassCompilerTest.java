@@ -0,0 +1,157 @@
+package it.pa.unicam.stronatisamuele115894.controller;
+
+import it.pa.unicam.stronatisamuele115894.io.modelWriter.FieldWriter;
+import it.pa.unicam.stronatisamuele115894.model.DefaultTurtle;
+import it.pa.unicam.stronatisamuele115894.model.Position;
+import it.pa.unicam.stronatisamuele115894.model.RGBColor;
+import it.pa.unicam.stronatisamuele115894.model.Turtle;
+import it.pa.unicam.stronatisamuele115894.program.Opcode;
+import it.pa.unicam.stronatisamuele115894.program.Program;
+import it.pa.unicam.stronatisamuele115894.program.ProgramCompiler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProgramClassCompilerTest {
+
+    private static final String PROGRAM = """
+            SETSCREENCOLOR 10 20 30
+            SETPENCOLOR 255 0 0
+            SETFILLCOLOR 0 0 255
+            SETPENSIZE 300
+            RIPETI 3 [RIPETI 4 [FORWARD 40 RIGHT 90] LEFT 120 RIPETI 0 [CLEARSCREEN]]
+            PENUP
+            RIGHT 100000
+            LEFT 99990
+            PENDOWN
+            RIPETI 36 [FORWARD 2 LEFT 10]
+            SETPENSIZE 2
+            HOME
+            """;
+
+    ProgramCompiler compiler;
+    ProgramClassCompiler classCompiler;
+
+    @BeforeEach
+    private void allocate() {
+        compiler = new ProgramCompiler();
+        classCompiler = new ProgramClassCompiler();
+    }
+
+    @AfterEach
+    private void deallocate() {
+        compiler = null;
+        classCompiler = null;
+    }
+
+    private String interpret(Program program) {
+        Turtle turtle = SessionInjector.provideTurtle();
+        ProgramInterpreter interpreter = new ProgramInterpreter(turtle,
+                ProgramInterpreter.Granularity.STATEMENT, new HotProgramCache(Integer.MAX_VALUE, 1));
+        interpreter.load(program);
+        interpreter.run();
+        return new FieldWriter().stringOf(turtle.getField()) + turtle.getPosition() + turtle.getDirection();
+    }
+
+    @Test
+    public void checkCompiledProgramDrawsTheSameField() {
+        Program program = compiler.compile(PROGRAM);
+        Turtle turtle = SessionInjector.provideTurtle();
+        assertEquals(Opcode.HOME, classCompiler.compile(program).run(turtle));
+        assertEquals(interpret(program),
+                new FieldWriter().stringOf(turtle.getField()) + turtle.getPosition() + turtle.getDirection());
+    }
+
+    @Test
+    public void checkEmptyProgram() {
+        Turtle turtle = SessionInjector.provideTurtle();
+        assertNull(classCompiler.compile(compiler.compile("")).run(turtle));
+        assertNull(classCompiler.compile(compiler.compile("RIPETI 0 [FORWARD 10]")).run(turtle));
+        assertEquals(1, turtle.getField().getPaths().size());
+    }
+
+    @Test
+    public void checkCompiledProgramIsChosenAfterThreshold() {
+        HotProgramCache cache = new HotProgramCache(3, 4);
+        Program program = compiler.compile(PROGRAM);
+        assertTrue(cache.lookup(program).isEmpty());
+        assertTrue(cache.lookup(compiler.compile(PROGRAM)).isEmpty());
+        assertTrue(cache.lookup(program).isPresent());
+        assertSame(cache.lookup(program).orElseThrow(), cache.lookup(program).orElseThrow());
+        Turtle turtle = SessionInjector.provideTurtle();
+        ProgramInterpreter interpreter = new ProgramInterpreter(turtle, ProgramInterpreter.Granularity.STATEMENT, cache);
+        interpreter.load(program);
+        interpreter.run();
+        assertFalse(interpreter.hasNext());
+        assertEquals(Opcode.HOME, interpreter.getLastExecuted());
+        assertEquals(interpret(program),
+                new FieldWriter().stringOf(turtle.getField()) + turtle.getPosition() + turtle.getDirection());
+    }
+
+    @Test
+    public void checkLongProgramIsSplit() {
+        Program program = compiler.compile("RIPETI 4 [FORWARD 10 RIGHT 90]\nRIGHT 360\n".repeat(5000));
+        Turtle turtle = SessionInjector.provideTurtle();
+        assertEquals(Opcode.RIGHT, classCompiler.compile(program).run(turtle));
+        assertEquals(interpret(program),
+                new FieldWriter().stringOf(turtle.getField()) + turtle.getPosition() + turtle.getDirection());
+    }
+
+    @Test
+    public void checkTooLargeProgramIsInterpreted() {
+        Program program = compiler.compile("RIPETI 2 [" + "FORWARD 1 BACK 1 ".repeat(5000) + "]");
+        assertThrows(IllegalArgumentException.class, () -> classCompiler.compile(program));
+        HotProgramCache cache = new HotProgramCache(1, 1);
+        assertTrue(cache.lookup(program).isEmpty());
+        assertTrue(cache.lookup(program).isEmpty());
+    }
+
+    @Test
+    public void checkCheckpointIsReachedByLoopsWhichDontMove() {
+        Program program = compiler.compile("RIPETI 2000000000 [SETSCREENCOLOR 1 2 3]\nRIPETI 2000000000 [RIPETI 2000000000 [PENUP]]");
+        assertThrows(CancellationException.class, () -> classCompiler.compile(program).run(new StoppingTurtle()));
+        ProgramInterpreter interpreter = new ProgramInterpreter(new StoppingTurtle(),
+                ProgramInterpreter.Granularity.STATEMENT, new HotProgramCache(Integer.MAX_VALUE, 1));
+        interpreter.load(program);
+        assertThrows(CancellationException.class, interpreter::run);
+        assertThrows(CancellationException.class, () -> SessionInjector.provideCommands().get("RIPETI")
+                .apply(new StoppingTurtle(), List.of("2000000000", "[SETSCREENCOLOR 1 2 3]")));
+        StoppingTurtle turtle = new StoppingTurtle();
+        classCompiler.compile(compiler.compile("RIPETI 1000 [PENUP]")).run(turtle);
+        assertEquals(1000, turtle.checkpoints);
+    }
+
+    @Test
+    public void checkFailedCompiledRunKeepsTheProgramCounter() {
+        ProgramInterpreter interpreter = new ProgramInterpreter(new StoppingTurtle(),
+                ProgramInterpreter.Granularity.STATEMENT, new HotProgramCache(1, 1));
+        interpreter.load(compiler.compile("FORWARD 10\nRIPETI 2000000000 [PENUP]"));
+        assertThrows(CancellationException.class, interpreter::run);
+        assertEquals(0, interpreter.getProgramCounter());
+        assertTrue(interpreter.hasNext());
+    }
+
+    /*
+     * Stops the program at its ten-thousandth checkpoint.
+     */
+    private static final class StoppingTurtle extends DefaultTurtle {
+
+        private int checkpoints;
+
+        @SuppressWarnings("unchecked")
+        private StoppingTurtle() {
+            super(SessionInjector.provideField(), new Position(100, 100), new RGBColor(0, 0, 0), new RGBColor(255, 255, 255), 1);
+        }
+
+        @Override
+        public void checkpoint() {
+            if (++checkpoints == 10_000)
+                throw new CancellationException();
+        }
+    }
+}
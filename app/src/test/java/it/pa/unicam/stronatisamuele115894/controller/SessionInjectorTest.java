@@ -0,0 +1,59 @@
+package it.pa.unicam.stronatisamuele115894.controller;
+
+import it.pa.unicam.stronatisamuele115894.io.modelWriter.FieldWriter;
+import it.pa.unicam.stronatisamuele115894.model.Position;
+import it.pa.unicam.stronatisamuele115894.model.Turtle;
+import it.pa.unicam.stronatisamuele115894.program.ProgramCompiler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SessionInjectorTest {
+
+    Turtle turtle;
+    Map<String, BiFunction<Turtle, List<?>, String>> commands;
+
+    @BeforeEach
+    private void allocate() {
+        turtle = SessionInjector.provideTurtle();
+        commands = SessionInjector.provideCommands();
+    }
+
+    @AfterEach
+    private void deallocate() {
+        turtle = null;
+        commands = null;
+    }
+
+    @Test
+    public void checkNestedRepeat() {
+        commands.get("RIPETI").apply(turtle, List.of("2", "[RIPETI 4 [FORWARD 10 RIGHT 90] PENUP BACK 30 PENDOWN]"));
+        Turtle compiled = SessionInjector.provideTurtle();
+        ProgramInterpreter interpreter = new ProgramInterpreter(compiled);
+        interpreter.load(new ProgramCompiler().compile("RIPETI 2 [RIPETI 4 [FORWARD 10 RIGHT 90] PENUP BACK 30 PENDOWN]"));
+        interpreter.run();
+        assertEquals(new FieldWriter().stringOf(compiled.getField()), new FieldWriter().stringOf(turtle.getField()));
+        assertEquals(new Position(40, 100), turtle.getPosition());
+    }
+
+    @Test
+    public void checkLongRepeatIsNotExpanded() {
+        commands.get("RIPETI").apply(turtle, List.of("10000000", "[RIGHT 1 LEFT 1]"));
+        assertEquals(0, turtle.getDirection());
+        assertEquals(new Position(100, 100), turtle.getPosition());
+    }
+
+    @Test
+    public void checkIfIllegalArgumentExceptionIsThrown() {
+        assertThrows(IllegalArgumentException.class,
+                () -> commands.get("RIPETI").apply(turtle, List.of("4")));
+        assertThrows(IllegalArgumentException.class,
+                () -> commands.get("RIPETI").apply(turtle, List.of("4", "[FORWARD]")));
+    }
+}
@@ -0,0 +1,123 @@
+package it.pa.unicam.stronatisamuele115894.controller;
+
+import it.pa.unicam.stronatisamuele115894.io.StreamProgramLoader;
+import it.pa.unicam.stronatisamuele115894.io.modelWriter.FieldWriter;
+import it.pa.unicam.stronatisamuele115894.model.Field;
+import it.pa.unicam.stronatisamuele115894.model.Position;
+import it.pa.unicam.stronatisamuele115894.model.RGBColor;
+import it.pa.unicam.stronatisamuele115894.model.Turtle;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SessionPoolTest {
+
+    private static final String PROGRAM = """
+            SETFILLCOLOR 0 255 0
+            RIPETI 4 [FORWARD 40 RIGHT 90]
+            PENUP
+            FORWARD 10
+            PENDOWN
+            SETPENCOLOR 255 0 0
+            SETPENSIZE 3
+            RIPETI 36 [FORWARD 5 RIGHT 10]
+            SETSCREENCOLOR 0 0 255
+            """;
+
+    SessionPool<Turtle> pool;
+
+    @BeforeEach
+    private void allocate() {
+        pool = new SessionPool<>(2, SessionInjector::provideTurtle);
+    }
+
+    @AfterEach
+    private void deallocate() {
+        pool = null;
+    }
+
+    private static String run(SessionController controller, String program) throws IOException {
+        new StreamProgramLoader(controller).loadProgram(program);
+        controller.runProgram();
+        return new FieldWriter().stringOf(controller.getSession().turtle().getField());
+    }
+
+    private static String runInNewSession(String program) throws IOException {
+        return run(new StreamBasedSessionController(
+                new MapBasedSession(SessionInjector.provideTurtle(), SessionInjector.provideCommands())), program);
+    }
+
+    @Test
+    public void checkSessionIsReset() throws IOException {
+        String expected = runInNewSession(PROGRAM);
+        SessionPool.PooledSession<Turtle> first = pool.acquire(200, 200);
+        assertEquals(expected, run(first.getController(), PROGRAM));
+        first.close();
+        assertEquals(1, pool.idle());
+        SessionPool.PooledSession<Turtle> second = pool.acquire(200, 200);
+        assertSame(first, second);
+        assertEquals(0, pool.idle());
+        Turtle turtle = second.getTurtle();
+        assertEquals(new Position(100, 100), turtle.getPosition());
+        assertEquals(0, turtle.getDirection());
+        assertEquals(new RGBColor(0, 0, 0), turtle.getStroke());
+        assertEquals(new RGBColor(255, 255, 255), turtle.getFill());
+        assertEquals(1, turtle.getPenSize());
+        assertTrue(turtle.getPlot());
+        Field field = second.getField();
+        assertEquals(new RGBColor(255, 255, 255), field.getFill());
+        assertEquals(1, field.getPaths().size());
+        assertTrue(field.getSectionsWithin(0, 0, 200, 200).isEmpty());
+        assertNull(second.getController().getLastProcessedCommand());
+        assertEquals(expected, run(second.getController(), PROGRAM));
+        second.close();
+        second.close();
+        assertEquals(1, pool.idle());
+    }
+
+    @Test
+    public void checkSessionsAreKeptBySize() {
+        SessionPool.PooledSession<Turtle> small = pool.acquire(100, 100);
+        small.close();
+        SessionPool.PooledSession<Turtle> large = pool.acquire(300, 200);
+        assertNotSame(small, large);
+        assertEquals(300, large.getField().getWidth());
+        assertEquals(200, large.getField().getHeight());
+        assertEquals(new Position(150, 100), large.getTurtle().getPosition());
+        assertSame(small, pool.acquire(100, 100));
+    }
+
+    @Test
+    public void checkLeastRecentlyUsedSessionIsDropped() {
+        SessionPool.PooledSession<Turtle> common = pool.acquire(200, 200);
+        pool.acquire(301, 200).close();
+        pool.acquire(302, 200).close();
+        common.close();
+        assertEquals(2, pool.idle());
+        assertSame(common, pool.acquire(200, 200));
+        assertEquals(1, pool.idle());
+        assertEquals(302, pool.acquire(302, 200).getField().getWidth());
+        assertEquals(0, pool.idle());
+    }
+
+    @Test
+    public void checkIdleSessionsAreBounded() {
+        SessionPool.PooledSession<Turtle> first = pool.acquire(200, 200);
+        SessionPool.PooledSession<Turtle> second = pool.acquire(200, 200);
+        SessionPool.PooledSession<Turtle> third = pool.acquire(200, 200);
+        first.close();
+        second.close();
+        third.close();
+        assertEquals(2, pool.idle());
+        assertSame(third, pool.acquire(200, 200));
+        assertSame(second, pool.acquire(200, 200));
+        assertNotSame(first, pool.acquire(200, 200));
+        assertThrows(IllegalArgumentException.class, () -> new SessionPool<>(-1, SessionInjector::provideTurtle));
+        assertThrows(IllegalArgumentException.class,
+                () -> pool.acquire(-1, 200), "Axis ranges must be [0, infty[ !");
+    }
+}
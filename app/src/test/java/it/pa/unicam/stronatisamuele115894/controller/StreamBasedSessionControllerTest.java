@@ -0,0 +1,131 @@
+package it.pa.unicam.stronatisamuele115894.controller;
+
+import it.pa.unicam.stronatisamuele115894.io.modelWriter.FieldWriter;
+import it.pa.unicam.stronatisamuele115894.model.Turtle;
+import it.pa.unicam.stronatisamuele115894.program.ProgramCompiler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StreamBasedSessionControllerTest {
+
+    private static final String PROGRAM = """
+            FORWARD 50
+            RIGHT 90
+            SETPENCOLOR 255 0 0
+            RIPETI 3 [FORWARD 20 LEFT 120]
+            PENUP
+            BACK 15
+            PENDOWN
+            SETPENSIZE 2
+            HOME
+            """;
+
+    SessionController controller;
+
+    @BeforeEach
+    private void allocate() {
+        controller = new StreamBasedSessionController(
+                new MapBasedSession(SessionInjector.provideTurtle(), SessionInjector.provideCommands()));
+    }
+
+    @AfterEach
+    private void deallocate() {
+        controller = null;
+    }
+
+    private List<List<String>> tokenize(String program) {
+        return program.lines()
+                .map(s -> Arrays.stream(s.split("\\s+(?![^\\[]*\\])")).toList())
+                .toList();
+    }
+
+    private String runWithCommandMap(String program) {
+        Turtle turtle = SessionInjector.provideTurtle();
+        Map<String, BiFunction<Turtle, List<?>, String>> commands = SessionInjector.provideCommands();
+        for (List<String> command : tokenize(program))
+            commands.get(command.get(0)).apply(turtle, command.subList(1, command.size()));
+        return new FieldWriter().stringOf(turtle.getField());
+    }
+
+    private String runWithController(String program) {
+        controller.setNewProgram(tokenize(program).listIterator());
+        String c;
+        do {
+            c = controller.runNextCommand();
+        } while (!c.equals(String.format("Program completed!%n")));
+        return new FieldWriter().stringOf(controller.getSession().turtle().getField());
+    }
+
+    @Test
+    public void checkCompiledProgramDrawsTheSameField() {
+        assertEquals(runWithCommandMap(PROGRAM), runWithController(PROGRAM));
+    }
+
+    @Test
+    public void checkLastProcessedCommand() {
+        controller.setNewProgram(tokenize(PROGRAM).listIterator());
+        controller.runNextCommand();
+        assertEquals("FORWARD", controller.getLastProcessedCommand());
+        controller.runNextCommand();
+        controller.runNextCommand();
+        assertEquals("SETPENCOLOR", controller.getLastProcessedCommand());
+        assertEquals(String.format("Executing [FORWARD 20] command...%n"),
+                controller.runNextCommand().lines().findFirst().orElseThrow() + String.format("%n"));
+        assertEquals("FORWARD", controller.getLastProcessedCommand());
+        controller.runNextCommand();
+        assertEquals("LEFT", controller.getLastProcessedCommand());
+    }
+
+    @Test
+    public void checkStatementGranularity() {
+        controller = new StreamBasedSessionController(
+                new MapBasedSession(SessionInjector.provideTurtle(), SessionInjector.provideCommands()),
+                ProgramInterpreter.Granularity.STATEMENT);
+        controller.setNewProgram(tokenize(PROGRAM).listIterator());
+        for (int i = 0; i < 4; i++)
+            controller.runNextCommand();
+        assertEquals("RIPETI", controller.getLastProcessedCommand());
+        controller.runNextCommand();
+        assertEquals("PENUP", controller.getLastProcessedCommand());
+    }
+
+    @Test
+    public void checkSteppingInsideLongLoop() {
+        controller.setNewProgram(new ProgramCompiler().compile("RIPETI 100000 [RIPETI 2 [RIGHT 1] LEFT 2]"));
+        Turtle turtle = controller.getSession().turtle();
+        controller.runNextCommand();
+        assertEquals(-1, turtle.getDirection());
+        controller.runNextCommand();
+        assertEquals(-2, turtle.getDirection());
+        controller.runNextCommand();
+        assertEquals(0, turtle.getDirection());
+        assertEquals("LEFT", controller.getLastProcessedCommand());
+        controller.runNextCommand();
+        assertEquals(-1, turtle.getDirection());
+    }
+
+    @Test
+    public void checkRunProgram() {
+        String expected = runWithController(PROGRAM);
+        allocate();
+        controller.setNewProgram(tokenize(PROGRAM).listIterator());
+        assertEquals(String.format("Program completed!%n"), controller.runProgram());
+        assertEquals(expected, new FieldWriter().stringOf(controller.getSession().turtle().getField()));
+        assertEquals("HOME", controller.getLastProcessedCommand());
+        assertFalse(controller.getSession().turtle().isSilent());
+    }
+
+    @Test
+    public void checkEmptyLoopsComplete() {
+        controller.setNewProgram(new ProgramCompiler().compile("RIPETI 0 [FORWARD 10] RIPETI 3 []"));
+        assertEquals(String.format("Program completed!%n"), controller.runNextCommand());
+    }
+}
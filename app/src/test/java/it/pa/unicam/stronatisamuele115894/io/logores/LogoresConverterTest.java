@@ -0,0 +1,124 @@
+package it.pa.unicam.stronatisamuele115894.io.logores;
+
+import it.pa.unicam.stronatisamuele115894.controller.ProgramInterpreter;
+import it.pa.unicam.stronatisamuele115894.io.modelWriter.FieldWriter;
+import it.pa.unicam.stronatisamuele115894.model.DefaultTurtle;
+import it.pa.unicam.stronatisamuele115894.model.Field;
+import it.pa.unicam.stronatisamuele115894.model.GLine;
+import it.pa.unicam.stronatisamuele115894.model.LineChain;
+import it.pa.unicam.stronatisamuele115894.model.Position;
+import it.pa.unicam.stronatisamuele115894.model.RGBColor;
+import it.pa.unicam.stronatisamuele115894.model.SquareField;
+import it.pa.unicam.stronatisamuele115894.program.ProgramCompiler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LogoresConverterTest {
+
+    private static final String PROGRAM = """
+            SETFILLCOLOR 0 255 0
+            RIPETI 4 [FORWARD 40 RIGHT 90]
+            PENUP
+            FORWARD 10
+            LEFT 45
+            PENDOWN
+            SETPENCOLOR 255 0 0
+            SETPENSIZE 3
+            RIPETI 360 [FORWARD 5 RIGHT 7]
+            BACK 20
+            HOME
+            SETSCREENCOLOR 0 0 255
+            """;
+
+    Field field;
+
+    @BeforeEach
+    private void allocate() {
+        field = new SquareField(200, 200, new RGBColor(255, 255, 255), new ArrayList<>(),
+                new LineChain(new ArrayList<>(), new RGBColor(0, 0, 0)));
+    }
+
+    @AfterEach
+    private void deallocate() {
+        field = null;
+    }
+
+    private static byte[] toBinary(String text) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        LogoresConverter.toBinary(new BufferedReader(new StringReader(text)), out);
+        return out.toByteArray();
+    }
+
+    private static String toText(byte[] binary) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        LogoresConverter.toText(Channels.newChannel(new ByteArrayInputStream(binary)), sb);
+        return sb.toString();
+    }
+
+    @Test
+    public void checkLosslessConversion() throws IOException {
+        ProgramInterpreter interpreter = new ProgramInterpreter(new DefaultTurtle(field, new Position(100, 100),
+                new RGBColor(0, 0, 0), new RGBColor(255, 255, 255), 1));
+        interpreter.load(new ProgramCompiler().compile(PROGRAM));
+        interpreter.run();
+        String text = new FieldWriter().stringOf(field);
+        byte[] binary = toBinary(text);
+        assertEquals(text, toText(binary));
+        assertTrue(binary.length * 5 < text.length());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new BinaryFieldWriter().writeTo(field, out);
+        assertEquals(text, toText(out.toByteArray()));
+    }
+
+    @Test
+    public void checkUnusualValues() throws IllegalAccessException, IOException {
+        RGBColor red = new RGBColor(255, 0, 0);
+        field.draw(new GLine(new Position(0.5, -0.0), new Position(-3, 1e9), 1), red, null);
+        field.draw(new GLine(new Position(-3, 1e9), new Position(7, 0.1), 4), null, null);
+        field.draw(new GLine(new Position(7, 0.1), new Position(-7e15, 12), 2), new RGBColor(1, 2, 3), null);
+        field.draw(new GLine(new Position(-7e15, 12), new Position(0, 0), 2), new RGBColor(1, 2, 3), null);
+        String text = new FieldWriter().stringOf(field);
+        assertEquals(text, toText(toBinary(text)));
+    }
+
+    @Test
+    public void checkRecords() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        LogoresEncoder encoder = new LogoresEncoder(out, 10, 20, null, new ArrayList<>());
+        encoder.polygon(2, new RGBColor(0, 0, 255));
+        encoder.vertex(1, 2, null, 1);
+        assertThrows(IllegalStateException.class, () -> encoder.line(0, 0, 1, 1, null, 1));
+        encoder.vertex(3, 4, new RGBColor(0, 0, 255), 1);
+        encoder.line(5, 6, 7.5, 8, new RGBColor(0, 0, 255), 2);
+        encoder.finish();
+        LogoresDecoder decoder = new LogoresDecoder(ByteBuffer.wrap(out.toByteArray()));
+        assertEquals(20, decoder.getHeight());
+        assertNull(decoder.getScreenColor());
+        assertEquals(RecordReader.Record.POLYGON, decoder.next());
+        assertEquals(2, decoder.count());
+        assertEquals(RecordReader.Record.VERTEX, decoder.next());
+        assertNull(decoder.color());
+        assertEquals(RecordReader.Record.VERTEX, decoder.next());
+        assertEquals(new RGBColor(0, 0, 255), decoder.color());
+        assertEquals(RecordReader.Record.LINE, decoder.next());
+        assertEquals(7.5, decoder.x2());
+        assertEquals(6, decoder.y1());
+        assertEquals(2, decoder.pensize());
+        assertEquals(RecordReader.Record.END, decoder.next());
+        assertEquals(RecordReader.Record.END, decoder.next());
+        assertThrows(IllegalArgumentException.class, () -> toText("SIZE 1.0".getBytes()));
+        assertThrows(IllegalArgumentException.class, () -> toBinary("LINE 1 2 3\n"));
+    }
+}
@@ -0,0 +1,136 @@
+package it.pa.unicam.stronatisamuele115894.io.logores;
+
+import it.pa.unicam.stronatisamuele115894.controller.ProgramInterpreter;
+import it.pa.unicam.stronatisamuele115894.io.modelWriter.FieldWriter;
+import it.pa.unicam.stronatisamuele115894.model.DefaultTurtle;
+import it.pa.unicam.stronatisamuele115894.model.Field;
+import it.pa.unicam.stronatisamuele115894.model.GLine;
+import it.pa.unicam.stronatisamuele115894.model.GeoPath;
+import it.pa.unicam.stronatisamuele115894.model.GeoSection;
+import it.pa.unicam.stronatisamuele115894.model.LineChain;
+import it.pa.unicam.stronatisamuele115894.model.Position;
+import it.pa.unicam.stronatisamuele115894.model.RGBColor;
+import it.pa.unicam.stronatisamuele115894.model.SquareField;
+import it.pa.unicam.stronatisamuele115894.program.ProgramCompiler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LogoresReaderTest {
+
+    private static final String PROGRAM = """
+            SETFILLCOLOR 0 255 0
+            RIPETI 4 [FORWARD 40 RIGHT 90]
+            PENUP
+            FORWARD 10
+            LEFT 45
+            PENDOWN
+            SETPENCOLOR 255 0 0
+            SETPENSIZE 3
+            RIPETI 100 [FORWARD 5 RIGHT 7]
+            BACK 20
+            HOME
+            SETSCREENCOLOR 0 0 255
+            """;
+
+    Field field;
+    Path file;
+
+    @BeforeEach
+    private void allocate() throws IOException {
+        field = new SquareField(200, 200, new RGBColor(255, 255, 255), new ArrayList<>(),
+                new LineChain(new ArrayList<>(), new RGBColor(0, 0, 0)));
+        ProgramInterpreter interpreter = new ProgramInterpreter(new DefaultTurtle(field, new Position(100, 100),
+                new RGBColor(0, 0, 0), new RGBColor(255, 255, 255), 1));
+        interpreter.load(new ProgramCompiler().compile(PROGRAM));
+        interpreter.run();
+        file = Files.createTempFile("field", ".logores");
+    }
+
+    @AfterEach
+    private void deallocate() throws IOException {
+        Files.deleteIfExists(file);
+        field = null;
+    }
+
+    private String readText(int window) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        try (LogoresReader reader = LogoresReader.open(file, window)) {
+            LogoresConverter.toText(reader, sb);
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void checkTextRecords() throws IOException {
+        String text = new FieldWriter().stringOf(field);
+        Files.writeString(file, text);
+        assertEquals(text, readText(LogoresReader.DEFAULT_WINDOW));
+        assertEquals(text, readText(64));
+        Files.writeString(file, text.replace(System.lineSeparator(), "\r\n"));
+        assertEquals(text, readText(50));
+    }
+
+    @Test
+    public void checkBinaryRecords() throws IOException {
+        String text = new FieldWriter().stringOf(field);
+        try (OutputStream out = Files.newOutputStream(file)) {
+            new BinaryFieldWriter().writeTo(field, out);
+        }
+        assertEquals(text, readText(LogoresReader.DEFAULT_WINDOW));
+    }
+
+    @Test
+    public void checkUnusualNumbers() throws IllegalAccessException, IOException {
+        field.clearScreen();
+        RGBColor red = new RGBColor(255, 0, 0);
+        field.draw(new GLine(new Position(0.1, -0.0), new Position(1e-3, 1.25e7), 1), red, null);
+        field.draw(new GLine(new Position(1e-3, 1.25e7), new Position(12345.678901234567, 3), 2), red, null);
+        String text = new FieldWriter().stringOf(field);
+        Files.writeString(file, text);
+        assertEquals(text, readText(LogoresReader.DEFAULT_WINDOW));
+    }
+
+    @Test
+    public void checkFieldIsRebuilt() throws IOException {
+        String text = new FieldWriter().stringOf(field);
+        Files.writeString(file, text);
+        try (LogoresReader reader = LogoresReader.open(file, 100)) {
+            Field rebuilt = reader.readField();
+            assertEquals(text, new FieldWriter().stringOf(rebuilt));
+            assertEquals(field.getFill(), rebuilt.getFill());
+        }
+        try (LogoresReader reader = LogoresReader.open(file)) {
+            Iterator<GeoSection> sections = reader.sections();
+            for (GeoPath p : field.getPaths())
+                if (p.hasStroke())
+                    for (GeoSection s : p.getPathSections()) {
+                        GeoSection read = sections.next();
+                        assertEquals(s.start(), read.start());
+                        assertEquals(s.end(), read.end());
+                        assertEquals(s.color(), read.color());
+                        assertEquals(s.pensize(), read.pensize());
+                    }
+            assertFalse(sections.hasNext());
+        }
+    }
+
+    @Test
+    public void checkMalformedFile() throws IOException {
+        Files.writeString(file, "SIZE 10.0 10.0 N N N\nLINE 1.0 2.0 3.0 N N N 1\n");
+        try (LogoresReader reader = LogoresReader.open(file)) {
+            assertThrows(IllegalArgumentException.class, reader::next);
+        }
+        Files.writeString(file, "LINE 1.0 2.0 3.0 4.0 N N N 1\n");
+        assertThrows(IllegalArgumentException.class, () -> LogoresReader.open(file));
+    }
+}
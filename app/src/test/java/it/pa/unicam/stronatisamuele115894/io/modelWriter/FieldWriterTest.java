@@ -1,13 +1,25 @@
 package it.pa.unicam.stronatisamuele115894.io.modelWriter;
 
 import it.pa.unicam.stronatisamuele115894.model.Field;
+import it.pa.unicam.stronatisamuele115894.model.GLine;
 import it.pa.unicam.stronatisamuele115894.model.LineChain;
+import it.pa.unicam.stronatisamuele115894.model.Position;
 import it.pa.unicam.stronatisamuele115894.model.RGBColor;
 import it.pa.unicam.stronatisamuele115894.model.SquareField;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 public class FieldWriterTest {
 
@@ -29,4 +41,57 @@ public class FieldWriterTest {
     private void deallocate() {
         field = null;
     }
-}
\ No newline at end of file
+
+    private void drawSquareAndLine() throws IllegalAccessException {
+        RGBColor red = new RGBColor(255, 0, 0);
+        RGBColor blue = new RGBColor(0, 0, 255);
+        field.draw(new GLine(new Position(10, 10), new Position(10, 50), 1), red, blue);
+        field.draw(new GLine(new Position(10, 50), new Position(50, 50), 1), red, blue);
+        field.draw(new GLine(new Position(50, 50), new Position(10, 10), 1), red, blue);
+        field.draw(new GLine(new Position(10, 10), new Position(10, 5), 1), null, null);
+        field.draw(new GLine(new Position(10, 5), new Position(100, 5.5), 2), red, null);
+    }
+
+    @Test
+    public void checkString() throws IllegalAccessException {
+        drawSquareAndLine();
+        assertEquals(String.format("SIZE 200.0 200.0 255 255 255\n" +
+                "POLYGON 3 0 0 255%n" +
+                "10.0 10.0 255 0 0 1%n" +
+                "10.0 50.0 255 0 0 1%n" +
+                "50.0 50.0 255 0 0 1%n" +
+                "LINE 10.0 5.0 100.0 5.5 255 0 0 2%n"), mw.stringOf(field));
+    }
+
+    @Test
+    public void checkStreamedString() throws IllegalAccessException, IOException {
+        drawSquareAndLine();
+        StringWriter writer = new StringWriter();
+        mw.writeTo(field, writer);
+        assertEquals(mw.stringOf(field), writer.toString());
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new FieldWriter().writeTo(field, Channels.newChannel(bytes));
+        assertEquals(mw.stringOf(field), bytes.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void checkParallelString() throws IllegalAccessException, IOException {
+        drawSquareAndLine();
+        Random random = new Random(115894);
+        Position position = new Position(100, 5.5);
+        for (int i = 0; i < 5000; i++) {
+            Position next = new Position(random.nextInt(200), random.nextInt(200) + random.nextDouble());
+            RGBColor stroke = random.nextInt(10) == 0 ? null : new RGBColor(0, 0, random.nextInt(3));
+            field.draw(new GLine(position, i % 50 == 49 ? new Position(10, 5) : next, 1), stroke, null);
+            position = i % 50 == 49 ? new Position(10, 5) : next;
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int chunkLines : new int[]{1, 7, 64, 1000, FieldWriter.DEFAULT_CHUNK_LINES})
+                assertEquals(mw.stringOf(field), new FieldWriter(pool, chunkLines).stringOf(field));
+        } finally {
+            pool.shutdown();
+        }
+        assertThrows(IllegalArgumentException.class, () -> new FieldWriter(ForkJoinPool.commonPool(), 0));
+    }
+}
@@ -0,0 +1,87 @@
+package it.pa.unicam.stronatisamuele115894.io.modelWriter;
+
+import it.pa.unicam.stronatisamuele115894.model.RGBColor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LineFormatterTest {
+
+    LineFormatter formatter;
+
+    @BeforeEach
+    private void allocate() {
+        formatter = new LineFormatter();
+    }
+
+    @AfterEach
+    private void deallocate() {
+        formatter = null;
+    }
+
+    private String format(double value) {
+        return formatter.clear().append(value).toString();
+    }
+
+    private String format(long value) {
+        return formatter.clear().append(value).toString();
+    }
+
+    @Test
+    public void checkDoubles() {
+        assertEquals("0.0", format(0.0));
+        assertEquals("-0.0", format(-0.0));
+        assertEquals("150.0", format(150.0));
+        assertEquals("-42.0", format(-42.0));
+        assertEquals("9999999.0", format(9999999.0));
+        assertEquals("1.0E7", format(1e7));
+        assertEquals("7.25", format(7.25));
+        assertEquals("NaN", format(Double.NaN));
+        assertEquals("-Infinity", format(Double.NEGATIVE_INFINITY));
+        Random random = new Random(115894);
+        for (int i = 0; i < 100000; i++) {
+            double value = switch (i % 3) {
+                case 0 -> Math.round(random.nextGaussian() * 1000);
+                case 1 -> random.nextGaussian() * 1000;
+                default -> Double.longBitsToDouble(random.nextLong());
+            };
+            assertEquals(String.format("%s", value), format(value));
+        }
+    }
+
+    @Test
+    public void checkIntegers() {
+        assertEquals("0", format(0));
+        assertEquals("-7", format(-7));
+        assertEquals(Long.toString(Long.MIN_VALUE), format(Long.MIN_VALUE));
+        assertEquals(Long.toString(Long.MAX_VALUE), format(Long.MAX_VALUE));
+        assertEquals(Integer.toString(Integer.MIN_VALUE), formatter.clear().append(Integer.MIN_VALUE).toString());
+        Random random = new Random(115894);
+        for (int i = 0; i < 100000; i++) {
+            long value = random.nextLong() >> random.nextInt(64);
+            assertEquals(String.format("%d", value), format(value));
+        }
+    }
+
+    @Test
+    public void checkColorsAndLines() throws IOException {
+        formatter.append(new RGBColor(47, 0, 255)).append(' ').append((RGBColor) null).newLine();
+        assertEquals(String.format("47 0 255 N N N%n"), formatter.toString());
+        StringWriter writer = new StringWriter();
+        formatter.writeTo(writer);
+        assertEquals(0, formatter.length());
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 1000; i++)
+            formatter.append(i).append(' ');
+        formatter.writeTo(builder);
+        assertEquals(String.format("47 0 255 N N N%n"), writer.toString());
+        assertTrue(builder.toString().startsWith("0 1 2 3 "));
+        assertTrue(builder.toString().endsWith(" 999 "));
+    }
+}
@@ -1,12 +1,14 @@
 package it.pa.unicam.stronatisamuele115894.io.modelWriter;
 
 
+import it.pa.unicam.stronatisamuele115894.model.ColorPalette;
 import it.pa.unicam.stronatisamuele115894.model.RGBColor;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 public class RGBColorWriterTest {
 
@@ -34,4 +36,15 @@ public class RGBColorWriterTest {
         assertEquals("0 0 0", mw.stringOf(c1));
         assertEquals("45 132 254", mw.stringOf(c2));
     }
+
+    @Test
+    public void checkStringThroughPalette() {
+        ColorPalette palette = new ColorPalette();
+        ModelWriter<RGBColor> pw = new RGBColorWriter(palette);
+        assertEquals("N N N", pw.stringOf(null));
+        assertEquals("0 0 0", pw.stringOf(c1));
+        assertEquals("45 132 254", pw.stringOf(c2));
+        assertSame(pw.stringOf(c2), pw.stringOf(new RGBColor(45,132,254)));
+        assertEquals(2, palette.size());
+    }
 }
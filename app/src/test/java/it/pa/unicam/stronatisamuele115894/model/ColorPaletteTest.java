@@ -0,0 +1,77 @@
+package it.pa.unicam.stronatisamuele115894.model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ColorPaletteTest {
+
+    ColorPalette palette;
+
+    @BeforeEach
+    private void allocate() {
+        palette = new ColorPalette();
+    }
+
+    @AfterEach
+    private void deallocate() {
+        palette = null;
+    }
+
+    @Test
+    public void checkColorsAreInterned() {
+        RGBColor red = new RGBColor(255, 0, 0);
+        assertEquals(0, palette.indexOf(red));
+        assertEquals(1, palette.indexOf(new RGBColor(0, 0, 255)));
+        assertEquals(0, palette.indexOf(new RGBColor(255, 0, 0)));
+        assertSame(red, palette.intern(new RGBColor(255, 0, 0)));
+        assertEquals(2, palette.size());
+    }
+
+    @Test
+    public void checkNoColor() {
+        assertEquals(ColorPalette.NO_COLOR, palette.indexOf(null));
+        assertNull(palette.colorOf(ColorPalette.NO_COLOR));
+        assertNull(palette.intern(null));
+        assertEquals(0, palette.size());
+        assertThrows(IndexOutOfBoundsException.class, () -> palette.colorOf(0));
+    }
+
+    @Test
+    public void checkPackedColors() {
+        RGBColor color = new RGBColor(18, 52, 86);
+        assertEquals(0x123456, ColorPalette.pack(color));
+        assertEquals(color, ColorPalette.unpack(0x123456));
+        assertEquals(new RGBColor(255, 255, 255), ColorPalette.unpack(0xFFFFFF));
+        assertThrows(IllegalArgumentException.class, () -> ColorPalette.unpack(0x1000000));
+        assertThrows(IllegalArgumentException.class, () -> ColorPalette.unpack(-1));
+    }
+
+    @Test
+    public void checkPaletteGrowsAndClears() {
+        for (int i = 0; i < 1000; i++)
+            assertEquals(i, palette.indexOf(ColorPalette.unpack(i * 997)));
+        for (int i = 0; i < 1000; i++)
+            assertEquals(ColorPalette.unpack(i * 997), palette.colorOf(i));
+        palette.clear();
+        assertEquals(0, palette.size());
+        assertEquals(0, palette.indexOf(new RGBColor(1, 2, 3)));
+    }
+
+    @Test
+    public void checkFieldSharesInternedColors() throws IllegalAccessException {
+        SquareField field = new SquareField(100, 100, new RGBColor(255, 255, 255),
+                new ArrayList<>(), new LineChain(new ArrayList<>(), new RGBColor(0, 0, 0)));
+        field.draw(new GLine(new Position(0, 0), new Position(10, 0), 1), new RGBColor(255, 0, 0), null);
+        field.draw(new GLine(new Position(10, 0), new Position(10, 10), 1), new RGBColor(255, 0, 0), null);
+        List<? extends GeoSection> sections = field.getDrawingPath().getPathSections();
+        assertSame(sections.get(0).color().orElseThrow(), sections.get(1).color().orElseThrow());
+        assertSame(field.getPalette().intern(new RGBColor(255, 0, 0)), sections.get(0).color().orElseThrow());
+        assertSame(field.getFill(), field.getPalette().intern(new RGBColor(255, 255, 255)));
+    }
+}
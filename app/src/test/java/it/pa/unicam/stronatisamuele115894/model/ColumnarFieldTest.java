@@ -0,0 +1,149 @@
+package it.pa.unicam.stronatisamuele115894.model;
+
+
+import it.pa.unicam.stronatisamuele115894.controller.ProgramInterpreter;
+import it.pa.unicam.stronatisamuele115894.io.modelWriter.FieldWriter;
+import it.pa.unicam.stronatisamuele115894.program.ProgramCompiler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ColumnarFieldTest {
+
+    private static final String PROGRAM = """
+            SETFILLCOLOR 0 255 0
+            RIPETI 4 [FORWARD 40 RIGHT 90]
+            PENUP
+            FORWARD 10
+            LEFT 45
+            PENDOWN
+            SETPENCOLOR 255 0 0
+            SETPENSIZE 3
+            RIPETI 36 [FORWARD 5 RIGHT 10]
+            BACK 20
+            HOME
+            SETSCREENCOLOR 0 0 255
+            """;
+
+    Field field;
+
+    @BeforeEach
+    private void createField() {
+        field = new ColumnarField(200, 200, new RGBColor(255, 255, 255),
+                new LineChain(new ArrayList<>(), new RGBColor(0, 0, 0)));
+    }
+
+    @AfterEach
+    private void deallocate() {
+        field = null;
+    }
+
+    private String draw(Field f, String program) {
+        Turtle turtle = new DefaultTurtle(f, new Position(100, 100),
+                new RGBColor(0, 0, 0), new RGBColor(255, 255, 255), 1);
+        ProgramInterpreter interpreter = new ProgramInterpreter(turtle);
+        interpreter.load(new ProgramCompiler().compile(program));
+        interpreter.run();
+        return new FieldWriter().stringOf(f);
+    }
+
+    @Test
+    public void checkSameOutputOfSquareField() {
+        Field squareField = new SquareField(200, 200, new RGBColor(255, 255, 255), new ArrayList<>(),
+                new LineChain(new ArrayList<>(), new RGBColor(0, 0, 0)));
+        assertEquals(draw(squareField, PROGRAM), draw(field, PROGRAM));
+        assertEquals(squareField.getPaths().size(), field.getPaths().size());
+        for (int i = 0; i < field.getPaths().size(); i++) {
+            GeoPath expected = squareField.getPaths().get(i);
+            GeoPath actual = field.getPaths().get(i);
+            assertEquals(expected.getPathSections().size(), actual.getPathSections().size());
+            assertEquals(expected.isClosed(), actual.isClosed());
+            assertEquals(expected.start(), actual.start());
+            assertEquals(expected.stroke(), actual.stroke());
+            assertEquals(expected.fill(), actual.fill());
+        }
+    }
+
+    @Test
+    public void checkSameOutputWithDirectStore() {
+        Field squareField = new SquareField(200, 200, new RGBColor(255, 255, 255), new ArrayList<>(),
+                new LineChain(new ArrayList<>(), new RGBColor(0, 0, 0)));
+        field = new ColumnarField(200, 200, new RGBColor(255, 255, 255),
+                new LineChain(new ArrayList<>(), new RGBColor(0, 0, 0)), new DirectSegmentStore(4));
+        assertEquals(draw(squareField, PROGRAM), draw(field, PROGRAM));
+    }
+
+    @Test
+    public void checkDirectStoreIsResetOnClearScreen() {
+        DirectSegmentStore store = new DirectSegmentStore(8);
+        field = new ColumnarField(200, 200, new RGBColor(255, 255, 255),
+                new LineChain(new ArrayList<>(), new RGBColor(0, 0, 0)), store);
+        draw(field, PROGRAM);
+        assertTrue(store.allocatedBytes() > 8 * (24 + 32));
+        field.clearScreen();
+        assertEquals(8 * (24 + 32), store.allocatedBytes());
+        assertEquals(0, store.sections());
+        assertEquals(1, store.paths());
+        assertThrows(IllegalArgumentException.class, () -> new DirectSegmentStore(6),
+                "The records of a block must be a positive power of two!");
+    }
+
+    @Test
+    public void checkSectionsAreAdjacent() throws IllegalAccessException {
+        assertTrue(field.draw(new GLine(new Position(0, 0), new Position(10, 10), 1),
+                new RGBColor(0, 0, 0), new RGBColor(0, 0, 0)));
+        assertFalse(field.draw(new GLine(new Position(10, 10), new Position(300, 10), 1),
+                new RGBColor(0, 0, 0), new RGBColor(0, 0, 0)));
+        assertThrows(IllegalArgumentException.class,
+                () -> field.draw(new GLine(new Position(5, 5), new Position(20, 20), 1),
+                        new RGBColor(0, 0, 0), new RGBColor(0, 0, 0)),
+                "Sections should be adjacent!");
+        GLine section = (GLine) field.getDrawingPath().getPathSections().get(0);
+        assertEquals(new Position(0, 0), section.start());
+        assertEquals(new Position(10, 10), section.end());
+        assertEquals(new RGBColor(0, 0, 0), section.color().orElseThrow());
+    }
+
+    @Test
+    public void checkOnlyDrawingPathIsExtended() throws IllegalAccessException {
+        field.draw(new GLine(new Position(0, 0), new Position(10, 10), 1), new RGBColor(0, 0, 0), null);
+        field.draw(new GLine(new Position(10, 10), new Position(20, 20), 1), null, null);
+        assertEquals(2, field.getPaths().size());
+        GeoPath first = field.getPaths().get(0);
+        assertThrows(IllegalStateException.class,
+                () -> first.add(new GLine(new Position(10, 10), new Position(30, 30), 1)));
+        assertThrows(UnsupportedOperationException.class, () -> field.getPaths().clear());
+    }
+
+    @Test
+    public void checkClearScreen() {
+        draw(field, PROGRAM);
+        field.clearScreen();
+        assertEquals(1, field.getPaths().size());
+        assertTrue(field.getDrawingPath().getPathSections().isEmpty());
+        assertEquals(new RGBColor(255, 255, 255), field.getFill());
+        assertEquals(new RGBColor(0, 0, 0), field.getDrawingPath().stroke().orElseThrow());
+    }
+
+    @Test
+    public void checkSameSectionsOfSquareField() {
+        Field squareField = new SquareField(200, 200, new RGBColor(255, 255, 255), new ArrayList<>(),
+                new LineChain(new ArrayList<>(), new RGBColor(0, 0, 0)));
+        draw(squareField, PROGRAM);
+        draw(field, PROGRAM);
+        for (int x = 0; x < 200; x += 20)
+            for (int y = 0; y < 200; y += 20) {
+                assertEquals(squareField.getSectionsWithin(x, y, x + 30, y + 30).toString(),
+                        field.getSectionsWithin(x, y, x + 30, y + 30).toString());
+                assertEquals(squareField.getNearestSection(new Position(x, y), 25).map(Object::toString),
+                        field.getNearestSection(new Position(x, y), 25).map(Object::toString));
+            }
+        field.clearScreen();
+        assertTrue(field.getSectionsWithin(0, 0, 200, 200).isEmpty());
+    }
+}
@@ -64,6 +64,21 @@ public class DefaultTurtleTest {
     }
 
 
+    @Test
+    public void checkComputedPositionsForEveryDirection() {
+        initializeTurtle();
+        turtle.setPosition(new Position(100.5, 99.5));
+        for (int d = -359; d < 360; d++) {
+            turtle.setDirection(d);
+            double rad = Math.toRadians(d);
+            for (int n : new int[]{ 1, 7, 33, 99 }) {
+                Position expected = new Position(Math.round(100.5 + n * Math.cos(rad)),
+                        Math.round(99.5 - n * Math.sin(rad)));
+                assertEquals(expected, turtle.computeNewPosition(n, -n));
+            }
+        }
+    }
+
     @Test
     public void checkNewPositions() {
         initializeTurtle();
@@ -88,11 +103,12 @@ public class DefaultTurtleTest {
         turtle.setPlot(false);
         turtle.move(new Position(56,23), new GLine(turtle.getPosition(), new Position(56,23), 1));
         assertEquals(2, field.getPaths().get(0).getPathSections().size());
-        assertEquals(1, field.getPaths().get(1).getPathSections().size());
-        assertTrue(field.getDrawingPath().stroke().isEmpty());
+        assertEquals(2, field.getPaths().size());
+        assertTrue(field.getDrawingPath().getPathSections().isEmpty());
         turtle.setPlot(true);
         turtle.move(new Position(11,11), new GLine(turtle.getPosition(), new Position(11,11), 1));
-        assertEquals(1, field.getPaths().get(2).getPathSections().size());
+        assertEquals(2, field.getPaths().size());
+        assertEquals(1, field.getPaths().get(1).getPathSections().size());
         assertTrue(field.getDrawingPath().stroke().isPresent());
     }
 
@@ -119,9 +135,9 @@ public class DefaultTurtleTest {
         turtle.move(new Position(15,15), new GLine(turtle.getPosition(), new Position(15,15),1));
         turtle.move(new Position(18,18), new GLine(turtle.getPosition(), new Position(18,18),1));
         turtle.move(new Position(5,8), new GLine(turtle.getPosition(), new Position(5,8),1));
-        assertEquals(3, field.getPaths().size());
-        assertEquals(4, field.getPaths().get(2).getPathSections().size());
-        assertTrue(field.getPaths().get(2).isClosed());
+        assertEquals(2, field.getPaths().size());
+        assertEquals(4, field.getPaths().get(1).getPathSections().size());
+        assertTrue(field.getPaths().get(1).isClosed());
     }
 
     @Test
@@ -137,8 +153,27 @@ public class DefaultTurtleTest {
         turtle.setPlot(true);
         turtle.move(new Position(18,18), new GLine(turtle.getPosition(), new Position(18,18),1));
         turtle.move(new Position(5,8), new GLine(turtle.getPosition(), new Position(5,8),1));
-        assertEquals(5, field.getPaths().size());
-        assertEquals(2, field.getPaths().get(4).getPathSections().size());
-        assertFalse(field.getPaths().get(4).isClosed());
+        assertEquals(3, field.getPaths().size());
+        assertEquals(2, field.getPaths().get(2).getPathSections().size());
+        assertFalse(field.getPaths().get(2).isClosed());
+    }
+
+    @Test
+    public void checkSilentTurtle() {
+        initializeTurtle();
+        assertFalse(turtle.setDirection(90).isEmpty());
+        turtle.setSilent(true);
+        assertTrue(turtle.isSilent());
+        assertTrue(field.isSilent());
+        assertEquals("", turtle.setDirection(180));
+        assertEquals(180, turtle.getDirection());
+        assertEquals("", turtle.setPenSize(3));
+        assertEquals("", turtle.move(new Position(15,15),new GLine(turtle.getPosition(), new Position(15,15),1)));
+        assertEquals(new Position(15,15), turtle.getPosition());
+        assertEquals("", turtle.clearScreen());
+        assertEquals(startPosition, turtle.getPosition());
+        turtle.setSilent(false);
+        assertFalse(field.isSilent());
+        assertFalse(turtle.setPlot(false).isEmpty());
     }
 }
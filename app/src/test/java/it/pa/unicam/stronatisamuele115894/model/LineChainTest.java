@@ -91,6 +91,23 @@ public class LineChainTest {
         createPolygonWithThreeSections();
     }
 
+    @Test
+    public void checkEndpointsOfCopies() throws IllegalAccessException {
+        GeoPath copy = createPolygonWithThreeSections().makeCopy();
+        assertEquals(new Position(5,5), copy.start().orElseThrow());
+        assertEquals(new Position(5,5), copy.end().orElseThrow());
+        assertTrue(copy.isClosed());
+        assertTrue(copy.hasStroke());
+        GeoPath empty = new LineChain(new ArrayList<>(), null);
+        assertFalse(empty.isClosed());
+        assertFalse(empty.hasStroke());
+        assertFalse(empty.makeCopy().isClosed());
+        assertTrue(addSectionToPath(empty, new GLine(new Position(1,1),new Position (2,2),2), null));
+        assertEquals(new Position(1,1), empty.start().orElseThrow());
+        assertEquals(new Position(2,2), empty.end().orElseThrow());
+        assertFalse(empty.hasStroke());
+    }
+
 
 
     @Test
@@ -0,0 +1,104 @@
+package it.pa.unicam.stronatisamuele115894.model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SegmentIndexTest {
+
+    SegmentIndex index;
+
+    @BeforeEach
+    private void allocate() {
+        index = new SegmentIndex(100, 100);
+    }
+
+    @AfterEach
+    private void deallocate() {
+        index = null;
+    }
+
+    @Test
+    public void checkRegionQuery() {
+        index.insert(10, 10, 20, 10);
+        index.insert(20, 10, 90, 90);
+        index.insert(0, 99, 99, 99);
+        index.insert(60, 0, 60, 40);
+        assertArrayEquals(new int[]{0, 1}, index.query(15, 5, 25, 15));
+        assertArrayEquals(new int[]{1}, index.query(50, 50, 55, 55));
+        assertArrayEquals(new int[]{3}, index.query(55, 0, 65, 5));
+        assertArrayEquals(new int[]{}, index.query(70, 10, 80, 20));
+        assertArrayEquals(new int[]{0, 1, 2, 3}, index.query(0, 0, 100, 100));
+    }
+
+    @Test
+    public void checkNearestSegment() {
+        index.insert(10, 10, 20, 10);
+        index.insert(20, 10, 20, 50);
+        assertEquals(0, index.nearest(15, 12, 5));
+        assertEquals(1, index.nearest(23, 30, 5));
+        assertEquals(0, index.nearest(20, 10, 5));
+        assertEquals(-1, index.nearest(80, 80, 5));
+        assertEquals(5, index.distance(1, 25, 50), 1e-9);
+    }
+
+    @Test
+    public void checkSegmentsOutsideOfTheArea() {
+        index.insert(-10, -10, -5, -5);
+        index.insert(50, 50, 150, 50);
+        assertArrayEquals(new int[]{0}, index.query(-20, -20, -6, -6));
+        assertArrayEquals(new int[]{1}, index.query(120, 40, 130, 60));
+        assertEquals(0, index.nearest(-6, -4, 2));
+    }
+
+    @Test
+    public void checkSameResultsOfLinearScan() {
+        Random random = new Random(115894);
+        double[][] segments = new double[5000][];
+        for (int i = 0; i < segments.length; i++) {
+            double x = random.nextDouble() * 100, y = random.nextDouble() * 100;
+            double[] segment = {x, y, x + random.nextGaussian() * 3, y + random.nextGaussian() * 3};
+            assertEquals(i, index.insert(segment[0], segment[1], segment[2], segment[3]));
+            segments[i] = segment;
+        }
+        for (int q = 0; q < 200; q++) {
+            double x = random.nextDouble() * 100, y = random.nextDouble() * 100, size = random.nextDouble() * 10;
+            int[] expected = IntStream.range(0, segments.length)
+                    .filter(i -> intersects(segments[i], x, y, x + size, y + size))
+                    .toArray();
+            assertArrayEquals(expected, index.query(x, y, x + size, y + size));
+            int nearest = index.nearest(x, y, size);
+            int linear = IntStream.range(0, segments.length)
+                    .filter(i -> index.distance(i, x, y) <= size)
+                    .boxed()
+                    .min((i, j) -> Double.compare(index.distance(i, x, y), index.distance(j, x, y)))
+                    .orElse(-1);
+            assertEquals(linear < 0 ? -1 : index.distance(linear, x, y),
+                    nearest < 0 ? -1 : index.distance(nearest, x, y));
+        }
+        index.clear();
+        assertEquals(0, index.size());
+        assertArrayEquals(new int[]{}, index.query(0, 0, 100, 100));
+    }
+
+    private static boolean intersects(double[] s, double minX, double minY, double maxX, double maxY) {
+        if (Math.max(s[0], s[2]) < minX || Math.min(s[0], s[2]) > maxX
+                || Math.max(s[1], s[3]) < minY || Math.min(s[1], s[3]) > maxY)
+            return false;
+        double[][] corners = {{minX, minY}, {maxX, minY}, {maxX, maxY}, {minX, maxY}};
+        int above = 0, below = 0;
+        for (double[] corner : corners) {
+            double cross = (s[2] - s[0]) * (corner[1] - s[1]) - (s[3] - s[1]) * (corner[0] - s[0]);
+            if (cross > 0)
+                above++;
+            else if (cross < 0)
+                below++;
+        }
+        return above < 4 && below < 4;
+    }
+}
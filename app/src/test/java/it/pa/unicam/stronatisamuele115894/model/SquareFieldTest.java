@@ -8,6 +8,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
+import java.util.List;
 
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -126,18 +127,66 @@ public class SquareFieldTest {
                 new Position(18, 18),
                 new Position(58, 45),
                 1)));
-        assertEquals(3, field.getPaths().size());
+        assertEquals(2, field.getPaths().size());
         assertEquals(1, field.getPaths().get(0).getPathSections().size());
         assertEquals(2, field.getPaths().get(1).getPathSections().size());
-        assertEquals(2, field.getPaths().get(2).getPathSections().size());
     }
 
 
+    @Test
+    public void checkSectionsWithin() throws IllegalAccessException {
+        checkDraw();
+        List<GeoSection> sections = field.getSectionsWithin(14, 14, 17, 17);
+        assertEquals(2, sections.size());
+        assertSame(field.getPaths().get(0).getPathSections().get(0), sections.get(0));
+        assertSame(field.getPaths().get(1).getPathSections().get(0), sections.get(1));
+        assertEquals(List.of(field.getPaths().get(1).getPathSections().get(1)),
+                field.getSectionsWithin(50, 35, 60, 45));
+        assertTrue(field.getSectionsWithin(100, 100, 200, 200).isEmpty());
+    }
+
+    @Test
+    public void checkNearestSection() throws IllegalAccessException {
+        checkDraw();
+        assertSame(field.getPaths().get(1).getPathSections().get(1),
+                field.getNearestSection(new Position(40, 30), 5).orElseThrow());
+        assertSame(field.getPaths().get(0).getPathSections().get(0),
+                field.getNearestSection(new Position(2, 3), 5).orElseThrow());
+        assertTrue(field.getNearestSection(new Position(150, 150), 5).isEmpty());
+    }
+
+    @Test
+    public void checkSectionsDrawnAfterAQuery() throws IllegalAccessException {
+        assertTrue(addToField(new GLine(new Position(2, 2), new Position(15, 18), 1)));
+        assertEquals(1, field.getSectionsWithin(0, 0, 200, 200).size());
+        assertTrue(addToField(new GLine(new Position(15, 18), new Position(40, 18), 1)));
+        assertTrue(addEmptyToField(new GLine(new Position(40, 18), new Position(60, 60), 1)));
+        assertTrue(addToField(new GLine(new Position(60, 60), new Position(80, 60), 1)));
+        assertSame(field.getPaths().get(0).getPathSections().get(1),
+                field.getNearestSection(new Position(30, 20), 5).orElseThrow());
+        assertEquals(List.of(field.getPaths().get(1).getPathSections().get(0)),
+                field.getSectionsWithin(55, 55, 65, 65));
+        assertEquals(3, field.getSectionsWithin(0, 0, 200, 200).size());
+    }
+
+    @Test
+    public void checkPenUpSectionsAreNotStored() throws IllegalAccessException {
+        assertTrue(addEmptyToField(new GLine(new Position(2, 2), new Position(15, 18), 1)));
+        assertTrue(addEmptyToField(new GLine(new Position(15, 18), new Position(16, 16), 1)));
+        assertEquals(1, field.getPaths().size());
+        assertTrue(field.getDrawingPath().getPathSections().isEmpty());
+        assertTrue(field.getSectionsWithin(0, 0, 200, 200).isEmpty());
+        assertTrue(addToField(new GLine(new Position(16, 16), new Position(17, 17), 1)));
+        assertEquals(1, field.getPaths().size());
+        assertEquals(new Position(16, 16), field.getDrawingPath().start().orElseThrow());
+    }
+
     @Test
     public void clearScreen() throws IllegalAccessException {
         checkDraw();
         field.clearScreen();
         assertEquals(1, field.getPaths().size());
         assertEquals(0, field.getPaths().get(0).getPathSections().size());
+        assertTrue(field.getSectionsWithin(0, 0, 200, 200).isEmpty());
     }
 }
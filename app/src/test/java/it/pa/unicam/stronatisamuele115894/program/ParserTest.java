@@ -0,0 +1,65 @@
+package it.pa.unicam.stronatisamuele115894.program;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParserTest {
+
+    @Test
+    public void checkTokens() {
+        Lexer lexer = new Lexer("RIPETI 4 [FORWARD -50\n  RIGHT 90]");
+        assertEquals(new Token(Token.Type.WORD, "RIPETI", 1, 1), lexer.next());
+        assertEquals(new Token(Token.Type.NUMBER, "4", 1, 8), lexer.next());
+        assertEquals(new Token(Token.Type.OPEN_BRACKET, "[", 1, 10), lexer.next());
+        assertEquals(new Token(Token.Type.WORD, "FORWARD", 1, 11), lexer.next());
+        assertEquals(new Token(Token.Type.NUMBER, "-50", 1, 19), lexer.next());
+        assertEquals(new Token(Token.Type.WORD, "RIGHT", 2, 3), lexer.next());
+        assertEquals(new Token(Token.Type.NUMBER, "90", 2, 9), lexer.next());
+        assertEquals(new Token(Token.Type.CLOSE_BRACKET, "]", 2, 11), lexer.next());
+        assertEquals(Token.Type.EOF, lexer.next().type());
+        assertEquals(Token.Type.EOF, lexer.next().type());
+    }
+
+    @Test
+    public void checkProgram() {
+        List<Statement> program = new Parser("""
+                FORWARD 50
+                this line is ignored
+                SETPENCOLOR 255 0 0 RIPETI 2 [RIPETI 3 [LEFT 120] BACK 5]
+                """).parseProgram();
+        assertEquals(List.of(
+                new Command(Opcode.FORWARD, List.of(50), 1, 1),
+                new Command(Opcode.SETPENCOLOR, List.of(255, 0, 0), 3, 1),
+                new Repeat(2, List.of(
+                        new Repeat(3, List.of(new Command(Opcode.LEFT, List.of(120), 3, 41)), 3, 31),
+                        new Command(Opcode.BACK, List.of(5), 3, 51)), 3, 21)), program);
+        assertEquals("RIPETI 2 [RIPETI 3 [LEFT 120] BACK 5]", program.get(2).source());
+    }
+
+    @Test
+    public void checkBlock() {
+        assertEquals(List.of(new Command(Opcode.PENUP, List.of(), 1, 2)),
+                new Parser("[PENUP]").parseBlock());
+        assertTrue(new Parser("[ ]").parseBlock().isEmpty());
+    }
+
+    @Test
+    public void checkIfIllegalArgumentExceptionIsThrown() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new Parser("RIPETI 4 [FORWARD 10").parseProgram(),
+                "Syntax error: missing ']'");
+        assertThrows(IllegalArgumentException.class,
+                () -> new Parser("RIPETI 4 FORWARD 10").parseProgram());
+        assertThrows(IllegalArgumentException.class,
+                () -> new Parser("FORWARD ten").parseProgram());
+        assertThrows(IllegalArgumentException.class,
+                () -> new Parser("FORWARD 99999999999").parseProgram());
+        assertThrows(IllegalArgumentException.class,
+                () -> new Parser("RIPETI 4 [JUMP 10]").parseProgram());
+        assertThrows(IllegalArgumentException.class,
+                () -> new Parser("[FORWARD 10] RIGHT 5").parseBlock());
+    }
+}
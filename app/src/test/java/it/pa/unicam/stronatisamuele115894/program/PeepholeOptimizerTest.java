@@ -0,0 +1,156 @@
+package it.pa.unicam.stronatisamuele115894.program;
+
+import it.pa.unicam.stronatisamuele115894.controller.ProgramInterpreter;
+import it.pa.unicam.stronatisamuele115894.controller.SessionInjector;
+import it.pa.unicam.stronatisamuele115894.io.modelWriter.FieldWriter;
+import it.pa.unicam.stronatisamuele115894.model.Turtle;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PeepholeOptimizerTest {
+
+    private static final String[] COLORS = { "255 0 0", "0 255 0", "0 0 255" };
+
+    ProgramCompiler compiler;
+    PeepholeOptimizer optimizer;
+
+    @BeforeEach
+    private void allocate() {
+        compiler = new ProgramCompiler();
+        optimizer = new PeepholeOptimizer();
+    }
+
+    @AfterEach
+    private void deallocate() {
+        compiler = null;
+        optimizer = null;
+    }
+
+    private String optimized(String source) {
+        return optimizer.optimize(compiler.compile(source)).toString().strip();
+    }
+
+    private String optimized(String source, Turtle turtle) {
+        return optimizer.optimize(compiler.compile(source), turtle).toString().strip();
+    }
+
+    private String run(Program program, Turtle turtle) {
+        ProgramInterpreter interpreter = new ProgramInterpreter(turtle);
+        interpreter.load(program);
+        interpreter.run();
+        return String.format("%s%s %d %s %s %d %b", new FieldWriter().stringOf(turtle.getField()),
+                turtle.getPosition(), turtle.getDirection(), turtle.getStroke(), turtle.getFill(),
+                turtle.getPenSize(), turtle.getPlot());
+    }
+
+    @Test
+    public void checkRotationsAreFolded() {
+        assertEquals("RIGHT 135", optimized("RIGHT 90\nRIGHT 45"));
+        assertEquals("LEFT 30", optimized("LEFT 10\nRIGHT -20\nRIGHT 0"));
+        assertEquals("RIGHT 90\nLEFT 45", optimized("RIGHT 90\nLEFT 45"));
+    }
+
+    @Test
+    public void checkDeadStoresAreRemoved() {
+        assertEquals("SETPENSIZE 3\nFORWARD 10", optimized("SETPENSIZE 2\nSETPENSIZE 3\nFORWARD 10"));
+        assertEquals("PENDOWN", optimized("SETPENCOLOR 255 0 0\nPENUP\nPENDOWN"));
+        assertEquals("PENUP\nSETPENCOLOR 255 0 0",
+                optimized("PENUP\nSETPENCOLOR 0 0 255\nSETPENCOLOR 255 0 0"));
+        assertEquals("SETPENSIZE 2\nRIPETI 4 [FORWARD 10 RIGHT 90]\nSETPENSIZE 3",
+                optimized("SETPENSIZE 2\nRIPETI 4 [FORWARD 10 RIGHT 90]\nSETPENSIZE 3"));
+    }
+
+    @Test
+    public void checkWipedDrawingIsRemoved() {
+        Turtle turtle = SessionInjector.provideTurtle();
+        assertEquals("RIGHT 90\nPENDOWN\nCLEARSCREEN\nFORWARD 5",
+                optimized("FORWARD 10\nRIGHT 90\nRIPETI 10 [BACK 1]\nHOME\nSETSCREENCOLOR 255 0 0\nCLEARSCREEN\nFORWARD 5", turtle));
+        assertEquals("FORWARD 10\nRIPETI 4 [FORWARD 10 RIGHT 90]\nCLEARSCREEN",
+                optimized("FORWARD 10\nRIPETI 4 [FORWARD 10 RIGHT 90]\nCLEARSCREEN", turtle));
+        assertEquals("CLEARSCREEN", optimized("RIPETI 3 [SETSCREENCOLOR 255 0 0]\nCLEARSCREEN"));
+    }
+
+    @Test
+    public void checkWipedMovesLeavingTheFieldAreKept() {
+        Turtle turtle = SessionInjector.provideTurtle();
+        assertEquals("FORWARD 10\nRIGHT 90\nRIPETI 10 [BACK 1]\nPENDOWN\nCLEARSCREEN\nFORWARD 5",
+                optimized("FORWARD 10\nRIGHT 90\nRIPETI 10 [BACK 1]\nHOME\nSETSCREENCOLOR 255 0 0\nCLEARSCREEN\nFORWARD 5"));
+        assertEquals("FORWARD 60\nFORWARD 60\nCLEARSCREEN",
+                optimized("FORWARD 60\nFORWARD 60\nCLEARSCREEN", turtle));
+        String source = "FORWARD 19\nRIPETI 4 [FORWARD 18 SETPENSIZE 4]\nSETFILLCOLOR 241 0 7\nFORWARD 10\n"
+                + "PENDOWN\nCLEARSCREEN\nBACK 10\nRIGHT 90";
+        assertEquals(source, optimized(source, turtle));
+        Program program = compiler.compile(source);
+        assertThrows(IllegalArgumentException.class, () -> run(program, SessionInjector.provideTurtle()));
+        Turtle other = SessionInjector.provideTurtle();
+        assertThrows(IllegalArgumentException.class, () -> run(optimizer.optimize(program, other), other));
+        assertEquals("HOME\nFORWARD 150\nCLEARSCREEN", optimized("HOME\nFORWARD 150\nCLEARSCREEN", turtle));
+    }
+
+    @Test
+    public void checkLoopsAreSimplified() {
+        assertEquals("FORWARD 10\nRIGHT 90", optimized("RIPETI 1 [FORWARD 10 RIGHT 90]\nRIPETI 0 [LEFT 5]"));
+        assertEquals("RIPETI 3 [RIGHT 30]", optimized("RIPETI 3 [RIGHT 10 RIPETI 1 [RIGHT 20]]\nRIPETI 5 [RIGHT 0]"));
+    }
+
+    @Test
+    public void checkPenUpMovesAreMerged() {
+        Turtle turtle = SessionInjector.provideTurtle();
+        assertEquals("PENUP\nFORWARD 30\nRIGHT 90\nBACK 12\nPENDOWN\nFORWARD 10\nFORWARD 10",
+                optimized("PENUP\nFORWARD 10\nFORWARD 20\nRIGHT 90\nBACK 5\nFORWARD -7\nPENDOWN\nFORWARD 10\nFORWARD 10", turtle));
+        assertEquals("PENUP\nRIGHT 45\nFORWARD 10\nFORWARD 10",
+                optimized("PENUP\nRIGHT 45\nFORWARD 10\nFORWARD 10", turtle));
+        assertEquals("PENUP\nFORWARD 10\nFORWARD 10", optimized("PENUP\nFORWARD 10\nFORWARD 10"));
+    }
+
+    @Test
+    public void checkOptimizedProgramDrawsTheSameField() {
+        Random random = new Random(115894);
+        for (int i = 0; i < 3000; i++) {
+            Program program = compiler.compile(randomProgram(random, 40, 2));
+            Turtle other = SessionInjector.provideTurtle();
+            assertEquals(outcome(program, SessionInjector.provideTurtle()),
+                    outcome(optimizer.optimize(program, other), other), program.toString());
+        }
+    }
+
+    /*
+     * A program which fails has the same outcome as another one only if they fail with
+     * the same message, leaving the same field and turtle.
+     */
+    private String outcome(Program program, Turtle turtle) {
+        try {
+            return run(program, turtle);
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+    }
+
+    private String randomProgram(Random random, int length, int depth) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            switch (random.nextInt(depth > 0 ? 14 : 13)) {
+                case 0, 1 -> sb.append("FORWARD ").append(random.nextInt(30) - 5);
+                case 2 -> sb.append("BACK ").append(random.nextInt(30) - 5);
+                case 3 -> sb.append("RIGHT ").append(90 * random.nextInt(3) + (random.nextBoolean() ? 0 : random.nextInt(400) - 50));
+                case 4 -> sb.append("LEFT ").append(90 * random.nextInt(3) + (random.nextBoolean() ? 0 : random.nextInt(400) - 50));
+                case 5, 6 -> sb.append(random.nextBoolean() ? "PENUP" : "PENDOWN");
+                case 7 -> sb.append("SETPENSIZE ").append(random.nextInt(3) + 1);
+                case 8 -> sb.append("SETPENCOLOR ").append(COLORS[random.nextInt(COLORS.length)]);
+                case 9 -> sb.append("SETFILLCOLOR ").append(COLORS[random.nextInt(COLORS.length)]);
+                case 10 -> sb.append("SETSCREENCOLOR ").append(COLORS[random.nextInt(COLORS.length)]);
+                case 11 -> sb.append(random.nextInt(4) == 0 ? "CLEARSCREEN" : "HOME");
+                case 12 -> sb.append("RIGHT 0");
+                default -> sb.append("RIPETI ").append(random.nextInt(4)).append(" [")
+                        .append(randomProgram(random, random.nextInt(6), depth - 1).replace('\n', ' ')).append(']');
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+}
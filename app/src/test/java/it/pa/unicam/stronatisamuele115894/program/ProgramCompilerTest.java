@@ -0,0 +1,89 @@
+package it.pa.unicam.stronatisamuele115894.program;
+
+import it.pa.unicam.stronatisamuele115894.model.RGBColor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProgramCompilerTest {
+
+    ProgramCompiler compiler;
+
+    @BeforeEach
+    private void allocate() {
+        compiler = new ProgramCompiler();
+    }
+
+    @AfterEach
+    private void deallocate() {
+        compiler = null;
+    }
+
+    @Test
+    public void checkCompiledInstructions() {
+        Program program = compiler.compileTokens(List.of(
+                List.of("FORWARD", "50"),
+                List.of("RIGHT", "90"),
+                List.of("PENUP")));
+        assertEquals(5, program.size());
+        assertEquals(Opcode.FORWARD.ordinal(), program.opcode(0));
+        assertEquals(50, program.operand(0, 0));
+        assertEquals(Opcode.RIGHT.ordinal(), program.opcode(2));
+        assertEquals(90, program.operand(2, 0));
+        assertEquals(Opcode.PENUP.ordinal(), program.opcode(4));
+    }
+
+    @Test
+    public void checkConstantPool() {
+        Program program = compiler.compileTokens(List.of(
+                List.of("SETPENCOLOR", "255", "0", "0"),
+                List.of("SETFILLCOLOR", "0", "0", "255"),
+                List.of("SETSCREENCOLOR", "255", "0", "0")));
+        assertEquals(2, program.constants());
+        assertEquals(new RGBColor(255, 0, 0), program.constant(program.operand(0, 0)));
+        assertEquals(new RGBColor(0, 0, 255), program.constant(program.operand(2, 0)));
+        assertEquals(program.operand(0, 0), program.operand(4, 0));
+    }
+
+    @Test
+    public void checkRepeatIsCompiledOnce() {
+        Program program = compiler.compileTokens(List.of(
+                List.of("RIPETI", "1000", "[FORWARD 1 RIGHT 1]")));
+        assertEquals(9, program.size());
+        assertEquals(Opcode.REPEAT.ordinal(), program.opcode(0));
+        assertEquals(1000, program.operand(0, 0));
+        assertEquals(program.size(), program.operand(0, 1));
+        assertEquals(Opcode.LOOP.ordinal(), program.opcode(7));
+        assertEquals(3, program.operand(7, 0));
+        assertEquals("RIPETI 1000 [FORWARD 1 RIGHT 1]", program.instructionString(0));
+    }
+
+    @Test
+    public void checkNestedRepeat() {
+        Program program = compiler.compile("RIPETI 2 [RIPETI 4 [FORWARD 10 RIGHT 90] LEFT 45]");
+        assertEquals(Opcode.REPEAT.ordinal(), program.opcode(0));
+        assertEquals(Opcode.REPEAT.ordinal(), program.opcode(3));
+        assertEquals(program.size(), program.operand(0, 1));
+        assertEquals("RIPETI 2 [RIPETI 4 [FORWARD 10 RIGHT 90] LEFT 45]", program.instructionString(0));
+    }
+
+    @Test
+    public void checkIfIllegalArgumentExceptionIsThrown() {
+        assertThrows(IllegalArgumentException.class,
+                () -> compiler.compileTokens(List.of(List.of("FORWARD"))));
+        assertThrows(IllegalArgumentException.class,
+                () -> compiler.compileTokens(List.of(List.of("FORWARD", "ten"))));
+        assertThrows(IllegalArgumentException.class,
+                () -> compiler.compileTokens(List.of(List.of("SETPENCOLOR", "1", "2"))));
+        assertThrows(IllegalArgumentException.class,
+                () -> compiler.compileTokens(List.of(List.of("JUMP", "1"))));
+        assertThrows(IllegalArgumentException.class,
+                () -> compiler.compileTokens(List.of(List.of("RIPETI", "4"))));
+        assertThrows(IllegalArgumentException.class,
+                () -> compiler.compileTokens(List.of(List.of("RIPETI", "4", "[50 FORWARD]"))));
+    }
+}
@@ -0,0 +1,70 @@
+package it.pa.unicam.stronatisamuele115894.view;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchViewTest {
+
+    Path input;
+    Path output;
+
+    @BeforeEach
+    private void allocate() throws IOException {
+        input = Files.createTempDirectory("programs");
+        output = Files.createTempDirectory("outputs");
+        Files.writeString(input.resolve("square.logo"), "RIPETI 4 [FORWARD 40 RIGHT 90]\n");
+        Files.createDirectories(input.resolve("nested"));
+        Files.writeString(input.resolve("nested").resolve("line.logo"), "SETPENCOLOR 255 0 0\nFORWARD 30\n");
+        Files.writeString(input.resolve("outside.logo"), "FORWARD 500\n");
+        Files.writeString(input.resolve("notes.txt"), "FORWARD 10\n");
+    }
+
+    @AfterEach
+    private void deallocate() throws IOException {
+        for (Path directory : List.of(input, output))
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path p : files.sorted(Comparator.reverseOrder()).toList())
+                    Files.delete(p);
+            }
+    }
+
+    @Test
+    public void checkDirectoryIsRendered() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        List<BatchView.Result> results = new BatchView(input.toString(), output, 2, out).render();
+        assertEquals(3, results.size());
+        assertEquals(input.resolve("nested").resolve("line.logo"), results.get(0).program());
+        assertEquals(output.resolve("nested").resolve("line.logores"), results.get(0).output());
+        assertTrue(results.get(0).succeeded());
+        assertFalse(results.get(1).succeeded());
+        assertEquals("This position is out of bounds!", results.get(1).error());
+        assertTrue(results.get(2).succeeded());
+        assertTrue(Files.readString(output.resolve("square.logores")).startsWith("SIZE 200"));
+        assertTrue(Files.readString(output.resolve("nested").resolve("line.logores")).contains("255 0 0 1"));
+        List<String> report = Files.readAllLines(output.resolve(BatchView.REPORT));
+        assertEquals(4, report.size());
+        assertTrue(report.get(2).startsWith("FAILED\t"));
+        assertTrue(out.toString().startsWith("Rendered 2 of 3 programs"));
+    }
+
+    @Test
+    public void checkGlobIsRendered() throws IOException {
+        List<BatchView.Result> results = new BatchView(input.resolve("*.logo").toString(), output, 1,
+                new ByteArrayOutputStream()).render();
+        assertEquals(2, results.size());
+        assertTrue(Files.exists(output.resolve("square.logores")));
+        assertFalse(Files.exists(output.resolve("nested")));
+        assertThrows(IllegalArgumentException.class, () -> new BatchView(input.toString(), output, 0));
+    }
+}
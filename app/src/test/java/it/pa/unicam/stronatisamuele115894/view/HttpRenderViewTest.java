@@ -0,0 +1,133 @@
+package it.pa.unicam.stronatisamuele115894.view;
+
+import it.pa.unicam.stronatisamuele115894.controller.MapBasedSession;
+import it.pa.unicam.stronatisamuele115894.controller.SessionController;
+import it.pa.unicam.stronatisamuele115894.controller.SessionInjector;
+import it.pa.unicam.stronatisamuele115894.controller.StreamBasedSessionController;
+import it.pa.unicam.stronatisamuele115894.io.StreamProgramLoader;
+import it.pa.unicam.stronatisamuele115894.io.logores.LogoresConverter;
+import it.pa.unicam.stronatisamuele115894.io.modelWriter.FieldWriter;
+import it.pa.unicam.stronatisamuele115894.model.Field;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HttpRenderViewTest {
+
+    private static final String PROGRAM = """
+            SETFILLCOLOR 0 255 0
+            RIPETI 4 [FORWARD 40 RIGHT 90]
+            SETPENCOLOR 255 0 0
+            RIPETI 36 [FORWARD 5 RIGHT 10]
+            """;
+
+    HttpRenderView view;
+    HttpClient client;
+
+    @BeforeEach
+    private void allocate() throws IOException {
+        view = new HttpRenderView(0, 2, Duration.ofMillis(500));
+        view.start();
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterEach
+    private void deallocate() {
+        view.stop();
+        view = null;
+        client = null;
+    }
+
+    private <T> HttpResponse<T> post(String query, String body, HttpResponse.BodyHandler<T> handler)
+            throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + view.getPort() + HttpRenderView.PATH + query))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), handler);
+    }
+
+    private static String render(String program, double width, double height) {
+        Field field = SessionInjector.provideField(width, height);
+        SessionController controller = new StreamBasedSessionController(
+                new MapBasedSession(SessionInjector.provideTurtle(field), SessionInjector.provideCommands()));
+        new StreamProgramLoader(controller).loadProgram(program);
+        controller.runProgram();
+        return new FieldWriter().stringOf(field);
+    }
+
+    @Test
+    public void checkProgramIsRendered() throws IOException, InterruptedException {
+        HttpResponse<String> response = post("", PROGRAM, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode());
+        assertEquals(render(PROGRAM, 200, 200), response.body());
+        response = post("?width=400&height=300", PROGRAM, HttpResponse.BodyHandlers.ofString());
+        assertEquals(render(PROGRAM, 400, 300), response.body());
+        assertTrue(response.body().startsWith("SIZE 400.0 300.0"));
+        HttpResponse<byte[]> binary = post("?format=binary", PROGRAM, HttpResponse.BodyHandlers.ofByteArray());
+        StringBuilder text = new StringBuilder();
+        LogoresConverter.toText(Channels.newChannel(new ByteArrayInputStream(binary.body())), text);
+        assertEquals(render(PROGRAM, 200, 200), text.toString());
+    }
+
+    @Test
+    public void checkBadRequests() throws IOException, InterruptedException {
+        assertEquals(400, post("", "FORWARD 500", HttpResponse.BodyHandlers.ofString()).statusCode());
+        assertEquals(400, post("?width=100000", PROGRAM, HttpResponse.BodyHandlers.ofString()).statusCode());
+        assertEquals(400, post("?format=svg", PROGRAM, HttpResponse.BodyHandlers.ofString()).statusCode());
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(
+                URI.create("http://localhost:" + view.getPort() + HttpRenderView.PATH)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(405, response.statusCode());
+    }
+
+    @Test
+    public void checkProgramIsStoppedAfterTimeout() throws IOException, InterruptedException {
+        HttpResponse<String> response = post("",
+                "RIPETI 100000 [RIPETI 100000 [RIGHT 1 LEFT 2]]", HttpResponse.BodyHandlers.ofString());
+        assertEquals(504, response.statusCode());
+        response = post("", "RIPETI 2000000000 [SETSCREENCOLOR 1 2 3]", HttpResponse.BodyHandlers.ofString());
+        assertEquals(504, response.statusCode());
+        assertEquals(200, post("", PROGRAM, HttpResponse.BodyHandlers.ofString()).statusCode());
+    }
+
+    @Test
+    public void checkRequestIsRefusedWhenNoPermitIsFreed() throws IOException, InterruptedException {
+        try (Socket first = holdPermit(); Socket second = holdPermit()) {
+            Thread.sleep(200);
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(
+                            URI.create("http://localhost:" + view.getPort() + HttpRenderView.PATH))
+                    .timeout(Duration.ofSeconds(5))
+                    .POST(HttpRequest.BodyPublishers.ofString(PROGRAM))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(503, response.statusCode());
+        }
+        assertEquals(200, post("", PROGRAM, HttpResponse.BodyHandlers.ofString()).statusCode());
+    }
+
+    /*
+     * Sends a request whose program never ends to arrive, so that its handler
+     * keeps a permit while reading it.
+     */
+    private Socket holdPermit() throws IOException {
+        Socket socket = new Socket("localhost", view.getPort());
+        OutputStream out = socket.getOutputStream();
+        out.write(("POST " + HttpRenderView.PATH + " HTTP/1.1\r\nHost: localhost\r\nContent-Length: 1000\r\n\r\nFORWARD")
+                .getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+        return socket;
+    }
+}